@@ -0,0 +1,150 @@
+import java.awt.Canvas;
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.Toolkit;
+import java.awt.image.BufferStrategy;
+import java.lang.reflect.InvocationTargetException;
+import javax.swing.SwingUtilities;
+
+/**
+ * Optional active-rendering backend.
+ * A dedicated loop thread draws GamePanel.renderFrame into a Canvas through a
+ * BufferStrategy and paces itself to a target frame rate with System.nanoTime,
+ * instead of waiting for Swing to paint the panel.
+ *
+ * Game state is only touched on the EDT (keys, mouse, the game ticks), so the loop thread
+ * only paces frames: each frame runs the due ticks and draws them in one invokeAndWait,
+ * and input can never change the game halfway through a frame.
+ */
+public class ActiveRenderer extends Canvas implements Runnable {
+    private static final long serialVersionUID = 1L;
+
+    private final GamePanel gp;
+    private final int bufferCount;
+    private final int targetFps;
+    private volatile boolean running = false;
+    private transient Thread loopThread;
+
+    // frame timing in nanoseconds
+    private volatile long lastFrameTime = 0;
+    private volatile long lastRenderTime = 0;
+
+    public ActiveRenderer(GamePanel gp, int bufferCount, int targetFps) {
+        this.gp = gp;
+        this.bufferCount = bufferCount;
+        this.targetFps = targetFps;
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        return new Dimension(gp.gamePanelSizeX, gp.gamePanelSizeY);
+    }
+
+    /**
+     * Start the render loop. The canvas must already be showing (call after window.setVisible)
+     * and be registered with GamePanel.useActiveRenderer.
+     */
+    public void start() {
+        if (running) return;
+        setIgnoreRepaint(true); // we draw every frame ourselves
+        setFocusable(true);
+        createBufferStrategy(bufferCount);
+        requestFocus();
+        running = true;
+        loopThread = new Thread(this, "Render Loop");
+        loopThread.setDaemon(true);
+        loopThread.start();
+    }
+
+    public void stop() {
+        running = false;
+        if (loopThread != null) loopThread.interrupt();
+    }
+
+    @Override
+    public void run() {
+        long frameLength = 1_000_000_000L / targetFps;
+        long nextFrame = System.nanoTime();
+        long lastStart = nextFrame;
+        while (running) {
+            long start = System.nanoTime();
+            lastFrameTime = start - lastStart;
+            lastStart = start;
+
+            try {
+                SwingUtilities.invokeAndWait(this::frame);
+            } catch (InterruptedException e) {
+                break;
+            } catch (InvocationTargetException e) {
+                e.getCause().printStackTrace();
+            }
+            lastRenderTime = System.nanoTime() - start;
+
+            nextFrame += frameLength;
+            long now = System.nanoTime();
+            if (nextFrame < now - frameLength) {
+                // fell more than a frame behind (e.g. window dragged); don't try to catch up
+                nextFrame = now;
+            }
+            waitUntil(nextFrame);
+        }
+    }
+
+    // on the EDT: tick, then draw the result
+    private void frame() {
+        gp.keyH.advanceFrame();
+        render();
+        // every frame is drawn whole, so what was marked is already on screen
+        gp.damage.clear();
+    }
+
+    private void render() {
+        BufferStrategy strategy = getBufferStrategy();
+        if (strategy == null) return;
+        do {
+            do {
+                Graphics g = strategy.getDrawGraphics();
+                try {
+                    g.setColor(getBackground());
+                    g.fillRect(0, 0, gp.gamePanelSizeX, gp.gamePanelSizeY);
+                    gp.renderFrame(g);
+                } finally {
+                    g.dispose();
+                }
+            } while (strategy.contentsRestored());
+            strategy.show();
+        } while (strategy.contentsLost());
+        // flush the window system's queue so the frame appears now, not on the next event
+        Toolkit.getDefaultToolkit().sync();
+    }
+
+    // sleep most of the remaining time, then spin for the last millisecond (sleep alone is too coarse)
+    private void waitUntil(long deadline) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            if (remaining > 2_000_000L) {
+                try {
+                    Thread.sleep((remaining - 1_000_000L) / 1_000_000L);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    // nanoseconds between the start of the last two frames
+    public long getLastFrameTime() {
+        return lastFrameTime;
+    }
+
+    // nanoseconds spent ticking and drawing the last frame
+    public long getLastRenderTime() {
+        return lastRenderTime;
+    }
+
+    public int getTargetFps() {
+        return targetFps;
+    }
+}
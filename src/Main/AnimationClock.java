@@ -0,0 +1,35 @@
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The one clock every sprite animation runs on. The game loop ticks it once per
+ * simulation tick (GameClock.TICK_NANOS) and it advances every playing Animator, so
+ * walking, NPC idles, combat skills and the menu all move in step with the simulation
+ * and the only Swing timer left is the game loop's.
+ *
+ * Animators are added once by their owner and stay registered; stopped ones are
+ * skipped, so starting and stopping an animation never touches the list.
+ */
+public class AnimationClock {
+    private final List<Animator> animators = new ArrayList<>();
+
+    public Animator add(Animator animator) {
+        animators.add(animator);
+        return animator;
+    }
+
+    public void remove(Animator animator) {
+        animators.remove(animator);
+    }
+
+    // by index: a callback may add an animator while we are ticking
+    public void tick() {
+        for (int i = 0; i < animators.size(); i++) {
+            animators.get(i).tick();
+        }
+    }
+
+    public int size() {
+        return animators.size();
+    }
+}
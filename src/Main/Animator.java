@@ -0,0 +1,125 @@
+import java.util.Arrays;
+
+/**
+ * Plays a frame sequence on the game clock: how long each frame is shown (in simulation
+ * ticks), whether it loops or plays once, and what to do when the frame changes or the
+ * sequence ends. It only keeps the frame index; the owner indexes its own frame array
+ * (sprites, menu images, or nothing at all for a plain delay).
+ *
+ * Animators are advanced by the AnimationClock they were added to, once per tick for the
+ * whole scene, instead of each animation running its own Swing timer.
+ */
+public class Animator {
+    // ticks each frame is shown
+    private final int[] frameTicks;
+    private boolean loop = true;
+    private Runnable onFrame;
+    private Runnable onComplete;
+    private int frame = 0;
+    private int previousFrame = 0;
+    // ticks spent on the current frame
+    private int elapsed = 0;
+    private boolean playing = false;
+
+    /**
+     * frameCount frames of the same length.
+     */
+    public Animator(int frameCount, int ticksPerFrame) {
+        frameTicks = new int[Math.max(1, frameCount)];
+        Arrays.fill(frameTicks, Math.max(1, ticksPerFrame));
+    }
+
+    /**
+     * One frame per entry, each shown for that many ticks.
+     */
+    public Animator(int[] frameTicks) {
+        this.frameTicks = new int[Math.max(1, frameTicks.length)];
+        for (int i = 0; i < frameTicks.length; i++) {
+            this.frameTicks[i] = Math.max(1, frameTicks[i]);
+        }
+    }
+
+    /**
+     * Whole ticks closest to a duration in milliseconds (at least one).
+     */
+    public static int ticks(int millis) {
+        return (int) Math.max(1, Math.round(millis * 1_000_000.0 / GameClock.TICK_NANOS));
+    }
+
+    // stop on the last frame instead of looping, and call onComplete
+    public Animator once() {
+        loop = false;
+        return this;
+    }
+
+    // called after every frame change
+    public Animator onFrame(Runnable onFrame) {
+        this.onFrame = onFrame;
+        return this;
+    }
+
+    // called when a play-once sequence has shown its last frame for its full time
+    public Animator onComplete(Runnable onComplete) {
+        this.onComplete = onComplete;
+        return this;
+    }
+
+    /**
+     * Play from the first frame.
+     */
+    public void start() {
+        frame = 0;
+        previousFrame = 0;
+        elapsed = 0;
+        playing = true;
+    }
+
+    /**
+     * Keep playing from the current frame (does nothing if already playing).
+     */
+    public void resume() {
+        playing = true;
+    }
+
+    /**
+     * Stop on the current frame.
+     */
+    public void stop() {
+        playing = false;
+    }
+
+    public boolean isPlaying() {
+        return playing;
+    }
+
+    public int getFrame() {
+        return frame;
+    }
+
+    // the frame shown before the last change, e.g. to repaint where it was
+    public int getPreviousFrame() {
+        return previousFrame;
+    }
+
+    public int getFrameCount() {
+        return frameTicks.length;
+    }
+
+    // advance by one simulation tick; called by AnimationClock
+    void tick() {
+        if (!playing || ++elapsed < frameTicks[frame]) return;
+        elapsed = 0;
+        if (frame + 1 < frameTicks.length) {
+            previousFrame = frame;
+            frame++;
+        } else if (loop) {
+            previousFrame = frame;
+            frame = 0;
+        } else {
+            playing = false;
+            if (onComplete != null) onComplete.run();
+            return;
+        }
+        if (onFrame != null) onFrame.run();
+    }
+}
@@ -0,0 +1,270 @@
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.imageio.ImageIO;
+
+/**
+ * Shared image cache for every loader in the game.
+ * Images are keyed by their normalized canonical path, decoded once and the same
+ * BufferedImage is handed to every caller, so e.g. the player's first walk frame
+ * or a combat background chosen twice is only read from disk a single time.
+ * Every decoded image is converted to the screen's compatible translucent format,
+ * since ImageIO returns whatever layout the PNG had (usually TYPE_4BYTE_ABGR) and
+ * Java2D only accelerates blits from the native one.
+ * With indexed storage on (--indexed or -Dgame.indexedSprites=true) images with at
+ * most 256 colours are kept as palette images instead, see PaletteImages.
+ */
+public final class AssetManager {
+    private static final ConcurrentHashMap<String, BufferedImage> images = new ConcurrentHashMap<>();
+    // trimmed copies of loose frames, see loadTrimmedSprite
+    private static final ConcurrentHashMap<String, Sprite> trimmed = new ConcurrentHashMap<>();
+    private static final AtomicLong trimSavedBytes = new AtomicLong();
+    private static final AtomicLong requests = new AtomicLong();
+    private static final AtomicLong decodes = new AtomicLong();
+    private static final AtomicLong decodeNanos = new AtomicLong();
+    // per asset family (image folder): {bytes as ARGB, bytes as stored}
+    private static final ConcurrentHashMap<String, long[]> familyBytes = new ConcurrentHashMap<>();
+
+    private static volatile boolean indexedStorage = Boolean.getBoolean("game.indexedSprites");
+
+    private AssetManager() {
+    }
+
+    /**
+     * Load an image (or return the cached copy).
+     * Both / and \ are accepted as separators.
+     * @throws IOException if the file is missing or can't be decoded
+     */
+    public static BufferedImage loadImage(String path) throws IOException {
+        requests.incrementAndGet();
+        File file = normalize(path);
+        try {
+            return images.computeIfAbsent(file.getPath(), key -> decode(file));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Like loadImage but returns null instead of throwing when the image is missing.
+     */
+    public static BufferedImage getImage(String path) {
+        try {
+            return loadImage(path);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Load an animation frame: the packed region from the TextureAtlas when the
+     * frame was packed, otherwise the loose image as a whole-image Sprite.
+     * @throws IOException if the frame is in neither place
+     */
+    public static Sprite loadSprite(String path) throws IOException {
+        Sprite packed = TextureAtlas.find(path);
+        if (packed != null) {
+            requests.incrementAndGet();
+            return packed;
+        }
+        return Sprite.of(loadImage(path));
+    }
+
+    /**
+     * Like loadSprite but returns null instead of throwing when the frame is missing.
+     */
+    public static Sprite getSprite(String path) {
+        try {
+            return loadSprite(path);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Keep low-colour images as palette images. Only affects images decoded afterwards.
+     */
+    public static void setIndexedStorage(boolean indexed) {
+        indexedStorage = indexed;
+    }
+
+    public static boolean isIndexedStorage() {
+        return indexedStorage;
+    }
+
+    /**
+     * Load a frame cut down to its non-transparent bounds (see Sprite.trimmed).
+     * Meant for effect frames that are mostly empty canvas: the trimmed copy is cached
+     * and the untrimmed image is dropped from the cache. Frames packed into the atlas
+     * were already trimmed by AtlasPacker and come back as they are.
+     * @throws IOException if the frame is missing
+     */
+    public static Sprite loadTrimmedSprite(String path) throws IOException {
+        Sprite packed = TextureAtlas.find(path);
+        if (packed != null) {
+            requests.incrementAndGet();
+            return packed;
+        }
+        String key = normalize(path).getPath();
+        Sprite cached = trimmed.get(key);
+        if (cached != null) {
+            requests.incrementAndGet();
+            return cached;
+        }
+        BufferedImage full = loadImage(path);
+        Sprite sprite = Sprite.of(full).trimmed();
+        Sprite previous = trimmed.putIfAbsent(key, sprite);
+        if (previous != null) return previous;
+        trimSavedBytes.addAndGet(bytesOf(full) - (sprite.srcWidth == 0 ? 0 : bytesOf(sprite.image)));
+        images.remove(key, full);
+        return sprite;
+    }
+
+    public static boolean exists(String path) {
+        if (TextureAtlas.find(path) != null) return true;
+        try {
+            File file = normalize(path);
+            return images.containsKey(file.getPath()) || trimmed.containsKey(file.getPath()) || file.exists();
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Drop a cached image. Callers still holding the reference keep it alive until they let go.
+     */
+    public static void release(String path) {
+        try {
+            String key = normalize(path).getPath();
+            images.remove(key);
+            trimmed.remove(key);
+        } catch (IOException e) {
+            // nothing cached under an invalid path
+        }
+    }
+
+    public static void clear() {
+        images.clear();
+        trimmed.clear();
+        familyBytes.clear();
+        trimSavedBytes.set(0);
+    }
+
+    public static int getImageCount() {
+        return images.size();
+    }
+
+    // pixel memory held by the cached images
+    public static long getBytes() {
+        long total = 0;
+        for (BufferedImage img : images.values()) total += bytesOf(img);
+        for (Sprite s : trimmed.values()) {
+            if (s.srcWidth > 0) total += bytesOf(s.image);
+        }
+        return total;
+    }
+
+    public static long getRequestCount() {
+        return requests.get();
+    }
+
+    public static long getDecodeCount() {
+        return decodes.get();
+    }
+
+    public static String report() {
+        return String.format("AssetManager: %d images + %d trimmed frames, %.1f MB (trimming saved %.1f MB), "
+                + "%d requests, %d decodes (%.0f ms)",
+            getImageCount(), trimmed.size(), getBytes() / (1024.0 * 1024.0), trimSavedBytes.get() / (1024.0 * 1024.0),
+            requests.get(), decodes.get(), decodeNanos.get() / 1e6);
+    }
+
+    /**
+     * Memory per asset family compared to holding every image as 32-bit ARGB.
+     */
+    public static String familyReport() {
+        StringBuilder sb = new StringBuilder("AssetManager families (" + (indexedStorage ? "indexed" : "ARGB") + "):");
+        long argbTotal = 0, storedTotal = 0;
+        for (Map.Entry<String, long[]> e : new TreeMap<>(familyBytes).entrySet()) {
+            long[] b = e.getValue();
+            argbTotal += b[0];
+            storedTotal += b[1];
+            sb.append(String.format("%n  %-28s %8.1f KB -> %8.1f KB (saved %.1f KB)",
+                e.getKey(), b[0] / 1024.0, b[1] / 1024.0, (b[0] - b[1]) / 1024.0));
+        }
+        sb.append(String.format("%n  total %.1f MB -> %.1f MB", argbTotal / (1024.0 * 1024.0), storedTotal / (1024.0 * 1024.0)));
+        return sb.toString();
+    }
+
+    /**
+     * A blank translucent image in the screen's native pixel layout
+     * (TYPE_INT_ARGB when running headless).
+     */
+    static BufferedImage createCompatibleImage(int w, int h) {
+        if (!GraphicsEnvironment.isHeadless()) {
+            GraphicsConfiguration gc = GraphicsEnvironment.getLocalGraphicsEnvironment()
+                .getDefaultScreenDevice().getDefaultConfiguration();
+            return gc.createCompatibleImage(w, h, Transparency.TRANSLUCENT);
+        }
+        return new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+    }
+
+    // copy img into a compatible image unless it already has the same layout
+    static BufferedImage toCompatible(BufferedImage img) {
+        BufferedImage copy = createCompatibleImage(img.getWidth(), img.getHeight());
+        if (copy.getColorModel().equals(img.getColorModel())
+                && copy.getSampleModel().getClass() == img.getSampleModel().getClass()) {
+            return img;
+        }
+        Graphics2D g = copy.createGraphics();
+        g.drawImage(img, 0, 0, null);
+        g.dispose();
+        return copy;
+    }
+
+    static long bytesOf(BufferedImage img) {
+        DataBuffer db = img.getRaster().getDataBuffer();
+        return (long) db.getSize() * db.getNumBanks() * DataBuffer.getDataTypeSize(db.getDataType()) / 8;
+    }
+
+    private static File normalize(String path) throws IOException {
+        String unified = path.replace('\\', '/').replace('/', File.separatorChar);
+        return new File(unified).getCanonicalFile();
+    }
+
+    private static BufferedImage decode(File file) {
+        try {
+            if (!file.exists()) throw new FileNotFoundException(file.getPath());
+            long start = System.nanoTime();
+            BufferedImage img = ImageIO.read(file);
+            if (img == null) throw new IOException("Unsupported image format: " + file.getPath());
+            long argbBytes = 4L * img.getWidth() * img.getHeight();
+            BufferedImage indexed = indexedStorage ? PaletteImages.toIndexed(img) : null;
+            img = indexed != null ? indexed : toCompatible(img);
+            String family = file.getParentFile().getName();
+            long storedBytes = bytesOf(img);
+            familyBytes.compute(family, (k, b) -> {
+                if (b == null) b = new long[2];
+                b[0] += argbBytes;
+                b[1] += storedBytes;
+                return b;
+            });
+            decodes.incrementAndGet();
+            decodeNanos.addAndGet(System.nanoTime() - start);
+            return img;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
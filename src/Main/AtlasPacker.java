@@ -0,0 +1,172 @@
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import javax.imageio.ImageIO;
+
+/**
+ * Build-time tool that packs the sprite PNGs under res/Entities into a few atlas pages.
+ * Every frame is trimmed to its non-transparent bounds (most combat frames are 800x600
+ * with a small effect in the middle) and shelf-packed by height. The pages and an index
+ * (atlas.txt) are written to res/atlas, where TextureAtlas picks them up at runtime.
+ * Full-screen opaque art (battle backgrounds, menu frames) gains nothing from packing
+ * and stays as loose files.
+ *
+ * To run (from the project root), then commit res/atlas:
+ *   java -cp out AtlasPacker [inputDir] [outputDir]
+ */
+public class AtlasPacker {
+    private static final int PAGE_SIZE = 2048;
+    private static final int PADDING = 2;
+    // frames this big that stay mostly opaque after trimming are left loose
+    private static final int LOOSE_MIN_SIZE = 256;
+    private static final double LOOSE_MIN_COVERAGE = 0.6;
+
+    private static class Entry {
+        String name;
+        BufferedImage image;
+        int trimX, trimY, trimW, trimH;
+        int page = -1, x, y;
+    }
+
+    public static void main(String[] args) throws IOException {
+        File inputDir = new File(args.length > 0 ? args[0] : "res/Entities");
+        File outputDir = new File(args.length > 1 ? args[1] : TextureAtlas.ATLAS_DIR);
+        File resDir = new File("res").getCanonicalFile();
+
+        List<Entry> entries = new ArrayList<>();
+        int loose = 0;
+        for (File f : listPngs(inputDir)) {
+            BufferedImage img = ImageIO.read(f);
+            if (img == null) continue;
+            Entry e = new Entry();
+            e.name = TextureAtlas.nameOf(resDir.toPath().relativize(f.getCanonicalFile().toPath()).toString());
+            e.image = img;
+            trim(e);
+            double coverage = (double) e.trimW * e.trimH / (img.getWidth() * img.getHeight());
+            boolean big = img.getWidth() >= LOOSE_MIN_SIZE && img.getHeight() >= LOOSE_MIN_SIZE;
+            if ((big && coverage >= LOOSE_MIN_COVERAGE) || e.trimW + PADDING > PAGE_SIZE || e.trimH + PADDING > PAGE_SIZE) {
+                loose++;
+                continue;
+            }
+            entries.add(e);
+        }
+
+        int pageCount = pack(entries);
+        outputDir.mkdirs();
+        for (int p = 0; p < pageCount; p++) {
+            BufferedImage page = new BufferedImage(PAGE_SIZE, PAGE_SIZE, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g = page.createGraphics();
+            for (Entry e : entries) {
+                if (e.page != p) continue;
+                g.drawImage(e.image, e.x, e.y, e.x + e.trimW, e.y + e.trimH,
+                    e.trimX, e.trimY, e.trimX + e.trimW, e.trimY + e.trimH, null);
+            }
+            g.dispose();
+            ImageIO.write(cropToUsed(page, entries, p), "png", new File(outputDir, pageName(p)));
+        }
+
+        try (PrintWriter out = new PrintWriter(new File(outputDir, TextureAtlas.INDEX_FILE))) {
+            out.println("# generated by AtlasPacker - do not edit");
+            out.println("# name\tpage\tx\ty\tw\th\toffsetX\toffsetY\tsourceW\tsourceH");
+            for (Entry e : entries) {
+                out.println(e.name + "\t" + (e.page < 0 ? pageName(0) : pageName(e.page)) + "\t" + e.x + "\t" + e.y
+                    + "\t" + e.trimW + "\t" + e.trimH + "\t" + e.trimX + "\t" + e.trimY
+                    + "\t" + e.image.getWidth() + "\t" + e.image.getHeight());
+            }
+        }
+        System.out.println("AtlasPacker: packed " + entries.size() + " frames into " + pageCount
+            + " pages, left " + loose + " loose");
+    }
+
+    private static String pageName(int page) {
+        return "atlas" + page + ".png";
+    }
+
+    private static List<File> listPngs(File dir) {
+        List<File> result = new ArrayList<>();
+        File[] files = dir.listFiles();
+        if (files == null) return result;
+        java.util.Arrays.sort(files);
+        for (File f : files) {
+            if (f.isDirectory()) result.addAll(listPngs(f));
+            else if (f.getName().toLowerCase().endsWith(".png")) result.add(f);
+        }
+        return result;
+    }
+
+    // shrink to the bounding box of all pixels with non-zero alpha
+    private static void trim(Entry e) {
+        BufferedImage img = e.image;
+        int w = img.getWidth();
+        int h = img.getHeight();
+        int minX = w, minY = h, maxX = -1, maxY = -1;
+        int[] row = new int[w];
+        for (int y = 0; y < h; y++) {
+            img.getRGB(0, y, w, 1, row, 0, w);
+            for (int x = 0; x < w; x++) {
+                if ((row[x] >>> 24) != 0) {
+                    if (x < minX) minX = x;
+                    if (x > maxX) maxX = x;
+                    if (y < minY) minY = y;
+                    maxY = y;
+                }
+            }
+        }
+        if (maxX < 0) {
+            // fully transparent frame: nothing to draw
+            e.trimX = e.trimY = e.trimW = e.trimH = 0;
+            return;
+        }
+        e.trimX = minX;
+        e.trimY = minY;
+        e.trimW = maxX - minX + 1;
+        e.trimH = maxY - minY + 1;
+    }
+
+    // shelf packing, tallest frames first; returns the number of pages used
+    private static int pack(List<Entry> entries) {
+        List<Entry> order = new ArrayList<>(entries);
+        order.sort(Comparator.comparingInt((Entry e) -> e.trimH).reversed().thenComparing(e -> e.name));
+        int page = 0, x = 0, y = 0, shelfHeight = 0;
+        boolean used = false;
+        for (Entry e : order) {
+            if (e.trimW == 0 || e.trimH == 0) continue;
+            int w = e.trimW + PADDING;
+            int h = e.trimH + PADDING;
+            if (x + w > PAGE_SIZE) {
+                x = 0;
+                y += shelfHeight;
+                shelfHeight = 0;
+            }
+            if (y + h > PAGE_SIZE) {
+                page++;
+                x = 0;
+                y = 0;
+                shelfHeight = 0;
+            }
+            e.page = page;
+            e.x = x;
+            e.y = y;
+            x += w;
+            shelfHeight = Math.max(shelfHeight, h);
+            used = true;
+        }
+        return used ? page + 1 : 0;
+    }
+
+    // the last page is usually only partly filled
+    private static BufferedImage cropToUsed(BufferedImage page, List<Entry> entries, int p) {
+        int maxX = 1, maxY = 1;
+        for (Entry e : entries) {
+            if (e.page != p) continue;
+            maxX = Math.max(maxX, e.x + e.trimW);
+            maxY = Math.max(maxY, e.y + e.trimH);
+        }
+        return page.getSubimage(0, 0, maxX, maxY);
+    }
+}
@@ -1,11 +1,6 @@
 import java.awt.*;
-import java.awt.event.ActionEvent;
-import java.awt.event.ActionListener;
 import java.awt.image.BufferedImage;
-import java.io.File;
 import java.io.IOException;
-import javax.imageio.ImageIO;
-import javax.swing.*;
 
 /**
  * Simple Pokémon-like battle demo in Java Swing.
@@ -19,7 +14,7 @@ import javax.swing.*;
  *
  * Make sure the image files exist at the exact paths used below.
  */
-public class Combat extends JPanel implements ActionListener {
+public class Combat {
     // Asset paths (these point to the uploaded files in the container)
     private static final String BG_FOLDER = 
     "res/Entities/Combat/background for battle/";
@@ -56,34 +51,86 @@ public class Combat extends JPanel implements ActionListener {
         BROWNEY_FOLDER + "Browney_idle4.png"
     };
 
+    private static final String[] SKILL1_FRAMES = framePaths("res/Entities/Combat/felis skill 1/S1A", 8);
+    private static final String[] SKILL2_FRAMES = framePaths("res/Entities/Combat/felis skill 2/S2A", 8);
+    private static final String[] SKILL3_FRAMES = framePaths("res/Entities/Combat/felis skill 3/S3A", 12);
+    private static final String[] BROWNEY_SKILL1_FRAMES = framePaths("res/Entities/Combat/brown skill 1/Browney_skill", 10);
+
+    // skill 2 plays at 28% x 40% of the screen
+    private static final int SKILL2_WIDTH = (int) (800 * 0.28);
+    private static final int SKILL2_HEIGHT = (int) (600 * 0.40);
+
+    // prefix1.png .. prefixN.png
+    private static String[] framePaths(String prefix, int count) {
+        String[] paths = new String[count];
+        for (int i = 0; i < count; i++) paths[i] = prefix + (i + 1) + ".png";
+        return paths;
+    }
+
+    /**
+     * The battle backgrounds, so the StartupLoader can decode them ahead of time.
+     */
+    static java.util.List<String> backgroundPaths() {
+        return java.util.List.of(BG_PATHS);
+    }
+
+    /**
+     * Every animation frame Combat loads (all trimmed, see loadFrames), so the
+     * StartupLoader can decode and trim them ahead of time.
+     */
+    static java.util.List<String> spritePaths() {
+        java.util.List<String> paths = new java.util.ArrayList<>();
+        for (String[] group : new String[][] {FELIS_FRAMES, BROWNEY_FRAMES,
+                SKILL1_FRAMES, SKILL2_FRAMES, SKILL3_FRAMES, BROWNEY_SKILL1_FRAMES}) {
+            java.util.Collections.addAll(paths, group);
+        }
+        return paths;
+    }
+
+    /**
+     * Load an animation as trimmed frames pre-scaled to drawWidth x drawHeight.
+     * The frames are 800x600 canvases with the character or effect somewhere inside, so
+     * trimming leaves only the pixels that get blended. Missing frames become an empty
+     * placeholder (or stay null with keepMissing, for the idle loops that skip them).
+     */
+    private static Sprite[] loadFrames(String[] paths, int drawWidth, int drawHeight, boolean keepMissing) {
+        Sprite[] frames = new Sprite[paths.length];
+        for (int i = 0; i < paths.length; i++) {
+            try {
+                frames[i] = AssetManager.loadTrimmedSprite(paths[i]).scaled(drawWidth, drawHeight);
+            } catch (IOException ex) {
+                ex.printStackTrace();
+                if (!keepMissing) frames[i] = Sprite.of(new BufferedImage(64, 64, BufferedImage.TYPE_INT_ARGB)); // fallback
+            }
+        }
+        return frames;
+    }
+
     private BufferedImage background;
-    private BufferedImage[] felisFrames;
-    private BufferedImage[] browneyFrames;
+    private Sprite[] felisFrames;
+    private Sprite[] browneyFrames;
     
     // Skill 1 animation
-    private BufferedImage[] skill1Frames; // array holding all frames of Skill 1
-    private int skill1Index = 0;          // current frame
-    private boolean skill1Active = false; // whether animation is playing
-    private Timer skill1Timer;    
-    private BufferedImage[] skill2Frames; // array holding all frames of Skill 1
-    private int skill2Index = 0;          // current frame
-    private boolean skill2Active = false; // whether animation is playing
-    private Timer skill2Timer;         // cycles through frames
-    private BufferedImage[] skill3Frames; // array holding all frames of Skill 1
-    private int skill3Index = 0;          // current frame
-    private boolean skill3Active = false; // whether animation is playing
-    private Timer skill3Timer; 
+    private Sprite[] skill1Frames; // array holding all frames of Skill 1
+    private final Animator skill1Anim; // cycles through frames while the skill plays
+    private Sprite[] skill2Frames; // array holding all frames of Skill 2
+    private final Animator skill2Anim;
+    private Sprite[] skill3Frames; // array holding all frames of Skill 3
+    private final Animator skill3Anim;
 
     // Browney Skill 1
-    private BufferedImage[] browneySkill1Frames;
-    private int browneySkill1Index = 0;
-    private boolean browneySkill1Active = false;
-    private Timer browneySkill1Timer;
+    private Sprite[] browneySkill1Frames;
+    private final Animator browneySkill1Anim;
 
+    // Felis and Browney idle frames advance together
+    private final Animator idleAnim;
 
-    private int felisIndex = 0;
-    private int browneyIndex = 0;
-    private int whatFrame = 0;
+    // hit flashes: the fighter that was hit is drawn tinted while these play
+    private static final Color ENEMY_FLASH = Color.WHITE;
+    private static final Color PLAYER_FLASH = Color.RED;
+    private static final int FLASH_AMOUNT = 170;
+    private final Animator enemyFlash;
+    private final Animator playerFlash;
 
     // Simple stats
     private int playerHp = 100;
@@ -92,33 +139,75 @@ public class Combat extends JPanel implements ActionListener {
 
 
     // UI
-    private Timer animationTimer;
-    private Timer enemyActionTimer;
-    private JButton skill1Btn;
-    private JButton skill2Btn;
-    private JButton skill3Btn;
-    private JLabel statusLabel;
-    private JComboBox<String> bgSelect;
+    // one frame long: Browney's turn comes this long after a skill
+    private final Animator enemyTurn;
+    private final UiLayer ui;
+    // the status box sits under the fighters and skill effects, so it has a layer of its own
+    private final UiLayer backdrop;
+    private final UiButton skill1Btn;
+    private final UiButton skill2Btn;
+    private final UiButton skill3Btn;
+    private final UiLabel statusLabel;
+    private final UiDropdown bgSelect;
     
     // GamePanel reference for integration
     private GamePanel gamePanel;
     private boolean combatActive = false;
 
+    // text comes from glyph atlases; labels are laid out again only when they change
+    private static final Font TEXT_FONT = new Font("Bradley Hand ITC", Font.BOLD, 24);
+    private static final Font BUTTON_FONT = new Font("Bradley Hand ITC", Font.BOLD, 18);
+    private static final Font SELECT_FONT = new Font("Arial", Font.PLAIN, 14);
+    private static final Color STATUS_BOX = new Color(0, 0, 70, 200); // semi-transparent dark blue
+    private static final Color BUTTON = new Color(0, 0, 70);
+    private static final Color PLATFORM = new Color(135, 103, 51);
+    private final TextLine playerHpLine = new TextLine(GlyphAtlas.get(TEXT_FONT, Color.BLACK));
+    private final TextLine enemyHpLine = new TextLine(GlyphAtlas.get(TEXT_FONT, Color.BLACK));
+    private int shownPlayerHp = -1, shownEnemyHp = -1;
+
+    // particle effects in screen pixels, on top of the skill frames
+    private static final int PLAYER_X = 150, PLAYER_Y = 450;
+    private static final int ENEMY_X = 650, ENEMY_Y = 150;
+    // ticks the skill 3 projectile takes to cross to the enemy
+    private static final int PROJECTILE_TICKS = 30;
+    private final ParticleSystem particles = new ParticleSystem(4096);
+    private final ParticleEmitter skill1Sparks = ParticleEmitter.hitSparks(0xffffd040);
+    private final ParticleEmitter skill2Cone =
+        ParticleEmitter.skillCone(0xff60c0ff, Math.atan2(ENEMY_Y - PLAYER_Y, ENEMY_X - PLAYER_X));
+    private final ParticleEmitter skill3Trail = ParticleEmitter.skillTrail(0xffff60ff);
+    private final ParticleEmitter skill3Burst = ParticleEmitter.hitSparks(0xffff60ff);
+    private final ParticleEmitter enemySparks = ParticleEmitter.hitSparks(0xffc06030);
+    private int projectileTrail = -1;
+    private int projectileTick;
+
     public Combat(GamePanel gamePanel) {
         this.gamePanel = gamePanel;
-        setPreferredSize(new Dimension(800, 600));
-        setLayout(null);
-
-        loadAssets(0); // load default background
+        ui = new UiLayer(gamePanel != null ? gamePanel.damage : null);
+        backdrop = new UiLayer(gamePanel != null ? gamePanel.damage : null);
+
+        // all combat animations run on the game's AnimationClock
+        idleAnim = new Animator(FELIS_FRAMES.length, Animator.ticks(150)).onFrame(this::idleFrameChanged);
+        // 100ms per frame; each skill ends in Browney's attack
+        skill1Anim = new Animator(SKILL1_FRAMES.length, Animator.ticks(100)).once()
+            .onFrame(this::markAllDirty).onComplete(this::skillFinished);
+        skill2Anim = new Animator(SKILL2_FRAMES.length, Animator.ticks(100)).once()
+            .onFrame(this::markAllDirty).onComplete(this::skillFinished);
+        skill3Anim = new Animator(SKILL3_FRAMES.length, Animator.ticks(100)).once()
+            .onFrame(this::markAllDirty).onComplete(this::skillFinished);
+        browneySkill1Anim = new Animator(BROWNEY_SKILL1_FRAMES.length, Animator.ticks(80)).once()
+            .onFrame(this::markAllDirty).onComplete(this::markAllDirty);
+        enemyTurn = new Animator(1, Animator.ticks(700)).once().onComplete(this::enemyTurnFinished);
+        enemyFlash = new Animator(1, Animator.ticks(150)).once().onComplete(this::markAllDirty);
+        playerFlash = new Animator(1, Animator.ticks(150)).once().onComplete(this::markAllDirty);
+        if (gamePanel != null) {
+            for (Animator a : new Animator[] {idleAnim, skill1Anim, skill2Anim, skill3Anim, browneySkill1Anim, enemyTurn,
+                    enemyFlash, playerFlash}) {
+                gamePanel.animations.add(a);
+            }
+        }
 
-        // Animation timer (sprite frame updates)
-        animationTimer = new Timer(150, e -> {
-            felisIndex = (felisIndex + 1) % felisFrames.length;
-            browneyIndex = (browneyIndex + 1) % browneyFrames.length;
-            repaint();
-        });
-        // Don't start animation timer here - only start when combat begins
-        // animationTimer.start();
+        loadSprites();
+        loadBackground(0); // load default background
 
         int panelWidth = 800;
         int btnWidth = 100;
@@ -129,75 +218,42 @@ public class Combat extends JPanel implements ActionListener {
         
 
         // Skill buttons
-        skill1Btn = new JButton("Skill 1");
-        skill1Btn.setBounds(panelWidth - btnWidth - rightMargin - 280, startY, btnWidth, btnHeight);
-        skill1Btn.setBackground(new Color(0, 0, 70));
-        skill1Btn.setForeground(Color.YELLOW);
-        skill1Btn.setFont(new Font("Bradley Hand ITC", Font.BOLD, 18));
-        skill1Btn.setFocusPainted(false);
-        skill1Btn.setVisible(false);
-        skill1Btn.addActionListener(e -> {
-        if (!skill1Active) {
-            skill1Active = true;   // mark animation as playing
-            skill1Index = 0;       // start from first frame
-            if (skill1Timer != null) skill1Timer.start();   // start cycling frames
+        GlyphAtlas buttonFont = GlyphAtlas.get(BUTTON_FONT, Color.YELLOW);
+        skill1Btn = ui.add(new UiButton(panelWidth - btnWidth - rightMargin - 280, startY, btnWidth, btnHeight,
+            "Skill 1", buttonFont, BUTTON, () -> {
+        if (!skill1Anim.isPlaying()) {
+            skill1Anim.start();   // play from the first frame
+            particles.emit(skill1Sparks, ENEMY_X, ENEMY_Y);
             playerSkill(1, 15, 5); // call damage logic
         }
-        });
-        add(skill1Btn);
-
-        skill2Btn = new JButton("Skill 2");
-        skill2Btn.setBounds(panelWidth - btnWidth - rightMargin - 150, startY, btnWidth, btnHeight);
-        skill2Btn.setBackground(new Color(0, 0, 70));
-        skill2Btn.setForeground(Color.YELLOW);
-        skill2Btn.setFont(new Font("Bradley Hand ITC", Font.BOLD, 18));
-        skill2Btn.setFocusPainted(false);
-        skill2Btn.setVisible(false);
-        skill2Btn.addActionListener(e -> {
-        if (!skill2Active) {
-            skill2Active = true;   // mark animation as playing
-            skill2Index = 0;       // start from first frame
-            if (skill2Timer != null) skill2Timer.start();   // start cycling frames
+        }));
+
+        skill2Btn = ui.add(new UiButton(panelWidth - btnWidth - rightMargin - 150, startY, btnWidth, btnHeight,
+            "Skill 2", buttonFont, BUTTON, () -> {
+        if (!skill2Anim.isPlaying()) {
+            skill2Anim.start();   // play from the first frame
+            particles.emit(skill2Cone, PLAYER_X, PLAYER_Y);
             playerSkill(2, 8, 5); // call damage logic
         }
-        });
-        add(skill2Btn);
-
-
-        skill3Btn = new JButton("Skill 3");
-        skill3Btn.setBounds(panelWidth - btnWidth - rightMargin - 20, startY, btnWidth, btnHeight);
-        skill3Btn.setBackground(new Color(0, 0, 70));
-        skill3Btn.setForeground(Color.YELLOW);
-        skill3Btn.setFont(new Font("Bradley Hand ITC", Font.BOLD, 18));
-        skill3Btn.setFocusPainted(false);
-        skill3Btn.setVisible(false);
-        skill3Btn.addActionListener(e -> {
-        if (!skill3Active) {
-            skill3Active = true;   // mark animation as playing
-            skill3Index = 0;       // start from first frame
-            if (skill3Timer != null) skill3Timer.start();   // start cycling frames
+        }));
+
+        skill3Btn = ui.add(new UiButton(panelWidth - btnWidth - rightMargin - 20, startY, btnWidth, btnHeight,
+            "Skill 3", buttonFont, BUTTON, () -> {
+        if (!skill3Anim.isPlaying()) {
+            skill3Anim.start();   // play from the first frame
+            launchProjectile();
             playerSkill(3, 22, 5); // call damage logic
         }
-        });
-        add(skill3Btn);
+        }));
 
-        // Status label
-        statusLabel = new JLabel("Choose your action...");
-        statusLabel.setForeground(Color.YELLOW);
-        statusLabel.setFont(new Font("Bradley Hand ITC", Font.BOLD, 16));
-        statusLabel.setVisible(false);
-        add(statusLabel);
+        // Status box
+        statusLabel = backdrop.add(new UiLabel(300, 400, 480, 80, GlyphAtlas.get(TEXT_FONT, Color.YELLOW), STATUS_BOX));
+        statusLabel.setText("Choose your action...");
 
         // Background selector
-        bgSelect = new JComboBox<>();
-        for (int i = 0; i < BG_PATHS.length; i++) bgSelect.addItem("BACKGROUND" + (i+1));
-        bgSelect.setBounds(20, 20, 140, 30);
-        bgSelect.addActionListener(e -> loadAssets(bgSelect.getSelectedIndex()));
-        bgSelect.setVisible(false);
-        add(bgSelect);
-
-        // Enemy action timer placeholder
-        enemyActionTimer = new Timer(800, null);
+        java.util.List<String> bgNames = new java.util.ArrayList<>();
+        for (int i = 0; i < BG_PATHS.length; i++) bgNames.add("BACKGROUND" + (i+1));
+        bgSelect = ui.add(new UiDropdown(20, 20, 140, 30, bgNames, GlyphAtlas.get(SELECT_FONT, Color.BLACK), this::loadBackground));
     }
 
     // Unified skill method
@@ -206,8 +262,9 @@ public class Combat extends JPanel implements ActionListener {
 
         int dmg = baseDamage + (int)(Math.random() * randomRange);
         enemyHp = Math.max(0, enemyHp - dmg);
+        enemyFlash.start();
         statusLabel.setText("Skill " + skillNum + " hits the enemy for " + dmg + " damage!");
-        repaint();
+        markAllDirty();
 
         if (enemyHp == 0) {
         enemyHp = 0;
@@ -216,7 +273,7 @@ public class Combat extends JPanel implements ActionListener {
         skill1Btn.setEnabled(false);   // disable skill buttons
         skill2Btn.setEnabled(false);
         skill3Btn.setEnabled(false);
-        repaint();
+        markAllDirty();
         return;
     }
         // Disable skill buttons during enemy attack
@@ -225,23 +282,28 @@ public class Combat extends JPanel implements ActionListener {
         skill3Btn.setEnabled(false);
 
         // Enemy retaliation
-        enemyActionTimer.stop();
-        enemyActionTimer = new Timer(700, ae -> {
-            enemyAttack();
-            skill1Btn.setEnabled(true);
-            skill2Btn.setEnabled(true);
-            skill3Btn.setEnabled(true);
-        });
-        enemyActionTimer.setRepeats(false);
-        enemyActionTimer.start();
+        enemyTurn.start();
+    }
+
+    // Browney has attacked; the player's turn again
+    private void enemyTurnFinished() {
+        enemyAttack();
+        skill1Btn.setEnabled(true);
+        skill2Btn.setEnabled(true);
+        skill3Btn.setEnabled(true);
+    }
+
+    // the last frame of a skill has been shown
+    private void skillFinished() {
+        enemyAttack();
+        markAllDirty(); // redraw panel without the skill frame
     }
 
     public void enemyAttack() {
 
     // Trigger Browney skill animation
-    browneySkill1Active = true;
-    browneySkill1Index = 0;
-    if (browneySkill1Timer != null) browneySkill1Timer.start();
+    browneySkill1Anim.start();
+    particles.emit(enemySparks, PLAYER_X, PLAYER_Y);
 
     int preDamage = 5;
     int randomNum = 5;
@@ -250,15 +312,44 @@ public class Combat extends JPanel implements ActionListener {
     int damage = preDamage + (int)(Math.random() * randomNum); // whatever your attack is
     playerHp -= damage;
     if (playerHp < 0) playerHp = 0;
+    playerFlash.start();
 
     statusLabel.setText("Browney used Skill 1! -" + damage + " HP");
+    markAllDirty();
 
 }
 
 
-    private void loadAssets(int bgIndex) {
+    // skill 3 flies from the player to the enemy and bursts on arrival
+    private void launchProjectile() {
+        particles.stopTrail(projectileTrail);
+        projectileTrail = particles.startTrail(skill3Trail, PLAYER_X, PLAYER_Y, -1);
+        projectileTick = 0;
+    }
+
+    /**
+     * Advance the particle effects by one simulation tick (called from the game loop).
+     */
+    public void tick() {
+        if (projectileTrail >= 0) {
+            projectileTick++;
+            float t = projectileTick / (float) PROJECTILE_TICKS;
+            particles.moveTrail(projectileTrail, PLAYER_X + (ENEMY_X - PLAYER_X) * t, PLAYER_Y + (ENEMY_Y - PLAYER_Y) * t);
+            if (projectileTick >= PROJECTILE_TICKS) {
+                particles.stopTrail(projectileTrail);
+                projectileTrail = -1;
+                particles.emit(skill3Burst, ENEMY_X, ENEMY_Y);
+            }
+        }
+        if (particles.isIdle()) return;
+        particles.update();
+        if (gamePanel != null) particles.markDirty(gamePanel.damage, 0, 0, 1);
+    }
+
+    // the background dropdown only swaps this image
+    private void loadBackground(int bgIndex) {
         try {
-            background = ImageIO.read(new File(BG_PATHS[bgIndex]));
+            background = AssetManager.loadImage(BG_PATHS[bgIndex]);
         } catch (IOException ex) {
             background = new BufferedImage(800, 600, BufferedImage.TYPE_INT_ARGB);
             Graphics2D g = background.createGraphics();
@@ -268,136 +359,49 @@ public class Combat extends JPanel implements ActionListener {
             g.fillRect(0, 300, 800, 300);
             g.dispose();
         }
+        markAllDirty();
+    }
 
-        skill1Frames = new BufferedImage[8]; // 8 PNGs for skill 1
-        for (int i = 0; i < 8; i++) {
-            try {
-                String path = "res/Entities/Combat/felis skill 1/S1A" + (i+1) + ".png";
-                skill1Frames[i] = ImageIO.read(new File(path));
-            } catch (IOException ex) {
-                ex.printStackTrace();
-                skill1Frames[i] = new BufferedImage(64, 64, BufferedImage.TYPE_INT_ARGB); // fallback
-            }
-        }
-
-        // Timer to cycle through frames
-        skill1Timer = new Timer(100, e -> { // 100ms per frame
-            skill1Index++;
-            if (skill1Index >= skill1Frames.length) {
-                skill1Index = 0;
-                skill1Active = false; // stop animation when last frame is reached
-                skill1Timer.stop();
-                enemyAttack();
-            }
-            repaint(); // redraw panel with updated frame
-        });
-
-        skill2Frames = new BufferedImage[8]; // 8 PNGs for skill 2
-        for (int i = 0; i < 8; i++) {
-            try {
-                String path = "res/Entities/Combat/felis skill 2/S2A" + (i+1) + ".png";
-                skill2Frames[i] = ImageIO.read(new File(path));
-            } catch (IOException ex) {
-                ex.printStackTrace();
-                skill2Frames[i] = new BufferedImage(64, 64, BufferedImage.TYPE_INT_ARGB); // fallback
-            }
-        }
-
-        // Timer to cycle through frames
-        skill2Timer = new Timer(100, e -> { // 100ms per frame
-            skill2Index++;
-            if (skill2Index >= skill2Frames.length) {
-                skill2Index = 0;
-                skill2Active = false; // stop animation when last frame is reached
-                skill2Timer.stop();
-                enemyAttack();
-            }
-            repaint(); // redraw panel with updated frame
-        });
-
-        skill3Frames = new BufferedImage[12]; // 8 PNGs for skill 2
-        for (int i = 0; i < 12; i++) {
-            try {
-                String path = "res/Entities/Combat/felis skill 3/S3A" + (i+1) + ".png";
-                skill3Frames[i] = ImageIO.read(new File(path));
-            } catch (IOException ex) {
-                ex.printStackTrace();
-                skill3Frames[i] = new BufferedImage(64, 64, BufferedImage.TYPE_INT_ARGB); // fallback
-            }
-        }
+    // every fighter and skill animation, trimmed and scaled once
+    private void loadSprites() {
+        skill1Frames = loadFrames(SKILL1_FRAMES, 800, 600, false); // 8 PNGs for skill 1
 
-        // Timer to cycle through frames
-        skill3Timer = new Timer(100, e -> { // 100ms per frame
-            skill3Index++;
-            if (skill3Index >= skill3Frames.length) {
-                skill3Index = 0;
-                skill3Active = false; // stop animation when last frame is reached
-                skill3Timer.stop();
-                enemyAttack();
-            }
+        // skill 2 is shown shrunk next to the player
+        skill2Frames = loadFrames(SKILL2_FRAMES, SKILL2_WIDTH, SKILL2_HEIGHT, false); // 8 PNGs for skill 2
 
-            repaint(); // redraw panel with updated frame
-        });
+        skill3Frames = loadFrames(SKILL3_FRAMES, 800, 600, false); // 12 PNGs for skill 3
 
-        
         // Load Browney Skill 1 (10 frames)
-        browneySkill1Frames = new BufferedImage[10]; // 8 PNGs for skill 2
-        for (int i = 0; i < 10; i++) {
-            try {
-                String path = "res/Entities/Combat/brown skill 1/Browney_skill" + (i+1) + ".png";
-                browneySkill1Frames[i] = ImageIO.read(new File(path));
-            } catch (IOException ex) {
-                ex.printStackTrace();
-                browneySkill1Frames[i] = new BufferedImage(64, 64, BufferedImage.TYPE_INT_ARGB); // fallback
-            }
-        }
-        browneySkill1Timer = new Timer(80, e -> {
-        browneySkill1Index++;
-
-        if (browneySkill1Index >= browneySkill1Frames.length) {
-            browneySkill1Timer.stop();
-            browneySkill1Active = false;
-            browneySkill1Index = 0;
-        }
-
-        repaint();
-        });
-
+        browneySkill1Frames = loadFrames(BROWNEY_SKILL1_FRAMES, 800, 600, false); // 10 PNGs for Browney skill 1
 
-        
         // Load Felis frames
-        felisFrames = new BufferedImage[FELIS_FRAMES.length];
-        for (int i = 0; i < FELIS_FRAMES.length; i++) {
-            try {
-                felisFrames[i] = ImageIO.read(new File(FELIS_FRAMES[i]));
-            } catch (IOException ex) {
-                ex.printStackTrace();
-            }
-        }
+        felisFrames = loadFrames(FELIS_FRAMES, 800, 600, true);
 
         // Load Browney frames
-        browneyFrames = new BufferedImage[BROWNEY_FRAMES.length];
-        for (int i = 0; i < BROWNEY_FRAMES.length; i++) {
-            try {
-                browneyFrames[i] = ImageIO.read(new File(BROWNEY_FRAMES[i]));
-            } catch (IOException ex) {
-                ex.printStackTrace();
-            }
-        }
+        browneyFrames = loadFrames(BROWNEY_FRAMES, 800, 600, true);
+    }
 
-        repaint();
-        
+
+    // Combat is drawn by GamePanel, so redraws go through its damage tracker
+    private void markAllDirty() {
+        if (gamePanel != null) gamePanel.damage.markAllDirty();
     }
 
+    // only the idle sprites change on an idle animation tick
+    private void idleFrameChanged() {
+        markIdleFramesDirty(idleAnim.getPreviousFrame());
+        markIdleFramesDirty(idleAnim.getFrame());
+    }
 
-    @Override
-    protected void paintComponent(Graphics g) {
-        super.paintComponent(g);
-        // Combat rendering is now handled by the draw() method
-        // which is called from GamePanel.paintComponent()
+    private void markIdleFramesDirty(int frame) {
+        if (gamePanel == null) return;
+        Sprite pImg = felisFrames[frame % felisFrames.length];
+        if (pImg != null) gamePanel.damage.markDirty(20, 600 - pImg.getHeight() - 20, pImg.getWidth(), pImg.getHeight());
+        Sprite eImg = browneyFrames[frame % browneyFrames.length];
+        if (eImg != null) gamePanel.damage.markDirty(800 - eImg.getWidth() - 3, 1, eImg.getWidth(), eImg.getHeight());
     }
 
-    private void drawHpBar(Graphics2D g, String name, int hp, int x, int y) {
+    private void drawHpBar(Graphics2D g, Renderer r, TextLine label, int hp, int x, int y) {
         g.setColor(Color.DARK_GRAY);
         g.fillRect(x, y, 200, 20);
         g.setColor(Color.GREEN);
@@ -405,13 +409,7 @@ public class Combat extends JPanel implements ActionListener {
         g.fillRect(x, y, w, 20);
         g.setColor(Color.BLACK);
         g.drawRect(x, y, 200, 20);
-        g.drawString(name + " HP: " + hp + "/100", x - 8, y - 12);
-    }
-
-
-    @Override
-    public void actionPerformed(ActionEvent e) {
-        // not used
+        label.draw(r, x - 8, y - 12);
     }
 
     // ============ GAMEPANEL INTEGRATION METHODS ============
@@ -431,21 +429,15 @@ public class Combat extends JPanel implements ActionListener {
         playerHp = 100;
         enemyHp = 100;
         enemyDefeated = false;
-        whatFrame = 0;
         statusLabel.setText("Battle Started!");
-        statusLabel.setVisible(true);
-        skill1Btn.setVisible(true);
         skill1Btn.setEnabled(true);
-        skill2Btn.setVisible(true);
         skill2Btn.setEnabled(true);
-        skill3Btn.setVisible(true);
         skill3Btn.setEnabled(true);
-        bgSelect.setVisible(true);
-        // Start animation timer when combat begins
-        if (animationTimer != null && !animationTimer.isRunning()) {
-            animationTimer.start();
-        }
-        repaint();
+        // Enter uses skill 1 until the keyboard moves focus
+        ui.setFocus(skill1Btn);
+        // Start the idle animation when combat begins
+        idleAnim.resume();
+        markAllDirty();
     }
 
     /**
@@ -453,145 +445,112 @@ public class Combat extends JPanel implements ActionListener {
      */
     public void endCombat() {
         combatActive = false;
-        statusLabel.setVisible(false);
-        skill1Btn.setVisible(false);
-        skill2Btn.setVisible(false);
-        skill3Btn.setVisible(false);
-        bgSelect.setVisible(false);
-        // Stop animation timer when combat ends
-        if (animationTimer != null && animationTimer.isRunning()) {
-            animationTimer.stop();
-        }
+        bgSelect.setOpen(false);
+        particles.clear();
+        projectileTrail = -1;
+        // Stop every combat animation when combat ends
+        idleAnim.stop();
+        skill1Anim.stop();
+        skill2Anim.stop();
+        skill3Anim.stop();
+        browneySkill1Anim.stop();
+        enemyTurn.stop();
+        enemyFlash.stop();
+        playerFlash.stop();
         if (gamePanel != null) {
             gamePanel.repaint();
         }
     }
 
     /**
-     * Draw the combat UI on the provided Graphics context
+     * Draw the combat UI through the provided Renderer
      */
-    public void draw(Graphics g) {
-        Graphics2D g2 = (Graphics2D) g;
+    public void draw(Renderer r) {
+        Graphics2D g2 = (Graphics2D) r.getGraphics();
 
-        // Draw background scaled to panel
+        // Draw background (already panel sized)
         if (background != null) {
-            g2.drawImage(background, 0, 0, 800, 600, null);
+            r.drawImage(background, 0, 0);
         }
 
-        // Draw the block behind status text
-        g2.setColor(new Color(0, 0, 70, 200)); // semi-transparent dark blue
-        int labelX = 300;
-        int labelY = 400;
-        int labelWidth = 480;
-        int labelHeight = 80;
-        g2.fillRoundRect(labelX, labelY, labelWidth, labelHeight, 10, 10);
-
-        // Draw dynamic status text
-        g2.setColor(Color.YELLOW);
-        g2.setFont(new Font("Bradley Hand ITC", Font.BOLD, 24));
-        String text = statusLabel.getText();
-        g2.drawString(text, labelX + 10, labelY + 28);
+        // status box behind everything else
+        backdrop.draw(r);
 
         // Draw brown oval platform
         int platformWidth = 280;
         int platformHeight = 70;
         int platformX = 60;
         int platformY = 480;
-        g2.setColor(new Color(135, 103, 51));
+        g2.setColor(PLATFORM);
         g2.fillOval(platformX, platformY, platformWidth, platformHeight);
 
         // Draw player idle ONLY if no skill is active
-        if (!skill1Active && !skill2Active && !skill3Active) {
+        if (!skill1Anim.isPlaying() && !skill2Anim.isPlaying() && !skill3Anim.isPlaying()) {
             if (felisFrames != null && felisFrames.length > 0) {
-                BufferedImage pImg = felisFrames[felisIndex];
+                Sprite pImg = felisFrames[idleAnim.getFrame() % felisFrames.length];
                 int pX = 20;
                 int pY = 600 - pImg.getHeight() - 20;
-                g2.drawImage(pImg, pX, pY, null);
+                if (playerFlash.isPlaying()) r.drawSpriteTinted(pImg, pX, pY, PLAYER_FLASH, FLASH_AMOUNT);
+                else r.drawSprite(pImg, pX, pY);
             }
         }
 
         // Draw skill animations on top if active
-        if (skill1Active && skill1Frames != null) {
-            BufferedImage frame = skill1Frames[skill1Index];
-            g2.drawImage(frame, 0, 0, 800, 600, null);
+        if (skill1Anim.isPlaying() && skill1Frames != null) {
+            Sprite frame = skill1Frames[skill1Anim.getFrame()];
+            r.drawSprite(frame, 0, 0, 800, 600);
         } 
 
-        if (skill2Active && skill2Frames != null) {
-            BufferedImage frame = skill2Frames[skill2Index];
-            double scale1 = 0.28;
-            double scale2 = 0.40;
-            int w = (int)(800 * scale1);
-            int h = (int)(600 * scale2);
-            g2.drawImage(frame, 130, 300, w, h, null);
+        if (skill2Anim.isPlaying() && skill2Frames != null) {
+            Sprite frame = skill2Frames[skill2Anim.getFrame()];
+            r.drawSprite(frame, 130, 300);
         }
 
-        if (skill3Active && skill3Frames != null) {
-            BufferedImage frame = skill3Frames[skill3Index];
-            g2.drawImage(frame, 0, 0, 800, 600, null);
+        if (skill3Anim.isPlaying() && skill3Frames != null) {
+            Sprite frame = skill3Frames[skill3Anim.getFrame()];
+            r.drawSprite(frame, 0, 0, 800, 600);
         }
 
-        if (browneySkill1Active && browneySkill1Frames != null) {
-            BufferedImage bf = browneySkill1Frames[browneySkill1Index];
-            g2.drawImage(bf, 0, 0, 800, 600, null);
+        if (browneySkill1Anim.isPlaying() && browneySkill1Frames != null) {
+            Sprite bf = browneySkill1Frames[browneySkill1Anim.getFrame()];
+            r.drawSprite(bf, 0, 0, 800, 600);
         }
 
         // Draw basic HP bars
-        drawHpBar(g2, "Player", playerHp, 110, 570);
-        drawHpBar(g2, "Enemy", enemyHp, 490, 310);
+        if (playerHp != shownPlayerHp) {
+            shownPlayerHp = playerHp;
+            playerHpLine.setText("Player HP: " + playerHp + "/100");
+        }
+        if (enemyHp != shownEnemyHp) {
+            shownEnemyHp = enemyHp;
+            enemyHpLine.setText("Enemy HP: " + enemyHp + "/100");
+        }
+        drawHpBar(g2, r, playerHpLine, playerHp, 110, 570);
+        drawHpBar(g2, r, enemyHpLine, enemyHp, 490, 310);
 
         // Draw enemy (Browney) in upper-right corner
         if (!enemyDefeated && browneyFrames != null && browneyFrames.length > 0) {
-            BufferedImage eImg = browneyFrames[browneyIndex];
+            Sprite eImg = browneyFrames[idleAnim.getFrame() % browneyFrames.length];
             int eW = eImg.getWidth();
             int eH = eImg.getHeight();
             int eX = 800 - eW - 3;
             int eY = 1;
-            g2.drawImage(eImg, eX, eY, null);
+            if (enemyFlash.isPlaying()) r.drawSpriteTinted(eImg, eX, eY, ENEMY_FLASH, FLASH_AMOUNT);
+            else r.drawSprite(eImg, eX, eY);
         }
 
-        // Draw skill buttons
-        drawButton(g2, skill1Btn);
-        drawButton(g2, skill2Btn);
-        drawButton(g2, skill3Btn);
-    }
+        // skill particles over both fighters
+        particles.draw(r, 0, 0, 1);
 
-    /**
-     * Draw a button on the graphics context
-     */
-    private void drawButton(Graphics2D g2, JButton btn) {
-        Rectangle bounds = btn.getBounds();
-        
-        // Draw button background
-        g2.setColor(btn.getBackground());
-        g2.fillRect(bounds.x, bounds.y, bounds.width, bounds.height);
-        
-        // Draw button border
-        g2.setColor(Color.BLACK);
-        g2.setStroke(new BasicStroke(2));
-        g2.drawRect(bounds.x, bounds.y, bounds.width, bounds.height);
-        
-        // Draw button text
-        g2.setColor(btn.getForeground());
-        g2.setFont(btn.getFont());
-        FontMetrics fm = g2.getFontMetrics();
-        String text = btn.getText();
-        int textX = bounds.x + (bounds.width - fm.stringWidth(text)) / 2;
-        int textY = bounds.y + ((bounds.height - fm.getHeight()) / 2) + fm.getAscent();
-        g2.drawString(text, textX, textY);
+        // skill buttons and background selector on top of everything
+        ui.draw(r);
     }
 
     /**
      * Handle mouse clicks in the combat UI
      */
     public void onMouseClicked(int x, int y) {
-        // Check if any buttons were clicked
-        if (skill1Btn.getBounds().contains(x, y)) {
-            skill1Btn.doClick();
-        } else if (skill2Btn.getBounds().contains(x, y)) {
-            skill2Btn.doClick();
-        } else if (skill3Btn.getBounds().contains(x, y)) {
-            skill3Btn.doClick();
-        }
+        ui.mouseClicked(x, y);
     }
 
     /**
@@ -599,15 +558,20 @@ public class Combat extends JPanel implements ActionListener {
      */
     public void updateCursorOnHover(int x, int y) {
         // Change cursor to hand if hovering over a button
-        if (skill1Btn.getBounds().contains(x, y) ||
-            skill2Btn.getBounds().contains(x, y) ||
-            skill3Btn.getBounds().contains(x, y)) {
-            setCursor(new Cursor(Cursor.HAND_CURSOR));
-        } else {
-            setCursor(new Cursor(Cursor.DEFAULT_CURSOR));
+        boolean overButton = ui.mouseMoved(x, y);
+        if (gamePanel != null) {
+            gamePanel.setCursor(Cursor.getPredefinedCursor(overButton ? Cursor.HAND_CURSOR : Cursor.DEFAULT_CURSOR));
         }
     }
 
+    /**
+     * Keyboard navigation of the combat UI (Tab, arrows, Enter, Space).
+     * Returns true when the key was used.
+     */
+    public boolean onKeyPressed(int code, boolean shift) {
+        return combatActive && ui.keyPressed(code, shift);
+    }
+
     /**
      * Handle skill button press from keyboard (1, 2, 3)
      */
@@ -616,13 +580,13 @@ public class Combat extends JPanel implements ActionListener {
         
         switch (skillNumber) {
             case 1:
-                skill1Btn.doClick();
+                skill1Btn.activate();
                 break;
             case 2:
-                skill2Btn.doClick();
+                skill2Btn.activate();
                 break;
             case 3:
-                skill3Btn.doClick();
+                skill3Btn.activate();
                 break;
             default:
                 break;
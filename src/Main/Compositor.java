@@ -0,0 +1,66 @@
+/**
+ * Per-pixel compositing over an opaque int[] framebuffer (the SoftwareRenderer's),
+ * working on runs of pixels: a row of a sprite, or a whole 800x600 screen at once
+ * when the run is the full buffer. All operations write opaque RGB.
+ *
+ * get() picks the fastest implementation available: VectorCompositor (src/Vector,
+ * built on jdk.incubator.vector) when it was compiled and the JVM was started with
+ * --add-modules jdk.incubator.vector, otherwise ScalarCompositor. Both produce
+ * identical pixels. -Dgame.compositor=scalar forces the scalar one.
+ */
+public abstract class Compositor {
+    private static Compositor instance;
+
+    public static synchronized Compositor get() {
+        if (instance == null) {
+            instance = "scalar".equals(System.getProperty("game.compositor")) ? new ScalarCompositor() : loadVector();
+        }
+        return instance;
+    }
+
+    // the vector compositor is optional: missing class or missing incubator module means scalar
+    static Compositor loadVector() {
+        try {
+            return (Compositor) Class.forName("VectorCompositor").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return new ScalarCompositor();
+        }
+    }
+
+    public abstract String getName();
+
+    /**
+     * Source-over: src[srcPos..] drawn on dst[dstPos..] for length pixels.
+     * @param premultiplied whether src colours are already multiplied by their alpha (INT_ARGB_PRE)
+     */
+    public abstract void blend(int[] src, int srcPos, int[] dst, int dstPos, int length, boolean premultiplied);
+
+    /**
+     * Like blend, but each source colour is first pulled towards tintRgb by amount/255
+     * (alpha kept), e.g. a white hit flash on a sprite (Renderer.drawSpriteTinted).
+     */
+    public abstract void blendTinted(int[] src, int srcPos, int[] dst, int dstPos, int length, boolean premultiplied,
+                                     int tintRgb, int amount);
+
+    /**
+     * Source-over of one (non-premultiplied) ARGB colour, e.g. a translucent overlay panel.
+     */
+    public abstract void fill(int argb, int[] dst, int dstPos, int length);
+
+    /**
+     * Scale every pixel towards black: level 255 leaves it, 0 is black.
+     * Used for darkening the game behind the inventory (Renderer.fade).
+     */
+    public abstract void fade(int[] dst, int dstPos, int length, int level);
+
+    /**
+     * Multiply every channel by the matching channel of src (0x00RRGGBB), e.g. a light map:
+     * white leaves the pixel as it is, black makes it black.
+     */
+    public abstract void multiply(int[] src, int srcPos, int[] dst, int dstPos, int length);
+
+    // x / 255 on the red/blue lanes of a packed 0x00RR00BB product (each lane <= 255 * 255)
+    static int div255x2(int x) {
+        return ((x + 0x010001 + ((x >>> 8) & 0xff00ff)) >>> 8) & 0xff00ff;
+    }
+}
@@ -0,0 +1,103 @@
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Compares ScalarCompositor with VectorCompositor on full 800x600 screens: blending a
+ * mostly transparent combat effect frame, a hit-flash tinted blend, the inventory
+ * darkening fill, a fade-to-black step and the light map multiply. Every vector result is checked against
+ * the scalar one before timing.
+ *
+ * To run (from the project root), with the vector path compiled as described in
+ * src/Vector/VectorCompositor.java:
+ *   java --add-modules jdk.incubator.vector -cp out CompositorBenchmark [frames]
+ * Without the module only the scalar path is timed.
+ */
+public class CompositorBenchmark {
+    private static final int WIDTH = 800;
+    private static final int HEIGHT = 600;
+    private static final int WARMUP_FRAMES = 500;
+
+    private interface Op {
+        void run(Compositor c, int[] dst);
+    }
+
+    public static void main(String[] args) {
+        int frames = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int pixels = WIDTH * HEIGHT;
+
+        // a skill frame: transparent canvas with a soft-edged effect in the middle
+        Random random = new Random(42);
+        int[] effect = new int[pixels];
+        for (int y = 150; y < 450; y++) {
+            for (int x = 200; x < 600; x++) {
+                int alpha = random.nextInt(4) == 0 ? random.nextInt(256) : 255;
+                effect[y * WIDTH + x] = (alpha << 24) | (random.nextInt() & 0xffffff);
+            }
+        }
+        // the same frame as INT_ARGB_PRE pixels
+        int[] effectPre = new int[pixels];
+        for (int i = 0; i < pixels; i++) {
+            int p = effect[i];
+            int a = p >>> 24;
+            effectPre[i] = (a << 24) | Compositor.div255x2((p & 0xff00ff) * a)
+                | (Compositor.div255x2(((p >>> 8) & 0xff) * a) << 8);
+        }
+        // an upscaled night-time light map
+        int[] light = new int[pixels];
+        for (int i = 0; i < pixels; i++) light[i] = 0x283260 | (random.nextInt() & 0x7f7f7f);
+        int[] background = new int[pixels];
+        for (int i = 0; i < pixels; i++) background[i] = 0xff000000 | random.nextInt();
+
+        Compositor scalar = new ScalarCompositor();
+        Compositor vector = Compositor.loadVector();
+        if (vector instanceof ScalarCompositor) {
+            System.out.println("CompositorBenchmark: VectorCompositor not available, timing the scalar path only");
+            vector = null;
+        }
+
+        Op[] ops = {
+            (c, dst) -> c.blend(effect, 0, dst, 0, pixels, false),
+            (c, dst) -> c.blend(effectPre, 0, dst, 0, pixels, true),
+            (c, dst) -> c.blendTinted(effect, 0, dst, 0, pixels, false, 0xffffff, 160),
+            (c, dst) -> c.fill(0x96000000, dst, 0, pixels),
+            (c, dst) -> c.fade(dst, 0, pixels, 200),
+            (c, dst) -> c.multiply(light, 0, dst, 0, pixels),
+        };
+        String[] names = {"skill frame blend", "premultiplied blend", "hit flash blend", "darken fill", "fade to black",
+            "light map multiply"};
+
+        for (int i = 0; i < ops.length; i++) {
+            double scalarMicros = run(names[i] + " / " + scalar.getName(), frames, scalar, ops[i], background);
+            if (vector == null) continue;
+            int[] expected = background.clone();
+            int[] actual = background.clone();
+            ops[i].run(scalar, expected);
+            ops[i].run(vector, actual);
+            if (!Arrays.equals(expected, actual)) {
+                System.out.println("  MISMATCH between scalar and vector results");
+            }
+            double vectorMicros = run(names[i] + " / " + vector.getName(), frames, vector, ops[i], background);
+            System.out.printf("  speedup %.2fx%n", scalarMicros / vectorMicros);
+        }
+    }
+
+    // returns the average cost of one full-screen pass in microseconds
+    private static double run(String name, int frames, Compositor c, Op op, int[] background) {
+        int[] dst = background.clone();
+        for (int i = 0; i < WARMUP_FRAMES; i++) {
+            // start from the same screen now and then so fades don't settle at black
+            if (i % 50 == 0) System.arraycopy(background, 0, dst, 0, dst.length);
+            op.run(c, dst);
+        }
+        long total = 0;
+        for (int i = 0; i < frames; i++) {
+            if (i % 50 == 0) System.arraycopy(background, 0, dst, 0, dst.length);
+            long start = System.nanoTime();
+            op.run(c, dst);
+            total += System.nanoTime() - start;
+        }
+        double avgMicros = total / 1000.0 / frames;
+        System.out.printf("%-44s %8.1f us/frame%n", name, avgMicros);
+        return avgMicros;
+    }
+}
@@ -0,0 +1,77 @@
+import java.awt.Rectangle;
+import javax.swing.JComponent;
+
+/**
+ * Collects the screen areas that changed since the last frame.
+ * The game loop calls flush() once per tick: it repaints the union of
+ * everything that was marked, or nothing at all if the frame is unchanged.
+ */
+public class DamageTracker {
+    private final JComponent target;
+    // union of the damaged areas, only valid while hasDamage is true
+    private int minX, minY, maxX, maxY;
+    private boolean hasDamage = false;
+    private boolean fullDamage = false;
+
+    public DamageTracker(JComponent target) {
+        this.target = target;
+    }
+
+    /**
+     * Mark a screen rectangle as changed.
+     */
+    public void markDirty(int x, int y, int width, int height) {
+        if (width <= 0 || height <= 0 || fullDamage) return;
+        if (!hasDamage) {
+            minX = x;
+            minY = y;
+            maxX = x + width;
+            maxY = y + height;
+            hasDamage = true;
+        } else {
+            minX = Math.min(minX, x);
+            minY = Math.min(minY, y);
+            maxX = Math.max(maxX, x + width);
+            maxY = Math.max(maxY, y + height);
+        }
+    }
+
+    public void markDirty(Rectangle r) {
+        markDirty(r.x, r.y, r.width, r.height);
+    }
+
+    /**
+     * Mark the whole panel as changed (camera scroll, screen switch, full-screen effects).
+     */
+    public void markAllDirty() {
+        hasDamage = true;
+        fullDamage = true;
+    }
+
+    public boolean hasDamage() {
+        return hasDamage;
+    }
+
+    /**
+     * Forget what was marked without repainting, for a frame that was drawn whole
+     * (the ActiveRenderer draws every frame itself).
+     */
+    public void clear() {
+        hasDamage = false;
+        fullDamage = false;
+    }
+
+    /**
+     * Repaint the damaged area (if any) and start collecting the next frame.
+     */
+    public void flush() {
+        if (!hasDamage) return;
+        if (fullDamage) {
+            target.repaint();
+        } else {
+            target.repaint(minX, minY, maxX - minX, maxY - minY);
+        }
+        hasDamage = false;
+        fullDamage = false;
+    }
+}
@@ -0,0 +1,194 @@
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * Draws the tall tile layers (trees, boulders) and the sprites in order of foot Y, so
+ * the player walks behind a tree whose trunk is further down the screen and in front
+ * of one further up. The ground layers still come from the chunk cache underneath.
+ *
+ * A tall object is several tiles stacked in a column; a tile's foot is the bottom of
+ * its object, found by walking down while the tile below is the one below it in the
+ * tileset (a tree's top and trunk are cut from the same tileset column).
+ *
+ * The draw list only holds the tiles in view and is kept from frame to frame: when the
+ * camera crosses a tile boundary the tiles that left are dropped and the new ones are
+ * appended, and only the sprites' feet change every frame. An insertion sort puts the
+ * few items that moved back in place, which is close to linear on an almost sorted list.
+ */
+public class DepthSorter {
+    // layer names drawn through the depth sort instead of the chunk cache
+    public static final Set<String> DEPTH_LAYERS = Set.of("trees", "boulders");
+    // sprite items; tiles are slot * cellCount + ty * mapWidth + tx
+    private static final int PLAYER = -1;
+    private static final int NPC = -2;
+    private static final int ENEMY = -3;
+
+    private final TileManager tiles;
+    // indices into tiles.layers of the depth-sorted layers
+    private int[] depthLayers = new int[0];
+    private int mapWidth, cellCount;
+    // the draw list: item ids and their foot Y in map pixels, sorted by foot
+    private int[] items = new int[256];
+    private int[] feet = new int[256];
+    private int count = 0;
+    // tile range the list holds (inclusive); empty until the first draw
+    private int firstCol = 0, firstRow = 0, lastCol = -1, lastRow = -1;
+    private boolean stale = true;
+
+    public DepthSorter(TileManager tiles) {
+        this.tiles = tiles;
+    }
+
+    /**
+     * Rebuild the list on the next draw (a map was loaded or a tall tile changed).
+     */
+    public void invalidate() {
+        stale = true;
+    }
+
+    public void draw(Renderer r) {
+        GamePanel gp = tiles.gp;
+        if (stale) reset();
+        int zoom = gp.getZoom();
+        int scaledSize = gp.tileSize * zoom;
+        int camX = gp.toScreen(gp.drawMapX);
+        int camY = gp.toScreen(gp.drawMapY);
+        if (depthLayers.length > 0) {
+            int margin = tiles.cullMargin;
+            setRange(Math.max(0, Math.floorDiv(camX, scaledSize) - margin),
+                Math.max(0, Math.floorDiv(camY, scaledSize) - margin),
+                Math.min(tiles.getMapWidth() - 1, Math.floorDiv(camX + gp.gamePanelSizeX, scaledSize) + margin),
+                Math.min(tiles.getMapHeight() - 1, Math.floorDiv(camY + gp.gamePanelSizeY, scaledSize) + margin));
+        }
+        updateSpriteFeet();
+        sort();
+
+        BufferedImage[] table = tiles.tileTable(zoom);
+        for (int i = 0; i < count; i++) {
+            int id = items[i];
+            switch (id) {
+                case PLAYER -> gp.ps.drawSprite(r);
+                case NPC -> gp.entities.draw(r);
+                case ENEMY -> gp.enemyNPC.draw(r);
+                default -> {
+                    int cell = id % cellCount;
+                    int tx = cell % mapWidth;
+                    int ty = cell / mapWidth;
+                    int gid = tiles.layers.get(depthLayers[id / cellCount])[ty][tx];
+                    tiles.drawTile(r, table, gid, tx * scaledSize - camX, ty * scaledSize - camY);
+                }
+            }
+        }
+    }
+
+    private void reset() {
+        int n = 0;
+        int[] found = new int[tiles.layers.size()];
+        for (int li = 0; li < tiles.layers.size(); li++) {
+            if (tiles.isDepthLayer(li)) found[n++] = li;
+        }
+        depthLayers = Arrays.copyOf(found, n);
+        mapWidth = tiles.getMapWidth();
+        cellCount = mapWidth * tiles.getMapHeight();
+        count = 0;
+        firstCol = firstRow = 0;
+        lastCol = lastRow = -1;
+        stale = false;
+    }
+
+    // move the list to a new tile range: keep the tiles still inside, append the new ones
+    private void setRange(int col1, int row1, int col2, int row2) {
+        if (col1 == firstCol && row1 == firstRow && col2 == lastCol && row2 == lastRow) return;
+        int kept = 0;
+        for (int i = 0; i < count; i++) {
+            int id = items[i];
+            if (id >= 0) {
+                int cell = id % cellCount;
+                int tx = cell % mapWidth;
+                int ty = cell / mapWidth;
+                if (tx < col1 || tx > col2 || ty < row1 || ty > row2) continue;
+            }
+            items[kept] = id;
+            feet[kept] = feet[i];
+            kept++;
+        }
+        count = kept;
+        for (int slot = 0; slot < depthLayers.length; slot++) {
+            int[][] layer = tiles.layers.get(depthLayers[slot]);
+            for (int ty = row1; ty <= row2; ty++) {
+                for (int tx = col1; tx <= col2; tx++) {
+                    boolean wasInRange = tx >= firstCol && tx <= lastCol && ty >= firstRow && ty <= lastRow;
+                    if (wasInRange || layer[ty][tx] <= 0) continue;
+                    add(slot * cellCount + ty * mapWidth + tx, footOf(layer, tx, ty));
+                }
+            }
+        }
+        firstCol = col1;
+        firstRow = row1;
+        lastCol = col2;
+        lastRow = row2;
+    }
+
+    // bottom (map pixels) of the object the tile belongs to
+    private int footOf(int[][] layer, int tx, int ty) {
+        int columns = tiles.tilesetColumns;
+        int y = ty;
+        while (y + 1 < layer.length && columns > 0 && layer[y][tx] > 0 && layer[y + 1][tx] == layer[y][tx] + columns) {
+            y++;
+        }
+        return (y + 1) * tiles.gp.tileSize;
+    }
+
+    // sprites join the list the first frame they exist and follow their feet after that
+    private void updateSpriteFeet() {
+        GamePanel gp = tiles.gp;
+        int present = 0;
+        for (int i = 0; i < count; i++) {
+            if (items[i] < 0) present |= 1 << (-items[i] - 1);
+        }
+        if (gp.ps != null && (present & 1) == 0) add(PLAYER, 0);
+        if (gp.entities != null && (present & 2) == 0) add(NPC, 0);
+        if (gp.enemyNPC != null && (present & 4) == 0) add(ENEMY, 0);
+        for (int i = 0; i < count; i++) {
+            switch (items[i]) {
+                case PLAYER -> feet[i] = (gp.drawMapY + gp.drawPlayerY) / TileManager.WORLD_SCALE + gp.ps.playerSizeH;
+                case NPC -> {
+                    Rectangle npc = gp.entities.getMapRect();
+                    feet[i] = npc.y + npc.height;
+                }
+                case ENEMY -> feet[i] = gp.enemyNPC.getFootY();
+                default -> {
+                }
+            }
+        }
+    }
+
+    private void add(int id, int foot) {
+        if (count == items.length) {
+            items = Arrays.copyOf(items, count * 2);
+            feet = Arrays.copyOf(feet, count * 2);
+        }
+        items[count] = id;
+        feet[count] = foot;
+        count++;
+    }
+
+    // stable, so items with the same foot keep last frame's order
+    private void sort() {
+        for (int i = 1; i < count; i++) {
+            int foot = feet[i];
+            if (feet[i - 1] <= foot) continue;
+            int id = items[i];
+            int j = i - 1;
+            while (j >= 0 && feet[j] > foot) {
+                feet[j + 1] = feet[j];
+                items[j + 1] = items[j];
+                j--;
+            }
+            feet[j + 1] = foot;
+            items[j + 1] = id;
+        }
+    }
+}
@@ -1,11 +1,9 @@
 import java.awt.*;
-import java.awt.image.*;
 import java.io.File;
-import javax.imageio.ImageIO;
 
 public class EnemyNPC {
     private final GamePanel gp;
-    private BufferedImage enemyImage = null;
+    private Sprite enemyImage = null;
     private int mapX = 0;
     private int mapY = 0;
     
@@ -16,9 +14,10 @@ public class EnemyNPC {
     
     private void loadEnemyImage() {
         try {
-            File imageFile = new File("res/Entities/Combat/enemy/lightbrowndog.png");
-            if (imageFile.exists()) {
-                enemyImage = ImageIO.read(imageFile);
+            String path = "res/Entities/Combat/enemy/lightbrowndog.png";
+            File imageFile = new File(path);
+            if (AssetManager.exists(path)) {
+                enemyImage = AssetManager.loadSprite(path);
                 System.out.println("EnemyNPC: loaded lightbrowndog.png (" + enemyImage.getWidth() + "x" + enemyImage.getHeight() + ")");
             } else {
                 System.out.println("EnemyNPC: enemy image not found at " + imageFile.getAbsolutePath());
@@ -40,26 +39,34 @@ public class EnemyNPC {
     public int getMapY() {
         return mapY;
     }
+
+    // bottom edge of the sprite in map pixels, for depth sorting
+    public int getFootY() {
+        return mapY + (enemyImage != null ? enemyImage.getHeight() : 0);
+    }
     
+    // rectangle relative to the camera in world units, like gp.playerX/playerY (mapX/mapY are map pixels)
     public Rectangle getScreenRect() {
         if (enemyImage == null) return new Rectangle(0, 0, 0, 0);
-        int screenX = mapX - gp.mapX;
-        int screenY = mapY - gp.mapY;
-        return new Rectangle(screenX, screenY, enemyImage.getWidth(), enemyImage.getHeight());
+        Rectangle r = GamePanel.mapToWorld(new Rectangle(mapX, mapY, enemyImage.getWidth(), enemyImage.getHeight()));
+        r.translate(-gp.mapX, -gp.mapY);
+        return r;
     }
     
-    public void draw(Graphics2D g2) {
+    public void draw(Renderer r) {
         if (enemyImage == null) return;
         
-        int screenX = mapX - gp.mapX;
-        int screenY = mapY - gp.mapY;
+        int screenX = gp.mapToScreenX(mapX);
+        int screenY = gp.mapToScreenY(mapY);
+        int drawWidth = enemyImage.getWidth() * gp.getZoom();
+        int drawHeight = enemyImage.getHeight() * gp.getZoom();
         
         // Only draw if on screen
-        if (screenX + enemyImage.getWidth() < 0 || screenX > gp.gamePanelSizeX ||
-            screenY + enemyImage.getHeight() < 0 || screenY > gp.gamePanelSizeY) {
+        if (screenX + drawWidth < 0 || screenX > gp.gamePanelSizeX ||
+            screenY + drawHeight < 0 || screenY > gp.gamePanelSizeY) {
             return;
         }
         
-        g2.drawImage(enemyImage, screenX, screenY, null);
+        r.drawSprite(gp.zoomedSprites.get(enemyImage, gp.getZoom()), screenX, screenY);
     }
 }
@@ -1,56 +1,89 @@
 import java.awt.Color;
 import java.awt.Cursor;
-import java.awt.FontMetrics;
 import java.awt.Graphics;
 import java.awt.Rectangle;
-import java.awt.image.BufferedImage;
-import java.io.File;
-import javax.imageio.ImageIO;
 
 public class Entities {
     GamePanel gp;
 
     // NPC variables (map pixel coordinates)
-    private BufferedImage npcImage;
+    private Sprite npcImage;
     private int npcMapX = 300; // map pixel X
     private int npcMapY = 200; // map pixel Y
     private final int npcWidth = 32;
     private final int npcHeight = 32;
     private boolean isEnemyNPC = false; // set to true for enemy encounters
     // animation frames for NPC Auran
-    private final BufferedImage[] idleAnim = new BufferedImage[4];
-    private int animIndex = 0;
-    private int frameDelay = 2;
+    private Sprite[] idleAnim = new Sprite[4];
+    // the same frames pre-scaled for the dialogue box
+    private Sprite[] portraitAnim = new Sprite[4];
+    private Sprite portraitImage;
+    private static final int PORTRAIT_SIZE = 100;
+    // idle cycle, twice as slow as the walk; started by GamePanel.finishLoading
+    private final Animator idle;
 
     // Dialogue state
     private boolean showDialogue = false;
     private boolean dialogueDismissed = false;
     private final String dialogText = "Hello there, traveler!";
+    private static final Color DIALOGUE_BACKGROUND = new Color(0, 0, 0, 220);
+    private static final Color DIALOGUE_BORDER = new Color(200, 150, 100);
+    private static final java.awt.BasicStroke DIALOGUE_STROKE = new java.awt.BasicStroke(2);
+    private static final GlyphAtlas DIALOGUE_FONT =
+        GlyphAtlas.get(new java.awt.Font("Arial", java.awt.Font.PLAIN, 25), Color.WHITE);
+    // dialogText word-wrapped for the text area width it was wrapped at
+    private final java.util.List<TextLine> dialogueLines = new java.util.ArrayList<>();
+    private int wrappedWidth = -1;
+    private final TextLine continuePrompt = new TextLine(
+        GlyphAtlas.get(new java.awt.Font("Arial", java.awt.Font.ITALIC, 10), new Color(200, 200, 200)), "[Click to continue]");
 
     public Entities(GamePanel gp) {
         this.gp = gp;
         loadNPCSprite();
+        idle = new Animator(idleAnim.length, gp.frameSpeed * 2);
+    }
+
+    /**
+     * Run the idle cycle on the game's clock. Called once on the EDT after loading, so
+     * the frame callback never sees a half-built Entities.
+     */
+    public void startIdleAnimation(AnimationClock clock) {
+        clock.add(idle.onFrame(this::showIdleFrame));
+        idle.start();
+    }
+
+    private void showIdleFrame() {
+        int animIndex = idle.getFrame();
+        // only update npcImage if frame available
+        if (idleAnim[animIndex] != null) {
+            npcImage = idleAnim[animIndex];
+            portraitImage = portraitAnim[animIndex];
+        }
+        if (gp.isOnOverworld()) gp.markWorldDirty(getScreenRect());
     }
 
     private void loadNPCSprite() {
         try {
             // load Auran idle frames if available
-            File base = new File("res\\Entities\\FriendlyNPC\\Auran");
-            File f1 = new File(base, "auran_idle1.png");
-            File f2 = new File(base, "auran_idle2.png");
-            File f3 = new File(base, "auran_idle3.png");
-            File f4 = new File(base, "auran_idle4.png");
-            if (f1.exists() && f2.exists() && f3.exists() && f4.exists()) {
-                idleAnim[0] = ImageIO.read(f1);
-                idleAnim[1] = ImageIO.read(f2);
-                idleAnim[2] = ImageIO.read(f3);
-                idleAnim[3] = ImageIO.read(f4);
-                npcImage = idleAnim[0];
+            String base = "res\\Entities\\FriendlyNPC\\Auran\\";
+            String f1 = base + "auran_idle1.png";
+            String f2 = base + "auran_idle2.png";
+            String f3 = base + "auran_idle3.png";
+            String f4 = base + "auran_idle4.png";
+            if (AssetManager.exists(f1) && AssetManager.exists(f2) && AssetManager.exists(f3) && AssetManager.exists(f4)) {
+                idleAnim[0] = AssetManager.loadSprite(f1);
+                idleAnim[1] = AssetManager.loadSprite(f2);
+                idleAnim[2] = AssetManager.loadSprite(f3);
+                idleAnim[3] = AssetManager.loadSprite(f4);
             } else {
                 // fallback to single image locations
-                File fAlt = new File("res\\Entities\\npc.png");
-                if (fAlt.exists()) npcImage = ImageIO.read(fAlt);
+                idleAnim[0] = AssetManager.getSprite("res\\Entities\\npc.png");
             }
+            // pre-scale the dialogue portrait so it doesn't scale per frame; the map frames
+            // stay at map size and are scaled per zoom level by gp.zoomedSprites
+            portraitAnim = Sprite.scaleAll(idleAnim, PORTRAIT_SIZE, PORTRAIT_SIZE);
+            npcImage = idleAnim[0];
+            portraitImage = portraitAnim[0];
         } catch (Exception e) {
             // ignore; draw placeholder
         }
@@ -100,15 +133,6 @@ public class Entities {
 
     // Called each frame to allow NPC logic to update (e.g. reset dismissed when player moves away)
     public void update() {
-        // animation timing using GamePanel's frameSpeed pattern, but slower (2x multiplier)
-        frameDelay++;
-        if (frameDelay >= gp.frameSpeed * 2) {
-            animIndex = (animIndex + 1) % idleAnim.length;
-            // only update npcImage if frame available
-            if (idleAnim[animIndex] != null) npcImage = idleAnim[animIndex];
-            frameDelay = 0;
-        }
-
         Rectangle npcScreen = getScreenRect();
         Rectangle playerRect = new Rectangle(gp.playerX, gp.playerY, gp.ps.playerSizeW, gp.ps.playerSizeH);
         if (!npcScreen.intersects(playerRect)) {
@@ -117,49 +141,51 @@ public class Entities {
     }
 
     // Draw the NPC (on the map) and the dialogue at the bottom in visual novel style
-    public void draw(Graphics g) {
-        int drawX = (npcMapX * TileManager.SCALE) - gp.mapX;
-        int drawY = (npcMapY * TileManager.SCALE) - gp.mapY;
-        int drawWidth = npcWidth * TileManager.SCALE;
-        int drawHeight = npcHeight * TileManager.SCALE;
+    public void draw(Renderer r) {
+        int drawX = gp.mapToScreenX(npcMapX);
+        int drawY = gp.mapToScreenY(npcMapY);
+        int drawWidth = npcWidth * gp.getZoom();
+        int drawHeight = npcHeight * gp.getZoom();
 
         if (npcImage != null) {
-            g.drawImage(npcImage, drawX, drawY, drawWidth, drawHeight, null);
+            r.drawSprite(gp.zoomedSprites.get(npcImage, gp.getZoom()), drawX, drawY);
         } else {
-            g.setColor(Color.MAGENTA);
-            g.fillRect(drawX, drawY, drawWidth, drawHeight);
+            r.fillRect(Color.MAGENTA, drawX, drawY, drawWidth, drawHeight);
         }
+    }
 
-        // Visual novel style dialogue at the bottom
+    // Visual novel style dialogue at the bottom, drawn over the whole scene
+    public void drawDialogue(Renderer r) {
         if (showDialogue) {
-            drawDialogueBox(g);
+            drawDialogueBox(r);
         }
     }
 
     // Draw dialogue box at bottom with NPC sprite on left side
-    private void drawDialogueBox(Graphics g) {
+    private void drawDialogueBox(Renderer r) {
+        Graphics g = r.getGraphics();
         int panelHeight = 140;
         int panelX = 10;
         int panelY = gp.gamePanelSizeY - panelHeight - 10;
         int panelWidth = gp.gamePanelSizeX - 20;
 
         // Draw semi-transparent background panel
-        g.setColor(new Color(0, 0, 0, 220));
+        g.setColor(DIALOGUE_BACKGROUND);
         g.fillRoundRect(panelX, panelY, panelWidth, panelHeight, 12, 12);
 
         // Draw border
-        g.setColor(new Color(200, 150, 100));
+        g.setColor(DIALOGUE_BORDER);
         if (g instanceof java.awt.Graphics2D) {
-            ((java.awt.Graphics2D) g).setStroke(new java.awt.BasicStroke(2));
+            ((java.awt.Graphics2D) g).setStroke(DIALOGUE_STROKE);
             ((java.awt.Graphics2D) g).drawRoundRect(panelX, panelY, panelWidth, panelHeight, 12, 12);
         }
 
         // Draw NPC sprite on left side (scaled up)
-        int spriteSize = 100;
+        int spriteSize = PORTRAIT_SIZE;
         int spriteX = panelX + 15;
         int spriteY = panelY + (panelHeight - spriteSize) / 2;
-        if (npcImage != null) {
-            g.drawImage(npcImage, spriteX, spriteY, spriteSize, spriteSize, null);
+        if (portraitImage != null) {
+            r.drawSprite(portraitImage, spriteX, spriteY);
         }
 
         // Draw dialogue text on the right side
@@ -172,47 +198,49 @@ public class Entities {
             textAreaWidth = 50;
         }
 
-        g.setColor(Color.WHITE);
-        g.setFont(new java.awt.Font("Arial", java.awt.Font.PLAIN, 25));
-        FontMetrics fm = g.getFontMetrics();
+        if (textAreaWidth != wrappedWidth) wrapDialogue(textAreaWidth);
+        // the first line's baseline sits at textY, like drawString
+        int currentY = textY;
+        for (TextLine line : dialogueLines) {
+            line.draw(r, textX, currentY);
+            currentY += DIALOGUE_FONT.getHeight();
+        }
+
+        // Draw click prompt at bottom
+        continuePrompt.draw(r, panelX + panelWidth - 155, panelY + panelHeight - 10);
+    }
 
-        // Word wrap the dialogue text
+    // Word wrap the dialogue text into at most 3 lines; only redone when the width changes
+    private void wrapDialogue(int textAreaWidth) {
+        wrappedWidth = textAreaWidth;
+        dialogueLines.clear();
         String[] words = dialogText.split(" ");
         StringBuilder line = new StringBuilder();
-        int currentY = textY;
-        int lineHeight = fm.getHeight();
         int maxLines = 3; // limit to 3 lines max
-        int lineCount = 0;
 
         for (String word : words) {
-            if (lineCount >= maxLines) break; // don't exceed max lines
-            
-            if (fm.stringWidth(line.toString() + word) > textAreaWidth) {
+            if (dialogueLines.size() >= maxLines) break; // don't exceed max lines
+
+            if (DIALOGUE_FONT.stringWidth(line) + DIALOGUE_FONT.stringWidth(word) > textAreaWidth) {
                 if (line.length() > 0) {
-                    g.drawString(line.toString(), textX, currentY);
-                    currentY += lineHeight;
-                    lineCount++;
+                    dialogueLines.add(new TextLine(DIALOGUE_FONT, line.toString()));
                 }
                 line = new StringBuilder(word + " ");
             } else {
                 line.append(word).append(" ");
             }
         }
-        if (line.length() > 0 && lineCount < maxLines) {
-            g.drawString(line.toString(), textX, currentY);
+        if (line.length() > 0 && dialogueLines.size() < maxLines) {
+            dialogueLines.add(new TextLine(DIALOGUE_FONT, line.toString()));
         }
-
-        // Draw click prompt at bottom
-        g.setColor(new Color(200, 200, 200));
-        g.setFont(new java.awt.Font("Arial", java.awt.Font.ITALIC, 10));
-        g.drawString("[Click to continue]", panelX + panelWidth - 155, panelY + panelHeight - 10);
     }
 
-    // Return the NPC's screen rectangle (for clicking / collision checks)
+    // Return the NPC's rectangle relative to the camera in world units, like gp.playerX/playerY
+    // (for clicking / collision checks; see GamePanel.toWorld for mouse positions)
     public Rectangle getScreenRect() {
-        int drawX = (npcMapX * TileManager.SCALE) - gp.mapX;
-        int drawY = (npcMapY * TileManager.SCALE) - gp.mapY;
-        return new Rectangle(drawX, drawY, npcWidth * TileManager.SCALE, npcHeight * TileManager.SCALE);
+        Rectangle r = GamePanel.mapToWorld(getMapRect());
+        r.translate(-gp.mapX, -gp.mapY);
+        return r;
     }
 
     // Return the NPC's collision rectangle in map/world coordinates (pixels)
@@ -251,7 +279,7 @@ public class Entities {
                 gp.repaint();
             }
         } else {
-            if (npcRect.contains(mouseX, mouseY)) {
+            if (npcRect.contains(gp.toWorld(mouseX), gp.toWorld(mouseY))) {
                 Rectangle playerRect = new Rectangle(gp.playerX, gp.playerY, gp.ps.playerSizeW, gp.ps.playerSizeH);
                 double dx = (npcRect.getCenterX() - playerRect.getCenterX());
                 double dy = (npcRect.getCenterY() - playerRect.getCenterY());
@@ -270,7 +298,7 @@ public class Entities {
      */
     public void updateCursorOnHover(int mouseX, int mouseY) {
         Rectangle npcRect = getScreenRect();
-        if (npcRect.contains(mouseX, mouseY)) {
+        if (npcRect.contains(gp.toWorld(mouseX), gp.toWorld(mouseY))) {
             // Check if player is within interaction range
             Rectangle playerRect = new Rectangle(gp.playerX, gp.playerY, gp.ps.playerSizeW, gp.ps.playerSizeH);
             double dx = (npcRect.getCenterX() - playerRect.getCenterX());
@@ -0,0 +1,235 @@
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Fog of war: the tiles within REVEAL_RADIUS of the player are explored as they walk,
+ * and everything not yet explored is drawn black when the fog is switched on (F).
+ *
+ * Explored tiles are one bit each in a long[] (bit ty * mapWidth + tx), so even a
+ * 1000x1000 map is 125 KB with no object per tile. The screen mask is a map-sized
+ * image with one pixel per tile (white explored, black not) that is multiplied over
+ * the frame like the LightMap, so the fog edge is soft. Only tiles that become
+ * explored are written into the mask, and that only happens when the player enters
+ * a new tile: a step reveals just the leading edge of the circle.
+ *
+ * Exploration is kept per map in saves/<map>.fog (gzipped bitset) and written when
+ * another map is loaded or the window closes.
+ */
+public class FogOfWar {
+    // in tiles
+    public static final int REVEAL_RADIUS = 5;
+    private static final int MAGIC = 0x464f4731; // "FOG1"
+    private static final File SAVE_DIR = new File("saves");
+    private static final int EXPLORED = 0xffffff;
+    private static final int UNEXPLORED = 0x000000;
+
+    private final TileManager tiles;
+    private long[] explored = new long[0];
+    private int width, height;
+    // file the current map's exploration is kept in, null until a map is loaded from disk
+    private File saveFile;
+    private boolean enabled = false;
+    // one pixel per tile, built on the first draw and then patched as tiles are explored
+    private BufferedImage mask;
+    private int[] maskPixels;
+    // unexplored tiles left, so a fully explored map skips the multiply
+    private int hidden;
+    // the tile the player was in when we last revealed
+    private int lastTileX = -1;
+    private int lastTileY = -1;
+
+    public FogOfWar(TileManager tiles) {
+        this.tiles = tiles;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void toggle() {
+        enabled = !enabled;
+        tiles.gp.damage.markAllDirty();
+    }
+
+    /**
+     * Start tracking a newly loaded map: the previous map's exploration is saved and the
+     * new one's is read back from its save file (or starts out unexplored).
+     */
+    public void mapLoaded(String tmxPath) {
+        save();
+        width = tiles.getMapWidth();
+        height = tiles.getMapHeight();
+        explored = new long[(int) (((long) width * height + 63) >>> 6)];
+        hidden = width * height;
+        mask = null;
+        lastTileX = -1;
+        lastTileY = -1;
+        String name = new File(tmxPath.replace('\\', '/')).getName();
+        int dot = name.lastIndexOf('.');
+        saveFile = new File(SAVE_DIR, (dot > 0 ? name.substring(0, dot) : name) + ".fog");
+        if (saveFile.exists()) load(saveFile);
+    }
+
+    public boolean isExplored(int tx, int ty) {
+        if (tx < 0 || ty < 0 || tx >= width || ty >= height) return false;
+        int i = ty * width + tx;
+        return (explored[i >>> 6] & (1L << i)) != 0;
+    }
+
+    /**
+     * Called after every player step: reveals around the player once they enter a new tile.
+     */
+    public void update() {
+        GamePanel gp = tiles.gp;
+        if (width == 0 || gp.ps == null) return;
+        int tileWorld = gp.tileSize * TileManager.WORLD_SCALE;
+        int tx = (gp.playerWorldX + gp.ps.playerSizeW * TileManager.WORLD_SCALE / 2) / tileWorld;
+        int ty = (gp.playerWorldY + gp.ps.playerSizeH * TileManager.WORLD_SCALE / 2) / tileWorld;
+        if (tx == lastTileX && ty == lastTileY) return;
+        lastTileX = tx;
+        lastTileY = ty;
+        reveal(tx, ty, REVEAL_RADIUS);
+    }
+
+    /**
+     * Explore every tile within radius tiles of (cx, cy). Returns how many were new.
+     */
+    public int reveal(int cx, int cy, int radius) {
+        int x1 = Math.max(0, cx - radius);
+        int y1 = Math.max(0, cy - radius);
+        int x2 = Math.min(width - 1, cx + radius);
+        int y2 = Math.min(height - 1, cy + radius);
+        int r2 = radius * radius + radius; // a little rounder than the exact circle
+        int revealed = 0;
+        int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, maxX = -1, maxY = -1;
+        for (int ty = y1; ty <= y2; ty++) {
+            int dy = ty - cy;
+            for (int tx = x1; tx <= x2; tx++) {
+                int dx = tx - cx;
+                if (dx * dx + dy * dy > r2) continue;
+                int i = ty * width + tx;
+                long bit = 1L << i;
+                if ((explored[i >>> 6] & bit) != 0) continue;
+                explored[i >>> 6] |= bit;
+                if (mask != null) maskPixels[i] = EXPLORED;
+                revealed++;
+                minX = Math.min(minX, tx);
+                minY = Math.min(minY, ty);
+                maxX = Math.max(maxX, tx);
+                maxY = Math.max(maxY, ty);
+            }
+        }
+        if (revealed == 0) return 0;
+        hidden -= revealed;
+        if (enabled) {
+            // the soft edge reaches into the neighbouring tiles
+            GamePanel gp = tiles.gp;
+            int tileWorld = gp.tileSize * TileManager.WORLD_SCALE;
+            gp.markWorldDirty((minX - 1) * tileWorld - gp.mapX, (minY - 1) * tileWorld - gp.mapY,
+                (maxX - minX + 3) * tileWorld, (maxY - minY + 3) * tileWorld);
+        }
+        return revealed;
+    }
+
+    public void draw(Renderer r) {
+        if (!enabled || width == 0) return;
+        if (lastTileX < 0) update();
+        if (hidden == 0) return;
+        if (mask == null) buildMask();
+        GamePanel gp = tiles.gp;
+        int tileScreen = gp.tileSize * gp.getZoom();
+        int camX = gp.toScreen(gp.drawMapX);
+        int camY = gp.toScreen(gp.drawMapY);
+        // the tiles under the camera plus one on each side for the bilinear edge
+        int firstX = Math.max(0, Math.floorDiv(camX, tileScreen) - 1);
+        int firstY = Math.max(0, Math.floorDiv(camY, tileScreen) - 1);
+        int lastX = Math.min(width - 1, Math.floorDiv(camX + gp.gamePanelSizeX, tileScreen) + 1);
+        int lastY = Math.min(height - 1, Math.floorDiv(camY + gp.gamePanelSizeY, tileScreen) + 1);
+        if (firstX > lastX || firstY > lastY || allExplored(firstX, firstY, lastX, lastY)) return;
+        int w = lastX - firstX + 1;
+        int h = lastY - firstY + 1;
+        // the region, not a getSubimage: a new image each frame would be new to the renderer each frame
+        r.multiply(mask, firstX, firstY, w, h, firstX * tileScreen - camX, firstY * tileScreen - camY,
+            w * tileScreen, h * tileScreen);
+    }
+
+    // whole words at a time where a row's bits are word aligned
+    private boolean allExplored(int x1, int y1, int x2, int y2) {
+        for (int ty = y1; ty <= y2; ty++) {
+            int i = ty * width + x1;
+            int end = ty * width + x2 + 1;
+            while (i < end) {
+                if ((i & 63) == 0 && end - i >= 64) {
+                    if (explored[i >>> 6] != -1L) return false;
+                    i += 64;
+                } else {
+                    if ((explored[i >>> 6] & (1L << i)) == 0) return false;
+                    i++;
+                }
+            }
+        }
+        return true;
+    }
+
+    private void buildMask() {
+        mask = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        maskPixels = ((DataBufferInt) mask.getRaster().getDataBuffer()).getData();
+        for (int i = 0; i < width * height; i++) {
+            maskPixels[i] = (explored[i >>> 6] & (1L << i)) != 0 ? EXPLORED : UNEXPLORED;
+        }
+    }
+
+    /**
+     * Write the current map's exploration to its save file.
+     */
+    public void save() {
+        if (saveFile == null || width == 0) return;
+        if (!SAVE_DIR.isDirectory() && !SAVE_DIR.mkdirs()) {
+            System.err.println("FogOfWar: cannot create " + SAVE_DIR);
+            return;
+        }
+        // mostly runs of all-zero or all-one words, which gzip packs down to almost nothing
+        try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(new FileOutputStream(saveFile)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(width);
+            out.writeInt(height);
+            for (long word : explored) {
+                out.writeLong(word);
+            }
+        } catch (IOException e) {
+            System.err.println("FogOfWar: could not save " + saveFile + " -> " + e.getMessage());
+        }
+    }
+
+    private void load(File file) {
+        try (DataInputStream in = new DataInputStream(new GZIPInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != width || in.readInt() != height) {
+                System.err.println("FogOfWar: ignoring " + file + " (saved for a different map size)");
+                return;
+            }
+            long[] words = new long[explored.length];
+            for (int i = 0; i < words.length; i++) {
+                words[i] = in.readLong();
+            }
+            // bits past the last tile must stay clear for the hidden count
+            int tail = (width * height) & 63;
+            if (tail != 0) words[words.length - 1] &= (1L << tail) - 1;
+            explored = words;
+            int count = 0;
+            for (long word : words) {
+                count += Long.bitCount(word);
+            }
+            hidden = width * height - count;
+        } catch (IOException e) {
+            System.err.println("FogOfWar: could not load " + file + " -> " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,251 @@
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Frame timing for the F3 overlay.
+ * A frame's cost is the time spent drawing it plus the game loop update that led to it,
+ * so an idle screen that is only redrawn now and then still reports what a frame costs.
+ * Frame costs go into a fixed ring buffer and a log-linear (HdrHistogram style) bucket
+ * histogram that is updated in O(1) per frame as old samples fall out of the ring, so
+ * percentiles never need a sort. FPS is counted separately, as frames actually presented.
+ * Update and drawing both run on the EDT. Nothing here allocates per frame.
+ */
+public class FrameProfiler {
+    // subsystems shown in the breakdown
+    public static final int UPDATE = 0;
+    public static final int TILES = 1;
+    public static final int ENTITIES = 2;
+    public static final int HUD = 3;
+    public static final int COMBAT = 4;
+    public static final int MENU = 5;
+    public static final int LIGHTING = 6;
+    private static final String[] SECTION_NAMES = {"update", "tiles", "entities", "hud", "combat", "menu", "lighting"};
+    private static final int SECTIONS = SECTION_NAMES.length;
+
+    // ring of the last CAPACITY frames, in microseconds
+    private static final int CAPACITY = 512;
+    private final long[] frameTimes = new long[CAPACITY];
+    private final long[][] sectionTimes = new long[SECTIONS][CAPACITY];
+    private int writeIndex = 0;
+    private int count = 0;
+
+    // 8 sub-buckets per power of two (3 significant bits), enough for any frame time in microseconds
+    private static final int SUB_BITS = 3;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    private final int[] histogram = new int[64 * SUB_COUNT];
+
+    // section nanos for the frame in progress; UPDATE holds the latest game loop update
+    private final long[] current = new long[SECTIONS];
+    private long frameStart = -1;
+
+    // frames presented, for FPS
+    private long framesPresented = 0;
+    private long framesAtLastRefresh = 0;
+    private double framesPerSec = 0;
+
+    // allocation rate (bytes allocated on the EDT, which runs both update and drawing)
+    private final com.sun.management.ThreadMXBean threadBean;
+    private long threadId = -1;
+    private long lastAllocBytes = -1;
+    private long lastAllocSample = 0;
+    private double allocBytesPerSec = 0;
+
+    // overlay
+    private static final Font OVERLAY_FONT = new Font("Monospaced", Font.PLAIN, 12);
+    private static final Color OVERLAY_BG = new Color(0, 0, 0, 170);
+    private static final long TEXT_REFRESH_NANOS = 500_000_000L;
+    private static final int OVERLAY_WIDTH = 230;
+    private static final int OVERLAY_Y = 10;
+    private static final int LINE_HEIGHT = 14;
+    private final String[] lines = new String[4 + SECTIONS];
+    private long lastTextRefresh = 0;
+    private boolean visible = false;
+
+    public FrameProfiler() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean sunBean && sunBean.isThreadAllocatedMemorySupported()) {
+            sunBean.setThreadAllocatedMemoryEnabled(true);
+            threadBean = sunBean;
+        } else {
+            threadBean = null;
+        }
+        java.util.Arrays.fill(lines, "");
+    }
+
+    public boolean isVisible() {
+        return visible;
+    }
+
+    public void toggle() {
+        visible = !visible;
+        lastTextRefresh = 0;
+    }
+
+    /**
+     * Add the time since start (a System.nanoTime value) to a subsystem for this frame.
+     */
+    public void record(int section, long start) {
+        current[section] += System.nanoTime() - start;
+    }
+
+    /**
+     * Note how long a game loop update took. Only the latest one counts towards the next
+     * drawn frame; updates that changed nothing on screen are not part of any frame.
+     */
+    public void recordUpdate(long start) {
+        current[UPDATE] = System.nanoTime() - start;
+    }
+
+    /**
+     * Start timing a frame. Called at the top of every drawn frame.
+     */
+    public void beginFrame() {
+        long now = System.nanoTime();
+        threadId = Thread.currentThread().threadId();
+        frameStart = now;
+        sampleAllocations(now);
+    }
+
+    /**
+     * Finish the frame started by beginFrame() and add its cost to the statistics.
+     */
+    public void endFrame() {
+        if (frameStart < 0) return;
+        long drawNanos = System.nanoTime() - frameStart;
+        frameStart = -1;
+        framesPresented++;
+        commit((drawNanos + current[UPDATE]) / 1000);
+    }
+
+    private void commit(long frameMicros) {
+        int i = writeIndex;
+        if (count == CAPACITY) {
+            histogram[bucketOf(frameTimes[i])]--;
+        } else {
+            count++;
+        }
+        frameTimes[i] = frameMicros;
+        histogram[bucketOf(frameMicros)]++;
+        for (int s = 0; s < SECTIONS; s++) {
+            sectionTimes[s][i] = current[s] / 1000;
+            current[s] = 0;
+        }
+        writeIndex = (i + 1) % CAPACITY;
+    }
+
+    private void sampleAllocations(long now) {
+        if (threadBean == null || now - lastAllocSample < TEXT_REFRESH_NANOS) return;
+        long bytes = Math.max(0, threadBean.getThreadAllocatedBytes(threadId));
+        if (lastAllocBytes >= 0 && bytes >= lastAllocBytes) {
+            allocBytesPerSec = (bytes - lastAllocBytes) * 1e9 / (now - lastAllocSample);
+        }
+        lastAllocBytes = bytes;
+        lastAllocSample = now;
+    }
+
+    /**
+     * Frame cost (microseconds) at the given percentile (0-100) of the last CAPACITY frames.
+     */
+    public long percentile(double pct) {
+        if (count == 0) return 0;
+        long target = Math.max(1, (long) Math.ceil(count * pct / 100.0));
+        long seen = 0;
+        for (int b = 0; b < histogram.length; b++) {
+            seen += histogram[b];
+            if (seen >= target) return bucketUpper(b);
+        }
+        return 0;
+    }
+
+    public long maxFrameTime() {
+        long max = 0;
+        for (int i = 0; i < count; i++) max = Math.max(max, frameTimes[i]);
+        return max;
+    }
+
+    public double averageFrameTime() {
+        if (count == 0) return 0;
+        long sum = 0;
+        for (int i = 0; i < count; i++) sum += frameTimes[i];
+        return sum / (double) count;
+    }
+
+    private double averageSection(int section) {
+        if (count == 0) return 0;
+        long sum = 0;
+        long[] times = sectionTimes[section];
+        for (int i = 0; i < count; i++) sum += times[i];
+        return sum / (double) count;
+    }
+
+    // exact below SUB_COUNT, then SUB_COUNT buckets per power of two
+    private static int bucketOf(long micros) {
+        if (micros < SUB_COUNT) return (int) Math.max(0, micros);
+        int exp = 63 - Long.numberOfLeadingZeros(micros);
+        int sub = (int) (micros >>> (exp - SUB_BITS)) & (SUB_COUNT - 1);
+        return ((exp - SUB_BITS + 1) << SUB_BITS) + sub;
+    }
+
+    // highest value that lands in the bucket
+    private static long bucketUpper(int bucket) {
+        if (bucket < SUB_COUNT) return bucket;
+        int exp = (bucket >> SUB_BITS) + SUB_BITS - 1;
+        int sub = bucket & (SUB_COUNT - 1);
+        long lower = (long) (SUB_COUNT + sub) << (exp - SUB_BITS);
+        return lower + (1L << (exp - SUB_BITS)) - 1;
+    }
+
+    /**
+     * Rebuild the overlay text twice a second while it is visible, and mark it dirty so
+     * the numbers keep moving even when nothing else on screen changes. Called by the
+     * game loop every frame, on every screen.
+     */
+    public void update(long now, int panelWidth, DamageTracker damage) {
+        if (!visible || now - lastTextRefresh < TEXT_REFRESH_NANOS) return;
+        // right after toggle() there is no interval to count frames over yet
+        framesPerSec = lastTextRefresh == 0 ? 0 : (framesPresented - framesAtLastRefresh) * 1e9 / (now - lastTextRefresh);
+        framesAtLastRefresh = framesPresented;
+        lastTextRefresh = now;
+        refreshText();
+        damage.markDirty(overlayX(panelWidth), OVERLAY_Y, OVERLAY_WIDTH, overlayHeight());
+    }
+
+    private static int overlayX(int panelWidth) {
+        return panelWidth - OVERLAY_WIDTH - 10;
+    }
+
+    private int overlayHeight() {
+        return lines.length * LINE_HEIGHT + 10;
+    }
+
+    /**
+     * Draw the overlay in the top-right corner with the text from the last update().
+     */
+    public void drawOverlay(Graphics g, int panelWidth) {
+        int x = overlayX(panelWidth);
+        int y = OVERLAY_Y;
+        int height = overlayHeight();
+
+        g.setColor(OVERLAY_BG);
+        g.fillRect(x, y, OVERLAY_WIDTH, height);
+        g.setColor(Color.WHITE);
+        g.setFont(OVERLAY_FONT);
+        for (int i = 0; i < lines.length; i++) {
+            g.drawString(lines[i], x + 6, y + 16 + i * LINE_HEIGHT);
+        }
+    }
+
+    private void refreshText() {
+        double avg = averageFrameTime();
+        lines[0] = String.format("FPS %5.1f  avg %6.2f ms", framesPerSec, avg / 1000);
+        lines[1] = String.format("p50 %5.2f  p95 %5.2f ms", percentile(50) / 1000.0, percentile(95) / 1000.0);
+        lines[2] = String.format("p99 %5.2f  max %5.2f ms", percentile(99) / 1000.0, maxFrameTime() / 1000.0);
+        lines[3] = threadBean == null ? "alloc n/a"
+            : String.format("alloc %8.1f KB/s", allocBytesPerSec / 1024);
+        for (int s = 0; s < SECTIONS; s++) {
+            lines[4 + s] = String.format("  %-9s %7.3f ms", SECTION_NAMES[s], averageSection(s) / 1000);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+/**
+ * Fixed-timestep clock for the game simulation.
+ * Real time is collected in an accumulator and handed out as whole ticks of
+ * TICK_NANOS, so movement and animation counters advance at the same rate no
+ * matter how often (or how unevenly) frames are drawn. The leftover fraction of
+ * a tick is used to interpolate positions when drawing.
+ */
+public class GameClock {
+    // the step the old 15 ms Swing timer used; speeds and frameSpeed are tuned in pixels/frames per tick
+    public static final long TICK_NANOS = 15_000_000L;
+    // after a long stall run at most this many ticks in one go and drop the rest
+    private static final int MAX_TICKS_PER_FRAME = 8;
+
+    private long lastTime = -1;
+    private long accumulator = 0;
+    private long totalTicks = 0;
+
+    /**
+     * Add the real time passed since the last call and return how many ticks to simulate now.
+     */
+    public int advance(long now) {
+        if (lastTime < 0) {
+            lastTime = now;
+            return 0;
+        }
+        accumulator += now - lastTime;
+        lastTime = now;
+        int ticks = (int) Math.min(accumulator / TICK_NANOS, MAX_TICKS_PER_FRAME);
+        accumulator -= ticks * TICK_NANOS;
+        if (accumulator >= TICK_NANOS) {
+            // too far behind to catch up; let the simulation slow down instead of spiralling
+            accumulator = accumulator % TICK_NANOS;
+        }
+        totalTicks += ticks;
+        return ticks;
+    }
+
+    /**
+     * How far we are into the next tick, from 0 (just ticked) to 1.
+     */
+    public float alpha() {
+        return accumulator / (float) TICK_NANOS;
+    }
+
+    public long getTotalTicks() {
+        return totalTicks;
+    }
+}
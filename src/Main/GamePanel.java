@@ -1,6 +1,8 @@
 import java.awt.*;
 import java.awt.event.*;
 import java.awt.image.*;
+import java.util.ArrayList;
+import java.util.List;
 import javax.swing.*;
 
 public class GamePanel extends JPanel {
@@ -15,17 +17,36 @@ public class GamePanel extends JPanel {
     private final int scaleMultiplier = 2;
     public BufferedImage grassTile;
     public BufferedImage tree1;
-    PlayerStatus ps = new PlayerStatus(this);
+    // changed screen areas, repainted once per game loop tick
+    DamageTracker damage = new DamageTracker(this);
+    // frame timings for the F3 overlay
+    FrameProfiler profiler = new FrameProfiler();
+    // subsystems are built in parallel by the StartupLoader; null until finishLoading runs
+    StartupLoader loader;
+    PlayerStatus ps;
     public int speed = 5;
-    public int whatFrame = 0;
     // Controls how many movement ticks occur before the sprite frame advances.
     // Increase this value to make the walking animation slower.
     public final int frameSpeed = 10; // higher = slower animation
-    public int frameDelay = 0; // counts frames for delay
     public int playerX = 0;
     public int playerY = 0;
     public int playerWorldX = 0;
     public int playerWorldY = 0;
+    // simulation runs in fixed ticks; drawing interpolates between the last two tick positions
+    GameClock clock = new GameClock();
+    // every sprite animation, ticked once per simulation tick by the game loop
+    final AnimationClock animations = new AnimationClock();
+    // the walk cycle only plays while a move key is held (KeyHandler stops it each tick)
+    final Animator walk = animations.add(new Animator(4, frameSpeed).onFrame(this::showWalkFrame));
+    private int prevMapX, prevMapY, prevPlayerX, prevPlayerY;
+    public int drawMapX, drawMapY, drawPlayerX, drawPlayerY;
+    // camera zoom in screen pixels per map pixel; mapX/mapY, playerX/playerY, speed and
+    // collisions are in world units (TileManager.WORLD_SCALE per map pixel) and don't change with it
+    public static final int MIN_ZOOM = 1;
+    public static final int MAX_ZOOM = 4;
+    private int zoom = TileManager.WORLD_SCALE;
+    // player and NPC frames scaled for the zoom levels in use
+    final ZoomSpriteCache zoomedSprites = new ZoomSpriteCache(16L * 1024 * 1024);
     public int playerXCollision = playerX;
     public int playerYCollision = (playerY-tileSize);
     // tile
@@ -33,12 +54,24 @@ public class GamePanel extends JPanel {
     public int tileCol = 50; // columns of grid
     public int baseLayerGrid[][] = new int[tileRow][tileCol];
     public int objectLayerGrid[][] = new int[tileRow][tileCol];
-    TileManager tiles = new TileManager(this);
-    Entities entities = new Entities(this);
-    EnemyNPC enemyNPC = new EnemyNPC(this);
-    Inventory inventory = new Inventory(this);
+    TileManager tiles;
+    Entities entities;
+    EnemyNPC enemyNPC;
+    Inventory inventory;
     Menu menu = new Menu(this, window);
-    Combat combat = new Combat(this);
+    Combat combat;
+    // overworld effects in map pixels, and the map's treasures
+    ParticleSystem particles = new ParticleSystem(2048);
+    List<Treasure> treasures = new ArrayList<>();
+    // input
+    KeyHandler keyH;
+    private MouseAdapter mouseClickHandler;
+    private MouseAdapter mouseMoveHandler;
+    // set when the game is drawn by an ActiveRenderer instead of Swing painting this panel
+    private ActiveRenderer activeRenderer;
+    // overworld draw backend; softwareRenderer is null unless switched on
+    private final Java2DRenderer java2dRenderer = new Java2DRenderer();
+    private SoftwareRenderer softwareRenderer;
     // collisions
     String playerDirection = "down";
     Collisions playerCollision = new Collisions(0, 0, tileSize/2, tileSize/2);
@@ -67,50 +100,20 @@ public class GamePanel extends JPanel {
 
     public GamePanel(JFrame window) {
         this.window = window;
-        loadSprites();
-        KeyHandler keyH = new KeyHandler(this);
+        menu.buildUi();
+        keyH = new KeyHandler(this);
         this.setFocusable(true);
         this.addKeyListener(keyH);
+        // Tab moves focus inside the game's own UI, not between Swing components
+        this.setFocusTraversalKeysEnabled(false);
         this.setPreferredSize(new Dimension(gamePanelSizeX, gamePanelSizeY));
         this.setBackground(Color.gray);
+        // the menu is up right away and shows progress while everything else loads
+        loader = new StartupLoader(this);
+        loader.start();
         keyH.startGameLoop();
-        playerX = (gamePanelSizeX-ps.playerSizeW)/2;
-        playerY = (gamePanelSizeY-ps.playerSizeH)/2;
-        // Determine camera/player spawn and NPC spawns from TMX named objects
-        if (tiles != null) {
-            // 1) Player spawn: prefer explicit 'player' or 'playerSpawn' named objects
-            java.awt.Point playerP = tiles.getSpawnByName("player");
-            if (playerP == null) playerP = tiles.getSpawnByName("playerSpawn");
-            // fallback to generic spawn if no explicit player spawn exists
-            if (playerP == null && tiles.hasSpawn) playerP = new java.awt.Point(tiles.spawnX, tiles.spawnY);
-            if (playerP != null) {
-                mapX = playerP.x * TileManager.SCALE - (gamePanelSizeX / 2);
-                mapY = playerP.y * TileManager.SCALE - (gamePanelSizeY / 2);
-            }
-
-            // 2) Auran NPC spawn: place Auran only if an explicit Auran spawn exists
-            if (entities != null) {
-                java.awt.Point auranP = tiles.getSpawnByName("auran");
-                if (auranP == null) auranP = tiles.getSpawnByName("auranSpawn");
-                if (auranP == null) auranP = new java.awt.Point(141, 493); // fallback spawn
-                entities.setMapPosition(auranP.x, auranP.y);
-                entities.setIsEnemyNPC(false); // Auran is friendly
-            }
-
-            // 3) Enemy NPC spawn: place enemy at enemySpawn if exists
-            if (enemyNPC != null) {
-                java.awt.Point enemyP = tiles.getSpawnByName("enemy");
-                if (enemyP == null) enemyP = tiles.getSpawnByName("enemySpawn");
-                if (enemyP != null) {
-                    enemyNPC.setMapPosition(enemyP.x, enemyP.y);
-                }
-            }
-        }
-        // Set initial world position
-        playerWorldX = mapX + playerX;
-        playerWorldY = mapY + playerY;
         // forward mouse clicks to menu/combat/entities for interaction
-        this.addMouseListener(new MouseAdapter() {
+        mouseClickHandler = new MouseAdapter() {
             @Override
             public void mouseClicked(MouseEvent e) {
                 // Menu takes priority
@@ -123,10 +126,18 @@ public class GamePanel extends JPanel {
                     combat.onMouseClicked(e.getX(), e.getY());
                     return;
                 }
+                // the open inventory covers the map
+                if (inventory != null && inventory.isOpen()) {
+                    inventory.onMouseClicked(e.getX(), e.getY());
+                    return;
+                }
                 // Check if clicking on enemy NPC should trigger combat (click-to-start, Pokémon style)
+                // the NPC rectangles are in world units relative to the camera
+                int worldX = toWorld(e.getX());
+                int worldY = toWorld(e.getY());
                 if (entities != null && entities.getIsEnemyNPC()) {
                     Rectangle npcRect = entities.getScreenRect();
-                    if (npcRect.contains(e.getX(), e.getY())) {
+                    if (npcRect.contains(worldX, worldY)) {
                         // Check if player is within proximity
                         Rectangle playerRect = new Rectangle(playerX, playerY, ps.playerSizeW, ps.playerSizeH);
                         double dx = (npcRect.getCenterX() - playerRect.getCenterX());
@@ -145,7 +156,7 @@ public class GamePanel extends JPanel {
                 // Check if clicking on enemyNPC (separate enemy type) should trigger combat
                 if (enemyNPC != null) {
                     Rectangle enemyRect = enemyNPC.getScreenRect();
-                    if (enemyRect.contains(e.getX(), e.getY())) {
+                    if (enemyRect.contains(worldX, worldY)) {
                         Rectangle playerRect = new Rectangle(playerX, playerY, ps.playerSizeW, ps.playerSizeH);
                         double dx = (enemyRect.getCenterX() - playerRect.getCenterX());
                         double dy = (enemyRect.getCenterY() - playerRect.getCenterY());
@@ -161,9 +172,9 @@ public class GamePanel extends JPanel {
                 }
                 if (entities != null) entities.onMouseClicked(e.getX(), e.getY());
             }
-        });
+        };
         // update cursor when mouse moves over NPC or combat buttons
-        this.addMouseMotionListener(new MouseAdapter() {
+        mouseMoveHandler = new MouseAdapter() {
             @Override
             public void mouseMoved(MouseEvent e) {
                 // Menu takes priority if showing
@@ -176,23 +187,34 @@ public class GamePanel extends JPanel {
                     combat.updateCursorOnHover(e.getX(), e.getY());
                     return;
                 }
+                if (inventory != null && inventory.isOpen()) {
+                    boolean overSlot = inventory.onMouseMoved(e.getX(), e.getY());
+                    setCursor(Cursor.getPredefinedCursor(overSlot ? Cursor.HAND_CURSOR : Cursor.DEFAULT_CURSOR));
+                    return;
+                }
                 entities.updateCursorOnHover(e.getX(), e.getY());
             }
-        });
+        };
+        this.addMouseListener(mouseClickHandler);
+        this.addMouseMotionListener(mouseMoveHandler);
     }
 
     // character movement
     public void moveUp() {
+        int oldMapX = mapX, oldMapY = mapY, oldPlayerX = playerX, oldPlayerY = playerY;
         playerDirection = "up";
         // Check for enemy NPC proximity/combat trigger before dialogue
         checkEnemyProximity();
         // block movement / show dialogue if NPC interaction requires it
-        if (entities != null && entities.checkNPCInteraction(playerX, playerY, mapX, mapY, ps)) return;
+        if (entities != null && entities.checkNPCInteraction(playerX, playerY, mapX, mapY, ps)) {
+            damage.markAllDirty(); // dialogue box
+            return;
+        }
 
-        int centerY = (gamePanelSizeY - ps.playerSizeH) / 2;
-        int mapPixelHeight = tiles.getMapHeight() * tileSize * TileManager.SCALE;
+        int centerY = (viewHeight() - ps.playerSizeH) / 2;
+        int mapPixelHeight = worldHeight();
         int newMapY = mapY - speed;
-        boolean canMoveCamera = (newMapY >= 0 && newMapY <= mapPixelHeight - gamePanelSizeY);
+        boolean canMoveCamera = (newMapY >= 0 && newMapY <= mapPixelHeight - viewHeight());
 
         if (canMoveCamera && playerY == centerY) {
             boolean colliding = checkCollisionAtMapPosition(newMapY, mapX, playerX, playerY);
@@ -212,26 +234,27 @@ public class GamePanel extends JPanel {
             }
         }
 
-        frameDelay++;
-        if (frameDelay >= frameSpeed) {
-            whatFrame = (whatFrame + 1) % 4;
-            ps.currentImage = ps.upAnimation[whatFrame];
-            frameDelay = 0;
-        }
+        walk.resume();
         clampCamera();
-        repaint();
+        tiles.fog.update();
+        checkTreasures();
+        markMoveDamage(oldMapX, oldMapY, oldPlayerX, oldPlayerY);
     }
 
     public void moveDown() {
+        int oldMapX = mapX, oldMapY = mapY, oldPlayerX = playerX, oldPlayerY = playerY;
         playerDirection = "down";
         // Check for enemy NPC proximity/combat trigger
         checkEnemyProximity();
-        if (entities != null && entities.checkNPCInteraction(playerX, playerY, mapX, mapY, ps)) return;
+        if (entities != null && entities.checkNPCInteraction(playerX, playerY, mapX, mapY, ps)) {
+            damage.markAllDirty(); // dialogue box
+            return;
+        }
 
-        int centerY = (gamePanelSizeY - ps.playerSizeH) / 2;
-        int mapPixelHeight = tiles.getMapHeight() * tileSize * TileManager.SCALE;
+        int centerY = (viewHeight() - ps.playerSizeH) / 2;
+        int mapPixelHeight = worldHeight();
         int newMapY = mapY + speed;
-        boolean canMoveCamera = (newMapY >= 0 && newMapY <= mapPixelHeight - gamePanelSizeY);
+        boolean canMoveCamera = (newMapY >= 0 && newMapY <= mapPixelHeight - viewHeight());
 
         if (canMoveCamera && playerY == centerY) {
             boolean colliding = checkCollisionAtMapPosition(newMapY, mapX, playerX, playerY);
@@ -251,26 +274,27 @@ public class GamePanel extends JPanel {
             }
         }
 
-        frameDelay++;
-        if (frameDelay >= frameSpeed) {
-            whatFrame = (whatFrame + 1) % 4;
-            ps.currentImage = ps.downAnimation[whatFrame];
-            frameDelay = 0;
-        }
+        walk.resume();
         clampCamera();
-        repaint();
+        tiles.fog.update();
+        checkTreasures();
+        markMoveDamage(oldMapX, oldMapY, oldPlayerX, oldPlayerY);
     }
 
     public void moveLeft() {
+        int oldMapX = mapX, oldMapY = mapY, oldPlayerX = playerX, oldPlayerY = playerY;
         playerDirection = "left";
         // Check for enemy NPC proximity/combat trigger
         checkEnemyProximity();
-        if (entities != null && entities.checkNPCInteraction(playerX, playerY, mapX, mapY, ps)) return;
+        if (entities != null && entities.checkNPCInteraction(playerX, playerY, mapX, mapY, ps)) {
+            damage.markAllDirty(); // dialogue box
+            return;
+        }
 
-        int centerX = (gamePanelSizeX - ps.playerSizeW) / 2;
-        int mapPixelWidth = tiles.getMapWidth() * tileSize * TileManager.SCALE;
+        int centerX = (viewWidth() - ps.playerSizeW) / 2;
+        int mapPixelWidth = worldWidth();
         int newMapX = mapX - speed;
-        boolean canMoveCamera = (newMapX >= 0 && newMapX <= mapPixelWidth - gamePanelSizeX);
+        boolean canMoveCamera = (newMapX >= 0 && newMapX <= mapPixelWidth - viewWidth());
 
         if (canMoveCamera && playerX == centerX) {
             boolean colliding = checkCollisionAtMapPosition(mapY, newMapX, playerX, playerY);
@@ -290,26 +314,27 @@ public class GamePanel extends JPanel {
             }
         }
 
-        frameDelay++;
-        if (frameDelay >= frameSpeed) {
-            whatFrame = (whatFrame + 1) % 4;
-            ps.currentImage = ps.leftAnimation[whatFrame];
-            frameDelay = 0;
-        }
+        walk.resume();
         clampCamera();
-        repaint();
+        tiles.fog.update();
+        checkTreasures();
+        markMoveDamage(oldMapX, oldMapY, oldPlayerX, oldPlayerY);
     }
 
     public void moveRight() {
+        int oldMapX = mapX, oldMapY = mapY, oldPlayerX = playerX, oldPlayerY = playerY;
         playerDirection = "right";
         // Check for enemy NPC proximity/combat trigger
         checkEnemyProximity();
-        if (entities != null && entities.checkNPCInteraction(playerX, playerY, mapX, mapY, ps)) return;
+        if (entities != null && entities.checkNPCInteraction(playerX, playerY, mapX, mapY, ps)) {
+            damage.markAllDirty(); // dialogue box
+            return;
+        }
 
-        int centerX = (gamePanelSizeX - ps.playerSizeW) / 2;
-        int mapPixelWidth = tiles.getMapWidth() * tileSize * TileManager.SCALE;
+        int centerX = (viewWidth() - ps.playerSizeW) / 2;
+        int mapPixelWidth = worldWidth();
         int newMapX = mapX + speed;
-        boolean canMoveCamera = (newMapX >= 0 && newMapX <= mapPixelWidth - gamePanelSizeX);
+        boolean canMoveCamera = (newMapX >= 0 && newMapX <= mapPixelWidth - viewWidth());
 
         if (canMoveCamera && playerX == centerX) {
             boolean colliding = checkCollisionAtMapPosition(mapY, newMapX, playerX, playerY);
@@ -329,52 +354,136 @@ public class GamePanel extends JPanel {
             }
         }
 
-        frameDelay++;
-        if (frameDelay >= frameSpeed) {
-            whatFrame = (whatFrame + 1) % 4;
-            ps.currentImage = ps.rightAnimation[whatFrame];
-            frameDelay = 0;
-        }
+        walk.resume();
         clampCamera();
-        repaint();
+        tiles.fog.update();
+        checkTreasures();
+        markMoveDamage(oldMapX, oldMapY, oldPlayerX, oldPlayerY);
     }
 
     /**
      * Check if the player collides with any map obstacles at the given camera position and player position.
      * Uses the player's full bounding box (checkPlayerX, checkPlayerY, playerSizeW, playerSizeH) for pixel-perfect collision.
+     * Everything is compared in world units, so the result doesn't depend on the zoom.
      */
     private boolean checkCollisionAtMapPosition(int checkMapY, int checkMapX, int checkPlayerX, int checkPlayerY) {
-        // Player's bounding box in screen coordinates
-        Rectangle playerScreenRect = new Rectangle(checkPlayerX, checkPlayerY, ps.playerSizeW, ps.playerSizeH);
+        // Player's bounding box in world coordinates
+        Rectangle playerWorldRect = new Rectangle(checkMapX + checkPlayerX, checkMapY + checkPlayerY,
+            ps.playerSizeW, ps.playerSizeH);
 
         for (Rectangle mapCollision : tiles.getMapCollisions()) {
-            // Convert map collision to screen coordinates using the test camera position
-            Rectangle screenCollision = new Rectangle(
-                (mapCollision.x * TileManager.SCALE) - checkMapX,
-                (mapCollision.y * TileManager.SCALE) - checkMapY,
-                mapCollision.width * TileManager.SCALE,
-                mapCollision.height * TileManager.SCALE
-            );
-            if (playerScreenRect.intersects(screenCollision)) {
+            if (playerWorldRect.intersects(mapToWorld(mapCollision))) {
                 return true; // collision detected
             }
         }
         // Also check collision against the NPC(s)
         if (entities != null) {
             Rectangle npcMapRect = entities.getMapRect();
-            if (npcMapRect != null) {
-                Rectangle npcScreenRect = new Rectangle(
-                    (npcMapRect.x * TileManager.SCALE) - checkMapX,
-                    (npcMapRect.y * TileManager.SCALE) - checkMapY,
-                    npcMapRect.width * TileManager.SCALE,
-                    npcMapRect.height * TileManager.SCALE
-                );
-                if (playerScreenRect.intersects(npcScreenRect)) return true;
-            }
+            if (npcMapRect != null && playerWorldRect.intersects(mapToWorld(npcMapRect))) return true;
         }
         return false; // no collision
     }
 
+    // a map pixel rectangle (TMX objects, NPC bounds) in world units
+    static Rectangle mapToWorld(Rectangle r) {
+        return new Rectangle(r.x * TileManager.WORLD_SCALE, r.y * TileManager.WORLD_SCALE,
+            r.width * TileManager.WORLD_SCALE, r.height * TileManager.WORLD_SCALE);
+    }
+
+    // a camera scroll changes every pixel, otherwise only the player's old and new spots changed
+    private void markMoveDamage(int oldMapX, int oldMapY, int oldPlayerX, int oldPlayerY) {
+        if (mapX != oldMapX || mapY != oldMapY) {
+            damage.markAllDirty();
+            return;
+        }
+        markWorldDirty(oldPlayerX, oldPlayerY, playerDrawWidth(), playerDrawHeight());
+        markWorldDirty(playerX, playerY, playerDrawWidth(), playerDrawHeight());
+    }
+
+    // the player sprite covers its frame size in map pixels
+    private int playerDrawWidth() {
+        return ps.playerSizeW * TileManager.WORLD_SCALE;
+    }
+
+    private int playerDrawHeight() {
+        return ps.playerSizeH * TileManager.WORLD_SCALE;
+    }
+
+    /**
+     * Mark a rectangle given in world units relative to the camera as changed on screen.
+     * Grown by a pixel on each side for the rounding at odd zoom levels.
+     */
+    void markWorldDirty(int x, int y, int width, int height) {
+        damage.markDirty(toScreen(x) - 1, toScreen(y) - 1, toScreen(width) + 2, toScreen(height) + 2);
+    }
+
+    void markWorldDirty(Rectangle r) {
+        markWorldDirty(r.x, r.y, r.width, r.height);
+    }
+
+    public int getZoom() {
+        return zoom;
+    }
+
+    /**
+     * Change the camera zoom (clamped to MIN_ZOOM..MAX_ZOOM). The player keeps their
+     * place in the world and the camera is re-centred on them for the new view size.
+     */
+    public void setZoom(int newZoom) {
+        newZoom = Math.max(MIN_ZOOM, Math.min(MAX_ZOOM, newZoom));
+        if (newZoom == zoom) return;
+        zoom = newZoom;
+        if (tiles != null && ps != null) {
+            mapX = playerWorldX - (viewWidth() - ps.playerSizeW) / 2;
+            mapY = playerWorldY - (viewHeight() - ps.playerSizeH) / 2;
+            clampCamera();
+            playerX = playerWorldX - mapX;
+            playerY = playerWorldY - mapY;
+            savePreviousPositions();
+            updateDrawPositions(0f);
+        }
+        damage.markAllDirty();
+    }
+
+    // the camera's view in world units (rounded up so the last screen column still shows map)
+    public int viewWidth() {
+        return (gamePanelSizeX * TileManager.WORLD_SCALE + zoom - 1) / zoom;
+    }
+
+    public int viewHeight() {
+        return (gamePanelSizeY * TileManager.WORLD_SCALE + zoom - 1) / zoom;
+    }
+
+    // the whole map in world units
+    public int worldWidth() {
+        return tiles.getMapWidth() * tileSize * TileManager.WORLD_SCALE;
+    }
+
+    public int worldHeight() {
+        return tiles.getMapHeight() * tileSize * TileManager.WORLD_SCALE;
+    }
+
+    // world units to screen pixels at the current zoom, and back
+    public int toScreen(int world) {
+        return Math.floorDiv(world * zoom, TileManager.WORLD_SCALE);
+    }
+
+    public int toWorld(int screen) {
+        return Math.floorDiv(screen * TileManager.WORLD_SCALE, zoom);
+    }
+
+    /**
+     * Screen position of a map pixel coordinate for this frame's camera. Lines up exactly
+     * with the tiles, which are drawn from the same camera offset.
+     */
+    public int mapToScreenX(int mapPixelX) {
+        return mapPixelX * zoom - toScreen(drawMapX);
+    }
+
+    public int mapToScreenY(int mapPixelY) {
+        return mapPixelY * zoom - toScreen(drawMapY);
+    }
+
     public void setSpeed(int speed) {
         this.speed = speed;
     }
@@ -409,16 +518,148 @@ public class GamePanel extends JPanel {
         }
     }
 
-    // Clamp camera to map boundaries
+    public boolean isLoaded() {
+        return loader.isLoaded();
+    }
+
+    /**
+     * Block until startup loading has finished (for tools that build a GamePanel off the EDT).
+     */
+    public void awaitLoading() {
+        loader.await();
+    }
+
+    /**
+     * Runs on the EDT once every StartupLoader task is done: collect the subsystems,
+     * build Combat from the warm asset cache and place everything at its spawn.
+     */
+    void finishLoading() {
+        tiles = loader.tiles.join();
+        ps = loader.player.join();
+        entities = loader.entities.join();
+        enemyNPC = loader.enemyNPC.join();
+        inventory = loader.inventory.join();
+        if (inventory != null) inventory.buildUi();
+        combat = new Combat(this);
+        if (entities != null) entities.startIdleAnimation(animations);
+        loadSprites();
+
+        playerX = (viewWidth()-ps.playerSizeW)/2;
+        playerY = (viewHeight()-ps.playerSizeH)/2;
+        // Determine camera/player spawn and NPC spawns from TMX named objects
+        if (tiles != null) {
+            // 1) Player spawn: prefer explicit 'player' or 'playerSpawn' named objects
+            java.awt.Point playerP = tiles.getSpawnByName("player");
+            if (playerP == null) playerP = tiles.getSpawnByName("playerSpawn");
+            // fallback to generic spawn if no explicit player spawn exists
+            if (playerP == null && tiles.hasSpawn) playerP = new java.awt.Point(tiles.spawnX, tiles.spawnY);
+            if (playerP != null) {
+                mapX = playerP.x * TileManager.WORLD_SCALE - (viewWidth() / 2);
+                mapY = playerP.y * TileManager.WORLD_SCALE - (viewHeight() / 2);
+            }
+
+            // 2) Auran NPC spawn: place Auran only if an explicit Auran spawn exists
+            if (entities != null) {
+                java.awt.Point auranP = tiles.getSpawnByName("auran");
+                if (auranP == null) auranP = tiles.getSpawnByName("auranSpawn");
+                if (auranP == null) auranP = new java.awt.Point(141, 493); // fallback spawn
+                entities.setMapPosition(auranP.x, auranP.y);
+                entities.setIsEnemyNPC(false); // Auran is friendly
+            }
+
+            // 3) Enemy NPC spawn: place enemy at enemySpawn if exists
+            if (enemyNPC != null) {
+                java.awt.Point enemyP = tiles.getSpawnByName("enemy");
+                if (enemyP == null) enemyP = tiles.getSpawnByName("enemySpawn");
+                if (enemyP != null) {
+                    enemyNPC.setMapPosition(enemyP.x, enemyP.y);
+                }
+            }
+        }
+        if (tiles != null) {
+            particles.clear();
+            treasures = Treasure.fromSpawnPoints(tiles.getSpawnPoints());
+            for (Treasure treasure : treasures) {
+                treasure.startSparkle(particles);
+            }
+        }
+        // Set initial world position
+        playerWorldX = mapX + playerX;
+        playerWorldY = mapY + playerY;
+        savePreviousPositions();
+        updateDrawPositions(0f);
+        System.out.println(AssetManager.report());
+        System.out.println(AssetManager.familyReport());
+        damage.markAllDirty();
+    }
+
+    private void checkTreasures() {
+        for (Treasure treasure : treasures) {
+            treasure.checkPickup(this);
+        }
+    }
+
+    // the walk frame for the way the player faces, picked up when the frame changes
+    private void showWalkFrame() {
+        if (ps == null) return;
+        Sprite[] frames = switch (playerDirection) {
+            case "up" -> ps.upAnimation;
+            case "left" -> ps.leftAnimation;
+            case "right" -> ps.rightAnimation;
+            default -> ps.downAnimation;
+        };
+        ps.currentImage = frames[walk.getFrame()];
+        markWorldDirty(playerX, playerY, playerDrawWidth(), playerDrawHeight());
+    }
+
+    /**
+     * True when the map is on screen (no menu, no combat).
+     */
+    boolean isOnOverworld() {
+        return (menu == null || !menu.isShowing()) && (combat == null || !combat.isActive());
+    }
+
+    // called at the start of every simulation tick
+    void savePreviousPositions() {
+        prevMapX = mapX;
+        prevMapY = mapY;
+        prevPlayerX = playerX;
+        prevPlayerY = playerY;
+    }
+
+    /**
+     * Work out where the camera and player are drawn this frame, alpha of the way
+     * from the previous tick to the current one, and mark what moved on screen.
+     */
+    void updateDrawPositions(float alpha) {
+        int newMapX = Math.round(prevMapX + (mapX - prevMapX) * alpha);
+        int newMapY = Math.round(prevMapY + (mapY - prevMapY) * alpha);
+        int newPlayerX = Math.round(prevPlayerX + (playerX - prevPlayerX) * alpha);
+        int newPlayerY = Math.round(prevPlayerY + (playerY - prevPlayerY) * alpha);
+        if (newMapX != drawMapX || newMapY != drawMapY) {
+            damage.markAllDirty();
+        } else if (newPlayerX != drawPlayerX || newPlayerY != drawPlayerY) {
+            markWorldDirty(drawPlayerX, drawPlayerY, playerDrawWidth(), playerDrawHeight());
+            markWorldDirty(newPlayerX, newPlayerY, playerDrawWidth(), playerDrawHeight());
+        }
+        drawMapX = newMapX;
+        drawMapY = newMapY;
+        drawPlayerX = newPlayerX;
+        drawPlayerY = newPlayerY;
+    }
+
+    // Clamp camera to map boundaries (world units)
     private void clampCamera() {
-        int mapPixelWidth = tiles.getMapWidth() * tileSize * TileManager.SCALE;
-        int mapPixelHeight = tiles.getMapHeight() * tileSize * TileManager.SCALE;
+        int worldW = worldWidth();
+        int worldH = worldHeight();
+        int viewW = viewWidth();
+        int viewH = viewHeight();
 
         if (mapX < 0) mapX = 0;
-        else if (mapX + gamePanelSizeX > mapPixelWidth) mapX = Math.max(0, mapPixelWidth - gamePanelSizeX);
+        else if (mapX + viewW > worldW) mapX = Math.max(0, worldW - viewW);
 
         if (mapY < 0) mapY = 0;
-        else if (mapY + gamePanelSizeY > mapPixelHeight) mapY = Math.max(0, mapPixelHeight - gamePanelSizeY);
+        else if (mapY + viewH > worldH) mapY = Math.max(0, worldH - viewH);
     }
 
     // sprite
@@ -437,35 +678,106 @@ public class GamePanel extends JPanel {
         }
     }
 
+    /**
+     * Switch to active rendering: the Swing timer stops, input is taken from
+     * the renderer's canvas and the renderer's loop thread drives the game.
+     */
+    void useActiveRenderer(ActiveRenderer renderer) {
+        this.activeRenderer = renderer;
+        renderer.setBackground(getBackground());
+        keyH.stopGameLoop();
+        renderer.addKeyListener(keyH);
+        renderer.addMouseListener(mouseClickHandler);
+        renderer.addMouseMotionListener(mouseMoveHandler);
+    }
+
+    /**
+     * Draw the overworld and combat into an int[] framebuffer (SoftwareRenderer)
+     * instead of through Java2D. The menu keeps drawing through Graphics.
+     */
+    void useSoftwareRenderer(boolean enabled) {
+        softwareRenderer = enabled ? new SoftwareRenderer(gamePanelSizeX, gamePanelSizeY) : null;
+        damage.markAllDirty();
+    }
+
+    public boolean isSoftwareRendering() {
+        return softwareRenderer != null;
+    }
+
+    public boolean isActiveRendering() {
+        return activeRenderer != null;
+    }
+
+    @Override
+    public void setCursor(Cursor cursor) {
+        super.setCursor(cursor);
+        if (activeRenderer != null) activeRenderer.setCursor(cursor);
+    }
+
     @Override
     protected void paintComponent(Graphics g) {
         super.paintComponent(g);
-        // If menu is showing, draw menu and skip game rendering
+        renderFrame(g);
+    }
+
+    /**
+     * Draw one frame of the current game state (menu, combat or overworld).
+     * Shared by Swing painting and the active renderer so both keep the same draw order.
+     */
+    void renderFrame(Graphics g) {
+        profiler.beginFrame();
+        loader.onFrameDrawn();
+        long start = System.nanoTime();
         if (menu != null && menu.isShowing()) {
+            // If menu is showing, draw menu and skip game rendering
             menu.draw(g);
-            return;
+            profiler.record(FrameProfiler.MENU, start);
+        } else {
+            Renderer r = softwareRenderer != null ? softwareRenderer.begin(g.getClipBounds()) : java2dRenderer.begin(g);
+            if (combat != null && combat.isActive()) {
+                // If combat active, draw combat UI and skip normal gameplay rendering
+                combat.draw(r);
+                profiler.record(FrameProfiler.COMBAT, start);
+            } else {
+                drawOverworld(r);
+            }
+            if (softwareRenderer != null) softwareRenderer.present(g);
         }
-        // If combat active, draw combat UI and skip normal gameplay rendering
-        if (combat != null && combat.isActive()) {
-            combat.draw(g);
-            return;
+        // frame time overlay (F3) on top of every screen
+        if (profiler.isVisible()) {
+            profiler.drawOverlay(g, gamePanelSizeX);
         }
-        tiles.draw(g);
-        // update and draw entities (NPCs)
+        profiler.endFrame();
+    }
+
+    private void drawOverworld(Renderer r) {
+        long start = System.nanoTime();
+        tiles.draw(r);
+        profiler.record(FrameProfiler.TILES, start);
+
+        start = System.nanoTime();
+        // trees, boulders, NPCs and the player back to front; NPCs are updated by the game loop in KeyHandler
+        tiles.depthSorter.draw(r);
+        profiler.record(FrameProfiler.ENTITIES, start);
+
+        start = System.nanoTime();
+        tiles.lightMap.draw(r);
+        // particles glow, so they go over the light map but stay under the fog
+        particles.draw(r, toScreen(drawMapX), toScreen(drawMapY), getZoom());
+        tiles.fog.draw(r);
+        profiler.record(FrameProfiler.LIGHTING, start);
+
+        start = System.nanoTime();
         if (entities != null) {
-            entities.update();
-            entities.draw(g);
-        }
-        // draw enemy NPC
-        if (enemyNPC != null) {
-            Graphics2D g2 = (Graphics2D) g;
-            enemyNPC.draw(g2);
+            entities.drawDialogue(r);
         }
-        ps.draw(g);
+        ps.drawHealthBar(r);
+        tiles.minimap.draw(r);
         // Draw inventory UIe
         if (inventory != null) {
-            inventory.draw(g);
+            inventory.draw(r);
         }
+        profiler.record(FrameProfiler.HUD, start);
         //gridLines
         //for (int x = 0; x < (tileRow * tileSize); x += tileSize) {
         //    g.setColor(Color.red); // Vertical lines
@@ -0,0 +1,117 @@
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A font rasterized once, in one colour, into a single atlas image. Every printable
+ * ASCII character is a Sprite region of that image the height of a line with its
+ * origin on the left of the pen position, so drawing a string is one glyph blit per
+ * character through the Renderer instead of a trip through the text pipeline.
+ * Characters outside the range draw as '?'.
+ *
+ * Atlases are shared per font and colour through get(), which is safe to call from the
+ * StartupLoader's threads; HUD code should keep the one it uses in a field rather than
+ * look it up every frame. Kerning is ignored, which is fine for the short labels this
+ * draws. Text that rarely changes (HP labels, the combat status line) should go through
+ * a TextLine, which lays the string out once.
+ */
+public final class GlyphAtlas {
+    private static final char FIRST = 32;
+    private static final char LAST = 126;
+    private static final Map<Key, GlyphAtlas> CACHE = new ConcurrentHashMap<>();
+
+    private record Key(Font font, int argb) {}
+
+    private final BufferedImage page;
+    private final Sprite[] glyphs = new Sprite[LAST - FIRST + 1];
+    private final int[] advances = new int[LAST - FIRST + 1];
+    private final int ascent;
+    private final int height;
+    private final int pad;
+
+    private GlyphAtlas(Font font, Color color) {
+        BufferedImage scratch = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB_PRE);
+        Graphics2D sg = scratch.createGraphics();
+        FontMetrics fm = sg.getFontMetrics(font);
+        sg.dispose();
+        ascent = fm.getAscent();
+        height = fm.getHeight();
+        // room on both sides of each cell for italic and bold overhang
+        pad = Math.max(1, font.getSize() / 4);
+        int[] cellX = new int[glyphs.length];
+        int pageWidth = 0;
+        for (int i = 0; i < glyphs.length; i++) {
+            advances[i] = fm.charWidth((char) (FIRST + i));
+            cellX[i] = pageWidth;
+            pageWidth += advances[i] + 2 * pad;
+        }
+
+        page = new BufferedImage(Math.max(1, pageWidth), Math.max(1, height), BufferedImage.TYPE_INT_ARGB_PRE);
+        Graphics2D g = page.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g.setFont(font);
+        g.setColor(color);
+        for (int i = 0; i < glyphs.length; i++) {
+            g.drawString(String.valueOf((char) (FIRST + i)), cellX[i] + pad, ascent);
+            glyphs[i] = new Sprite(page, cellX[i], 0, advances[i] + 2 * pad, height, -pad, 0, advances[i], height);
+        }
+        g.dispose();
+    }
+
+    public static GlyphAtlas get(Font font, Color color) {
+        return CACHE.computeIfAbsent(new Key(font, color.getRGB()), k -> new GlyphAtlas(font, color));
+    }
+
+    private int index(char c) {
+        return c >= FIRST && c <= LAST ? c - FIRST : '?' - FIRST;
+    }
+
+    public int getAscent() {
+        return ascent;
+    }
+
+    // baseline to baseline
+    public int getHeight() {
+        return height;
+    }
+
+    // blank space on each side of a glyph's cell, for overhang past its advance
+    public int getPadding() {
+        return pad;
+    }
+
+    public int charWidth(char c) {
+        return advances[index(c)];
+    }
+
+    public int stringWidth(CharSequence s) {
+        int w = 0;
+        for (int i = 0; i < s.length(); i++) {
+            w += advances[index(s.charAt(i))];
+        }
+        return w;
+    }
+
+    Sprite glyph(char c) {
+        return glyphs[index(c)];
+    }
+
+    /**
+     * Draw s with its baseline at y, like Graphics.drawString. Returns the x after the
+     * last character.
+     */
+    public int draw(Renderer r, CharSequence s, int x, int y) {
+        int top = y - ascent;
+        for (int i = 0; i < s.length(); i++) {
+            int gi = index(s.charAt(i));
+            if (gi != 0) r.drawSprite(glyphs[gi], x, top); // nothing to blit for a space
+            x += advances[gi];
+        }
+        return x;
+    }
+}
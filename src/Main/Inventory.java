@@ -2,7 +2,6 @@ import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.util.ArrayList;
-import javax.imageio.ImageIO;
 
 public class Inventory {
     private static final int MAX_ITEMS = 20;
@@ -16,6 +15,31 @@ public class Inventory {
     private final int SLOT_SIZE = 50;
     private final int SLOT_SPACING = 60;
     private final int COLUMNS = 4;
+    // how much of the game shows through behind the open inventory (255 = all of it)
+    private static final int DARKEN_LEVEL = 105;
+
+    // fallback UI colours
+    private static final Color PANEL = new Color(40, 40, 40);
+    private static final Color SLOT = new Color(60, 60, 60);
+    private static final Color SLOT_FILLED = new Color(100, 200, 100);
+    private static final Color SLOT_EMPTY = new Color(80, 80, 80);
+    private static final GlyphAtlas ITEM_FONT = GlyphAtlas.get(new Font("Arial", Font.PLAIN, 12), Color.WHITE);
+    private static final GlyphAtlas TITLE_FONT = GlyphAtlas.get(new Font("Arial", Font.BOLD, 20), Color.WHITE);
+    private static final GlyphAtlas HINT_FONT = GlyphAtlas.get(new Font("Arial", Font.ITALIC, 12), Color.WHITE);
+    private static final GlyphAtlas COUNT_FONT = GlyphAtlas.get(new Font("Arial", Font.PLAIN, 14), Color.WHITE);
+    // the grid cells drawn in inventory.png, relative to the image
+    private static final int[] ART_CELL_X = {91, 161, 231, 300, 367, 437, 506, 574, 643};
+    private static final int[] ART_CELL_Y = {225, 288, 358, 426};
+    private static final int ART_CELL_WIDTH = 62;
+    private static final int ART_CELL_HEIGHT = 56;
+
+    private UiLayer ui;
+    private final UiButton[] slots = new UiButton[MAX_ITEMS];
+    private UiLabel countLabel;
+    private UiLabel selectedLabel;
+    // the item each slot was last labelled for
+    private final InventoryItem[] slotItems = new InventoryItem[MAX_ITEMS];
+    private int shownCount = -1;
 
     public Inventory(GamePanel gp) {
         this.gp = gp;
@@ -28,9 +52,10 @@ public class Inventory {
      */
     private void loadInventoryImage() {
         try {
-            File imageFile = new File("res/Entities/Inventory/inventory.png");
-            if (imageFile.exists()) {
-                inventoryImage = ImageIO.read(imageFile);
+            String path = "res/Entities/Inventory/inventory.png";
+            File imageFile = new File(path);
+            if (AssetManager.exists(path)) {
+                inventoryImage = AssetManager.loadImage(path);
                 System.out.println("Inventory image loaded successfully!");
             } else {
                 System.out.println("Inventory image not found at: " + imageFile.getAbsolutePath());
@@ -63,11 +88,82 @@ public class Inventory {
         return false;
     }
 
+    /**
+     * The panel, the 20 slots and the labels, over the art when it loaded or as the
+     * plain fallback box otherwise. Called once by GamePanel.finishLoading on the EDT,
+     * since the slots call back into this Inventory and mark the screen dirty.
+     */
+    void buildUi() {
+        ui = new UiLayer(gp.damage);
+        int panelX, panelY, panelWidth, panelHeight;
+        if (inventoryImage != null) {
+            panelWidth = inventoryImage.getWidth();
+            panelHeight = inventoryImage.getHeight();
+            panelX = (gp.gamePanelSizeX - panelWidth) / 2;
+            panelY = (gp.gamePanelSizeY - panelHeight) / 2;
+            ui.add(new UiPanel(panelX, panelY, inventoryImage));
+        } else {
+            // Fallback UI if image not found
+            panelWidth = 400;
+            panelHeight = 500;
+            panelX = (gp.gamePanelSizeX - panelWidth) / 2;
+            panelY = (gp.gamePanelSizeY - panelHeight) / 2;
+            ui.add(new UiPanel(panelX, panelY, panelWidth, panelHeight, PANEL, Color.WHITE, 3));
+            ui.add(new UiLabel(panelX, panelY + 12, panelWidth, 30, TITLE_FONT, null).centered()).setText("INVENTORY");
+            // divider under the title
+            ui.add(new UiPanel(panelX + PADDING, panelY + 50, panelWidth - 2 * PADDING, 1, Color.WHITE, null, 0));
+        }
+
+        for (int i = 0; i < MAX_ITEMS; i++) {
+            int slot = i;
+            if (inventoryImage != null) {
+                int col = i % ART_CELL_X.length;
+                int row = i / ART_CELL_X.length;
+                slots[i] = new UiButton(panelX + ART_CELL_X[col], panelY + ART_CELL_Y[row], ART_CELL_WIDTH, ART_CELL_HEIGHT,
+                    "", ITEM_FONT, null, () -> selectSlot(slot));
+            } else {
+                int col = i % COLUMNS;
+                int row = i / COLUMNS;
+                slots[i] = new UiButton(panelX + PADDING + 10 + col * SLOT_SPACING, panelY + 70 + row * SLOT_SPACING,
+                    SLOT_SIZE, SLOT_SIZE, "", ITEM_FONT, SLOT, () -> selectSlot(slot));
+                slots[i].setBorder(SLOT_EMPTY);
+            }
+            ui.add(slots[i]);
+        }
+
+        // under the grid: the selected item, the count and how to close
+        int textY = inventoryImage != null ? panelY + 505 : panelY + panelHeight - 80;
+        selectedLabel = ui.add(new UiLabel(panelX, textY, panelWidth, 20, COUNT_FONT, null).centered());
+        countLabel = ui.add(new UiLabel(panelX, textY + 40, panelWidth, 20, COUNT_FONT, null).centered());
+        ui.add(new UiLabel(panelX, textY + 20, panelWidth, 20, HINT_FONT, null).centered()).setText("Press E to close");
+    }
+
+    // bring the slot labels and the count up to date with the item list
+    private void refreshSlots() {
+        for (int i = 0; i < MAX_ITEMS; i++) {
+            InventoryItem item = i < items.size() ? items.get(i) : null;
+            if (slotItems[i] == item) continue;
+            slotItems[i] = item;
+            // the first three letters of the item
+            slots[i].setText(item != null ? item.getName().substring(0, Math.min(3, item.getName().length())) : "");
+            if (inventoryImage == null) slots[i].setBorder(item != null ? SLOT_FILLED : SLOT_EMPTY);
+        }
+        if (items.size() != shownCount) {
+            shownCount = items.size();
+            countLabel.setText("Items: " + items.size() + "/" + MAX_ITEMS);
+        }
+    }
+
+    private void selectSlot(int slot) {
+        InventoryItem item = getItem(slot);
+        selectedLabel.setText(item != null ? item.getName() : "Empty slot");
+    }
+
     /**
      * Toggle inventory open/closed
      */
     public void toggleInventory() {
-        isOpen = !isOpen;
+        setOpen(!isOpen);
     }
 
     /**
@@ -81,117 +177,45 @@ public class Inventory {
      * Set inventory open state
      */
     public void setOpen(boolean open) {
+        if (isOpen == open) return;
         isOpen = open;
+        if (open) {
+            refreshSlots();
+            selectedLabel.setText("");
+        }
+        gp.damage.markAllDirty();
+    }
+
+    public void onMouseClicked(int x, int y) {
+        ui.mouseClicked(x, y);
     }
 
     /**
-     * Draw the inventory UI
+     * Returns true when the pointer is over a slot, for the hand cursor.
      */
-    public void draw(Graphics g) {
-        if (!isOpen) return;
-
-        Graphics2D g2 = (Graphics2D) g;
-        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-
-        // Darken background
-        g2.setColor(new Color(0, 0, 0, 150));
-        g2.fillRect(0, 0, gp.gamePanelSizeX, gp.gamePanelSizeY);
+    public boolean onMouseMoved(int x, int y) {
+        return ui.mouseMoved(x, y);
+    }
 
-        // Draw custom inventory image if loaded
-        if (inventoryImage != null) {
-            int imageWidth = inventoryImage.getWidth();
-            int imageHeight = inventoryImage.getHeight();
-            int x = (gp.gamePanelSizeX - imageWidth) / 2;
-            int y = (gp.gamePanelSizeY - imageHeight) / 2;
-            g2.drawImage(inventoryImage, x, y, null);
-        } else {
-            // Fallback UI if image not found
-            drawFallbackUI(g2);
-        }
+    /**
+     * Keyboard navigation of the slots (Tab, arrows, Enter, Space).
+     */
+    public boolean onKeyPressed(int code, boolean shift) {
+        return ui.keyPressed(code, shift);
     }
 
     /**
-     * Fallback UI in case image is not found
+     * Draw the inventory UI
      */
-    private void drawFallbackUI(Graphics2D g2) {
-        int INVENTORY_WIDTH = 400;
-        int INVENTORY_HEIGHT = 500;
-        
-        // Draw inventory panel
-        int x = (gp.gamePanelSizeX - INVENTORY_WIDTH) / 2;
-        int y = (gp.gamePanelSizeY - INVENTORY_HEIGHT) / 2;
-
-        // Background
-        g2.setColor(new Color(40, 40, 40));
-        g2.fillRect(x, y, INVENTORY_WIDTH, INVENTORY_HEIGHT);
-
-        // Border
-        g2.setColor(Color.WHITE);
-        g2.setStroke(new BasicStroke(3));
-        g2.drawRect(x, y, INVENTORY_WIDTH, INVENTORY_HEIGHT);
-
-        // Title
-        g2.setColor(Color.WHITE);
-        g2.setFont(new Font("Arial", Font.BOLD, 20));
-        FontMetrics fm = g2.getFontMetrics();
-        String title = "INVENTORY";
-        int titleX = x + (INVENTORY_WIDTH - fm.stringWidth(title)) / 2;
-        g2.drawString(title, titleX, y + 35);
-
-        // Draw divider line
-        g2.setStroke(new BasicStroke(1));
-        g2.drawLine(x + PADDING, y + 50, x + INVENTORY_WIDTH - PADDING, y + 50);
-
-        // Draw inventory slots
-        g2.setFont(new Font("Arial", Font.PLAIN, 12));
-        int slotStartX = x + PADDING + 10;
-        int slotStartY = y + 70;
+    public void draw(Renderer r) {
+        if (!isOpen) return;
 
-        for (int i = 0; i < MAX_ITEMS; i++) {
-            int row = i / COLUMNS;
-            int col = i % COLUMNS;
-            int slotX = slotStartX + (col * SLOT_SPACING);
-            int slotY = slotStartY + (row * SLOT_SPACING);
-
-            // Draw slot background
-            g2.setColor(new Color(60, 60, 60));
-            g2.fillRect(slotX, slotY, SLOT_SIZE, SLOT_SIZE);
-
-            // Draw slot border
-            if (i < items.size()) {
-                g2.setColor(new Color(100, 200, 100)); // Green border for filled slots
-            } else {
-                g2.setColor(new Color(80, 80, 80)); // Gray border for empty slots
-            }
-            g2.setStroke(new BasicStroke(2));
-            g2.drawRect(slotX, slotY, SLOT_SIZE, SLOT_SIZE);
-
-            // Draw item if slot is filled
-            if (i < items.size()) {
-                InventoryItem item = items.get(i);
-                g2.setColor(Color.WHITE);
-                String itemText = item.getName().substring(0, Math.min(3, item.getName().length()));
-                fm = g2.getFontMetrics();
-                int textX = slotX + (SLOT_SIZE - fm.stringWidth(itemText)) / 2;
-                int textY = slotY + ((SLOT_SIZE - fm.getHeight()) / 2) + fm.getAscent();
-                g2.drawString(itemText, textX, textY);
-            }
-        }
+        // Darken background
+        r.fade(0, 0, gp.gamePanelSizeX, gp.gamePanelSizeY, DARKEN_LEVEL);
 
-        // Draw item count
-        g2.setColor(Color.WHITE);
-        g2.setFont(new Font("Arial", Font.PLAIN, 14));
-        String itemCount = "Items: " + items.size() + "/" + MAX_ITEMS;
-        fm = g2.getFontMetrics();
-        int countX = x + (INVENTORY_WIDTH - fm.stringWidth(itemCount)) / 2;
-        g2.drawString(itemCount, countX, y + INVENTORY_HEIGHT - 15);
-
-        // Draw close hint
-        g2.setFont(new Font("Arial", Font.ITALIC, 12));
-        String closeHint = "Press E to close";
-        fm = g2.getFontMetrics();
-        int hintX = x + (INVENTORY_WIDTH - fm.stringWidth(closeHint)) / 2;
-        g2.drawString(closeHint, hintX, y + INVENTORY_HEIGHT - 40);
+        // items picked up while open
+        refreshSlots();
+        ui.draw(r);
     }
 
     /**
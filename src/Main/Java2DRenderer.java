@@ -0,0 +1,190 @@
+import java.awt.AlphaComposite;
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+
+/**
+ * The default Renderer: every call goes straight to a Java2D Graphics.
+ */
+public class Java2DRenderer implements Renderer {
+    private Graphics g;
+    // light image turned into a black overlay for multiply()
+    private BufferedImage shade;
+    // fillSquares() paints into this and draws it once
+    private BufferedImage squares;
+    private int[] squarePixels;
+    // drawSpriteTinted() tints the sprite in here first
+    private BufferedImage tinted;
+    // the last fade() colour, kept since the same level is used frame after frame
+    private Color fadeColor = Color.BLACK;
+
+    public Java2DRenderer() {
+    }
+
+    public Java2DRenderer(Graphics g) {
+        this.g = g;
+    }
+
+    // point the renderer at this frame's Graphics
+    public Java2DRenderer begin(Graphics g) {
+        this.g = g;
+        return this;
+    }
+
+    @Override
+    public void drawImage(BufferedImage img, int x, int y) {
+        g.drawImage(img, x, y, null);
+    }
+
+    @Override
+    public void drawImage(BufferedImage img, int x, int y, int w, int h) {
+        g.drawImage(img, x, y, w, h, null);
+    }
+
+    @Override
+    public void drawSprite(Sprite sprite, int x, int y) {
+        sprite.draw(g, x, y);
+    }
+
+    @Override
+    public void drawSprite(Sprite sprite, int x, int y, int w, int h) {
+        sprite.draw(g, x, y, w, h);
+    }
+
+    /**
+     * The sprite is copied into a reused scratch image and the tint laid over it with
+     * SrcAtop, which keeps the sprite's alpha, then the scratch is drawn in its place.
+     */
+    @Override
+    public void drawSpriteTinted(Sprite s, int x, int y, Color tint, int amount) {
+        int w = s.srcWidth;
+        int h = s.srcHeight;
+        if (tinted == null || tinted.getWidth() < w || tinted.getHeight() < h) {
+            int tw = tinted == null ? w : Math.max(w, tinted.getWidth());
+            int th = tinted == null ? h : Math.max(h, tinted.getHeight());
+            tinted = new BufferedImage(tw, th, BufferedImage.TYPE_INT_ARGB_PRE);
+        }
+        Graphics2D tg = tinted.createGraphics();
+        tg.setComposite(AlphaComposite.Src);
+        tg.drawImage(s.image, 0, 0, w, h, s.srcX, s.srcY, s.srcX + w, s.srcY + h, null);
+        tg.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_ATOP, amount / 255f));
+        tg.setColor(tint);
+        tg.fillRect(0, 0, w, h);
+        tg.dispose();
+        int dx = x + s.offsetX;
+        int dy = y + s.offsetY;
+        g.drawImage(tinted, dx, dy, dx + w, dy + h, 0, 0, w, h, null);
+    }
+
+    @Override
+    public void fillRect(Color color, int x, int y, int w, int h) {
+        g.setColor(color);
+        g.fillRect(x, y, w, h);
+    }
+
+    // black with an alpha of (255 - level) over the area
+    @Override
+    public void fade(int x, int y, int w, int h, int level) {
+        int alpha = 255 - Math.max(0, Math.min(255, level));
+        if (fadeColor.getAlpha() != alpha) fadeColor = new Color(0, 0, 0, alpha);
+        g.setColor(fadeColor);
+        g.fillRect(x, y, w, h);
+    }
+
+    /**
+     * Thousands of translucent fillRects through Java2D cost tens of milliseconds, so the
+     * squares are blended straight into the pixels of a premultiplied layer covering
+     * their bounding box, and the layer is drawn with a single drawImage.
+     */
+    @Override
+    public void fillSquares(int[] x, int[] y, int[] size, int[] argb, int n) {
+        if (n == 0) return;
+        int bx1 = Integer.MAX_VALUE, by1 = Integer.MAX_VALUE, bx2 = Integer.MIN_VALUE, by2 = Integer.MIN_VALUE;
+        for (int i = 0; i < n; i++) {
+            bx1 = Math.min(bx1, x[i]);
+            by1 = Math.min(by1, y[i]);
+            bx2 = Math.max(bx2, x[i] + size[i]);
+            by2 = Math.max(by2, y[i] + size[i]);
+        }
+        Rectangle clip = g.getClipBounds();
+        if (clip != null) {
+            bx1 = Math.max(bx1, clip.x);
+            by1 = Math.max(by1, clip.y);
+            bx2 = Math.min(bx2, clip.x + clip.width);
+            by2 = Math.min(by2, clip.y + clip.height);
+        }
+        int w = bx2 - bx1;
+        int h = by2 - by1;
+        if (w <= 0 || h <= 0) return;
+        if (squares == null || squares.getWidth() < w || squares.getHeight() < h) {
+            int sw = Math.max(w, squares != null ? squares.getWidth() : 0);
+            int sh = Math.max(h, squares != null ? squares.getHeight() : 0);
+            squares = new BufferedImage(sw, sh, BufferedImage.TYPE_INT_ARGB_PRE);
+            squarePixels = ((DataBufferInt) squares.getRaster().getDataBuffer()).getData();
+        }
+        int stride = squares.getWidth();
+        for (int row = 0; row < h; row++) {
+            Arrays.fill(squarePixels, row * stride, row * stride + w, 0);
+        }
+        for (int i = 0; i < n; i++) {
+            int x1 = Math.max(x[i], bx1) - bx1;
+            int y1 = Math.max(y[i], by1) - by1;
+            int x2 = Math.min(x[i] + size[i], bx2) - bx1;
+            int y2 = Math.min(y[i] + size[i], by2) - by1;
+            if (x1 >= x2 || y1 >= y2) continue;
+            int c = argb[i];
+            int a = c >>> 24;
+            if (a == 0) continue;
+            int ia = 255 - a;
+            // premultiplied source: alpha and green in one pair of lanes, red and blue in the other
+            int ag = (a << 16) | Compositor.div255x2(((c >>> 8) & 0xff) * a);
+            int rb = Compositor.div255x2((c & 0xff00ff) * a);
+            for (int row = y1; row < y2; row++) {
+                int p = row * stride + x1;
+                for (int end = p + x2 - x1; p < end; p++) {
+                    int d = squarePixels[p];
+                    int dAg = ag + Compositor.div255x2(((d >>> 8) & 0xff00ff) * ia);
+                    int dRb = rb + Compositor.div255x2((d & 0xff00ff) * ia);
+                    squarePixels[p] = (dAg << 8) | dRb;
+                }
+            }
+        }
+        g.drawImage(squares, bx1, by1, bx2, by2, 0, 0, w, h, null);
+    }
+
+    /**
+     * Java2D has no multiply composite, so the light is drawn as black with an alpha of
+     * (255 - its brightest channel). That matches a multiply for white and grey light;
+     * coloured light only darkens, without its tint.
+     */
+    @Override
+    public void multiply(BufferedImage light, int sx, int sy, int lw, int lh, int x, int y, int w, int h) {
+        if (lw <= 0 || lh <= 0) return;
+        if (shade == null || shade.getWidth() != lw || shade.getHeight() != lh) {
+            shade = new BufferedImage(lw, lh, BufferedImage.TYPE_INT_ARGB);
+        }
+        int[] rgb = light.getRGB(sx, sy, lw, lh, null, 0, lw);
+        for (int i = 0; i < rgb.length; i++) {
+            int p = rgb[i];
+            int max = Math.max((p >>> 16) & 0xff, Math.max((p >>> 8) & 0xff, p & 0xff));
+            rgb[i] = (255 - max) << 24;
+        }
+        shade.setRGB(0, 0, lw, lh, rgb, 0, lw);
+        Graphics2D g2 = (Graphics2D) g;
+        Object hint = g2.getRenderingHint(RenderingHints.KEY_INTERPOLATION);
+        g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g2.drawImage(shade, x, y, w, h, null);
+        g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+            hint != null ? hint : RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+    }
+
+    @Override
+    public Graphics getGraphics() {
+        return g;
+    }
+}
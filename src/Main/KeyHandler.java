@@ -11,15 +11,46 @@ public class KeyHandler implements KeyListener {
     Timer gameTimer;
 
     public void startGameLoop() {
-        gameTimer = new Timer(15, _ -> update());
+        // fires more often than the simulation ticks so drawing can interpolate between ticks
+        gameTimer = new Timer(8, _ -> update());
         gameTimer.start();
     }
 
+    public void stopGameLoop() {
+        if (gameTimer != null) gameTimer.stop();
+    }
+
     public KeyHandler(GamePanel gp) {
         this.gp = gp;
     }
 
     public void update() {
+        advanceFrame();
+        // repaint only what changed this frame (nothing when idle)
+        gp.damage.flush();
+    }
+
+    // run however many fixed ticks are due, then place the camera/player for drawing
+    void advanceFrame() {
+        long start = System.nanoTime();
+        int ticks = gp.clock.advance(start);
+        for (int i = 0; i < ticks; i++) {
+            // nothing to simulate until the StartupLoader is done, but the menu animates meanwhile
+            if (gp.isLoaded()) tick();
+            gp.animations.tick();
+        }
+        // the F3 overlay refreshes on the menu too
+        gp.profiler.update(start, gp.gamePanelSizeX, gp.damage);
+        if (!gp.isLoaded()) return;
+        gp.updateDrawPositions(gp.clock.alpha());
+        gp.profiler.recordUpdate(start);
+    }
+
+    // advance the game state by one fixed step (movement and NPC animation)
+    void tick() {
+        gp.savePreviousPositions();
+        // a move resumes the walk cycle; standing still or being blocked by dialogue pauses it
+        gp.walk.stop();
         if (upIsPressed)
             gp.moveUp();
         else if (downIsPressed)
@@ -29,7 +60,18 @@ public class KeyHandler implements KeyListener {
         else if (rightIsPressed)
             gp.moveRight();
 
-        gp.repaint();
+        boolean onOverworld = gp.isOnOverworld();
+        if (onOverworld && gp.entities != null) gp.entities.update();
+        if (onOverworld && gp.tiles != null) {
+            gp.tiles.minimap.update();
+            gp.tiles.lightMap.tick();
+            gp.tiles.updateAnimations(gp.clock.getTotalTicks());
+        }
+        if (onOverworld && !gp.particles.isIdle()) {
+            gp.particles.update();
+            gp.particles.markDirty(gp.damage, gp.toScreen(gp.drawMapX), gp.toScreen(gp.drawMapY), gp.getZoom());
+        }
+        if (gp.combat != null && gp.combat.isActive()) gp.combat.tick();
     }
 
     @Override
@@ -37,17 +79,22 @@ public class KeyHandler implements KeyListener {
         int code = e.getKeyCode();
         // Debug logging removed to avoid console spam. Use explicit logging while debugging if needed.
 
+        // F3 toggles the frame time overlay on any screen
+        if (code == KeyEvent.VK_F3) {
+            gp.profiler.toggle();
+            gp.damage.markAllDirty();
+            return;
+        }
+
         // If 'M' pressed while in game, open main menu
         if (code == KeyEvent.VK_M) {
             if (gp.menu != null) gp.menu.showMenu();
             return;
         }
 
-        // If menu is showing, allow Enter/Space to start the game and block other keys
+        // If menu is showing, its buttons take the keys (Enter/Space start the game) and block other keys
         if (gp.menu != null && gp.menu.isShowing()) {
-            if (code == KeyEvent.VK_ENTER || code == KeyEvent.VK_SPACE) {
-                gp.menu.startGame();
-            }
+            gp.menu.onKeyPressed(code, e.isShiftDown());
             return;
         }
 
@@ -66,6 +113,7 @@ public class KeyHandler implements KeyListener {
 
         // Use skills during combat with 1,2,3 keys
         if (gp.combat != null && gp.combat.isActive()) {
+            if (gp.combat.onKeyPressed(code, e.isShiftDown())) return;
             switch (code) {
                 case KeyEvent.VK_1 -> gp.combat.onSkillPressed(1);
                 case KeyEvent.VK_2 -> gp.combat.onSkillPressed(2);
@@ -76,14 +124,47 @@ public class KeyHandler implements KeyListener {
             return;
         }
 
+        // Zoom the camera in and out with + and -
+        if (code == KeyEvent.VK_EQUALS || code == KeyEvent.VK_PLUS || code == KeyEvent.VK_ADD) {
+            gp.setZoom(gp.getZoom() + 1);
+            return;
+        }
+        if (code == KeyEvent.VK_MINUS || code == KeyEvent.VK_SUBTRACT) {
+            gp.setZoom(gp.getZoom() - 1);
+            return;
+        }
+
+        // Toggle the minimap with N
+        if (code == KeyEvent.VK_N) {
+            gp.tiles.minimap.toggle();
+            return;
+        }
+
+        // Toggle lighting with L, skip ahead an eighth of a day with T
+        if (code == KeyEvent.VK_L) {
+            gp.tiles.lightMap.toggle();
+            return;
+        }
+        if (code == KeyEvent.VK_T) {
+            gp.tiles.lightMap.setTimeOfDay(gp.tiles.lightMap.getTimeOfDay() + LightMap.DAY_TICKS / 8);
+            return;
+        }
+
+        // Toggle the fog of war with F
+        if (code == KeyEvent.VK_F) {
+            gp.tiles.fog.toggle();
+            return;
+        }
+
         // Toggle inventory with E key
         if (code == KeyEvent.VK_E) {
             gp.inventory.toggleInventory();
             return; // Don't process other keys while opening/closing inventory
         }
 
-        // If inventory is open, don't process movement keys
+        // If inventory is open, the keys move between slots instead of the player
         if (gp.inventory.isOpen()) {
+            gp.inventory.onKeyPressed(code, e.isShiftDown());
             return;
         }
 
@@ -0,0 +1,244 @@
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Day/night and point lighting for the overworld.
+ *
+ * Point lights (torches, treasure glow) come from TMX objects whose type or class is
+ * "light" or that have a lightRadius property, with optional lightColor (#rrggbb) and
+ * lightIntensity (0..1). They are added up once into a coarse world-space grid with one
+ * cell per CELL map pixels, rebuilt only when a light is added or removed. Each frame the
+ * cells under the camera plus the ambient colour for the time of day are copied into a
+ * tiny image that the Renderer stretches (bilinear) and multiplies over the frame, so the
+ * per-frame cost only depends on the screen size, not on how many lights are on screen.
+ */
+public class LightMap {
+    public static final int CELL = 16;
+    // ticks for a full day: 8 minutes at GameClock.TICK_NANOS
+    public static final int DAY_TICKS = 32_000;
+    // the ambient colour changes in this many steps per day, so the screen only needs a repaint every few seconds
+    private static final int DAY_STEPS = 96;
+    private static final int WHITE = 0xffffff;
+    private static final int NIGHT = 0x283260;
+    private static final int DUSK = 0xffa070;
+    private static final int DEFAULT_LIGHT_RADIUS = 96;
+    private static final int DEFAULT_LIGHT_COLOR = 0xffb060;
+
+    public static class Light {
+        public final int x;
+        public final int y;
+        public final int radius;
+        public final int rgb;
+        public final float intensity;
+
+        // position and radius in map pixels
+        public Light(int x, int y, int radius, int rgb, float intensity) {
+            this.x = x;
+            this.y = y;
+            this.radius = radius;
+            this.rgb = rgb;
+            this.intensity = intensity;
+        }
+    }
+
+    private final TileManager tiles;
+    private final List<Light> lights = new ArrayList<>();
+    private boolean lightsLoaded = false;
+    // point light reaching each cell, 0x00RRGGBB, saturated at 255 per channel
+    private int[] cells = new int[0];
+    private int cols, rows;
+    private boolean stale = true;
+    private boolean enabled = true;
+    // ticks into the day: 0 is midnight, DAY_TICKS / 2 is noon
+    private int timeOfDay = DAY_TICKS * 3 / 8;
+    private int ambient = ambientAt(timeOfDay);
+    // the cells under the camera for this frame
+    private BufferedImage view;
+    private int[] viewPixels;
+
+    public LightMap(TileManager tiles) {
+        this.tiles = tiles;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void toggle() {
+        enabled = !enabled;
+        tiles.gp.damage.markAllDirty();
+    }
+
+    /**
+     * Forget the map's lights; they are read again from the spawn points on the next draw.
+     */
+    public void invalidate() {
+        lights.clear();
+        lightsLoaded = false;
+        stale = true;
+    }
+
+    public void addLight(Light light) {
+        lights.add(light);
+        stale = true;
+        tiles.gp.damage.markAllDirty();
+    }
+
+    public void removeLight(Light light) {
+        if (lights.remove(light)) {
+            stale = true;
+            tiles.gp.damage.markAllDirty();
+        }
+    }
+
+    public List<Light> getLights() {
+        loadLights();
+        return lights;
+    }
+
+    private void loadLights() {
+        if (lightsLoaded) return;
+        for (TileManager.SpawnPoint sp : tiles.getSpawnPoints()) {
+            Light light = lightOf(sp);
+            if (light != null) lights.add(light);
+        }
+        lightsLoaded = true;
+    }
+
+    public int getTimeOfDay() {
+        return timeOfDay;
+    }
+
+    public void setTimeOfDay(int ticks) {
+        timeOfDay = Math.floorMod(ticks, DAY_TICKS);
+        int newAmbient = ambientAt(timeOfDay);
+        if (newAmbient != ambient) {
+            ambient = newAmbient;
+            if (enabled) tiles.gp.damage.markAllDirty();
+        }
+    }
+
+    // called once per simulation tick
+    public void tick() {
+        setTimeOfDay(timeOfDay + 1);
+    }
+
+    public void draw(Renderer r) {
+        if (!enabled || tiles.layers.isEmpty()) return;
+        if (stale) rebuild();
+        GamePanel gp = tiles.gp;
+        int cellSize = CELL * gp.getZoom();
+        int camX = gp.toScreen(gp.drawMapX);
+        int camY = gp.toScreen(gp.drawMapY);
+        // one cell of margin on each side so the bilinear edges are off screen
+        int firstCol = Math.floorDiv(camX, cellSize) - 1;
+        int firstRow = Math.floorDiv(camY, cellSize) - 1;
+        int viewCols = Math.floorDiv(camX + gp.gamePanelSizeX, cellSize) + 2 - firstCol;
+        int viewRows = Math.floorDiv(camY + gp.gamePanelSizeY, cellSize) + 2 - firstRow;
+        if (view == null || view.getWidth() != viewCols || view.getHeight() != viewRows) {
+            view = new BufferedImage(viewCols, viewRows, BufferedImage.TYPE_INT_RGB);
+            viewPixels = ((DataBufferInt) view.getRaster().getDataBuffer()).getData();
+        }
+
+        boolean lit = false;
+        int i = 0;
+        for (int vy = 0; vy < viewRows; vy++) {
+            int cy = Math.max(0, Math.min(rows - 1, firstRow + vy));
+            for (int vx = 0; vx < viewCols; vx++) {
+                int cx = Math.max(0, Math.min(cols - 1, firstCol + vx));
+                int rgb = addSaturated(ambient, cells[cy * cols + cx]);
+                viewPixels[i++] = rgb;
+                lit |= rgb != WHITE;
+            }
+        }
+        // broad daylight with no light under the camera: multiplying by white changes nothing
+        if (!lit) return;
+        r.multiply(view, firstCol * cellSize - camX, firstRow * cellSize - camY,
+            viewCols * cellSize, viewRows * cellSize);
+    }
+
+    private void rebuild() {
+        loadLights();
+        cols = (tiles.getMapWidth() * tiles.gp.tileSize + CELL - 1) / CELL;
+        rows = (tiles.getMapHeight() * tiles.gp.tileSize + CELL - 1) / CELL;
+        cells = new int[cols * rows];
+        for (Light light : lights) {
+            addLightToCells(light);
+        }
+        stale = false;
+    }
+
+    // smooth falloff ((1 - d^2 / r^2)^2) over every cell centre inside the radius
+    private void addLightToCells(Light light) {
+        int firstCx = Math.max(0, (light.x - light.radius) / CELL);
+        int firstCy = Math.max(0, (light.y - light.radius) / CELL);
+        int lastCx = Math.min(cols - 1, (light.x + light.radius) / CELL);
+        int lastCy = Math.min(rows - 1, (light.y + light.radius) / CELL);
+        float r2 = (float) light.radius * light.radius;
+        int red = (light.rgb >>> 16) & 0xff;
+        int green = (light.rgb >>> 8) & 0xff;
+        int blue = light.rgb & 0xff;
+        for (int cy = firstCy; cy <= lastCy; cy++) {
+            float dy = cy * CELL + CELL / 2f - light.y;
+            for (int cx = firstCx; cx <= lastCx; cx++) {
+                float dx = cx * CELL + CELL / 2f - light.x;
+                float f = 1f - (dx * dx + dy * dy) / r2;
+                if (f <= 0) continue;
+                f = f * f * light.intensity;
+                int add = ((int) (red * f) << 16) | ((int) (green * f) << 8) | (int) (blue * f);
+                cells[cy * cols + cx] = addSaturated(cells[cy * cols + cx], add);
+            }
+        }
+    }
+
+    // a light from a TMX object, or null if the object isn't one
+    static Light lightOf(TileManager.SpawnPoint sp) {
+        boolean isLight = "light".equalsIgnoreCase(sp.type) || "light".equalsIgnoreCase(sp.clazz)
+            || sp.props.containsKey("lightRadius");
+        if (!isLight) return null;
+        int radius = DEFAULT_LIGHT_RADIUS;
+        int rgb = DEFAULT_LIGHT_COLOR;
+        float intensity = 1f;
+        try {
+            if (sp.props.containsKey("lightRadius")) radius = Math.round(Float.parseFloat(sp.props.get("lightRadius")));
+            if (sp.props.containsKey("lightIntensity")) intensity = Float.parseFloat(sp.props.get("lightIntensity"));
+            String color = sp.props.get("lightColor");
+            // Tiled writes colours as #rrggbb or #aarrggbb
+            if (color != null && color.startsWith("#")) rgb = (int) Long.parseLong(color.substring(1), 16) & WHITE;
+        } catch (NumberFormatException ex) {
+            System.err.println("LightMap: bad light properties on " + sp.name + ": " + ex.getMessage());
+        }
+        return new Light(sp.x, sp.y, Math.max(1, radius), rgb, Math.max(0f, Math.min(1f, intensity)));
+    }
+
+    /**
+     * The ambient light colour at a time of day: NIGHT around midnight, warming through
+     * DUSK into full daylight (white) around noon. Quantized to DAY_STEPS steps.
+     */
+    static int ambientAt(int ticks) {
+        int step = ticks * DAY_STEPS / DAY_TICKS;
+        // 0 at midnight, 1 at noon
+        double sun = 0.5 - 0.5 * Math.cos(2 * Math.PI * step / DAY_STEPS);
+        if (sun < 0.25) return NIGHT;
+        if (sun < 0.45) return mix(NIGHT, DUSK, (sun - 0.25) / 0.2);
+        if (sun < 0.65) return mix(DUSK, WHITE, (sun - 0.45) / 0.2);
+        return WHITE;
+    }
+
+    private static int mix(int a, int b, double t) {
+        int r = (int) Math.round(((a >>> 16) & 0xff) + (((b >>> 16) & 0xff) - ((a >>> 16) & 0xff)) * t);
+        int g = (int) Math.round(((a >>> 8) & 0xff) + (((b >>> 8) & 0xff) - ((a >>> 8) & 0xff)) * t);
+        int bl = (int) Math.round((a & 0xff) + ((b & 0xff) - (a & 0xff)) * t);
+        return (r << 16) | (g << 8) | bl;
+    }
+
+    // per-channel a + b, clamped to 255
+    private static int addSaturated(int a, int b) {
+        int r = Math.min(255, ((a >>> 16) & 0xff) + ((b >>> 16) & 0xff));
+        int g = Math.min(255, ((a >>> 8) & 0xff) + ((b >>> 8) & 0xff));
+        int bl = Math.min(255, (a & 0xff) + (b & 0xff));
+        return (r << 16) | (g << 8) | bl;
+    }
+}
@@ -1,18 +1,50 @@
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import javax.swing.JFrame;
 
 public class Main {
     public static void main(String[] args) {
+        StartupLoader.markLaunch();
+        // pass --active (or -Dgame.activeRendering=true) to draw with the BufferStrategy render loop
+        boolean activeRendering = Boolean.getBoolean("game.activeRendering");
+        // pass --software (or -Dgame.softwareRenderer=true) to draw the overworld into an int[] framebuffer
+        boolean softwareRendering = Boolean.getBoolean("game.softwareRenderer");
+        for (String arg : args) {
+            if (arg.equals("--active")) activeRendering = true;
+            if (arg.equals("--software")) softwareRendering = true;
+            // keep low-colour sprites as palette images to save heap
+            if (arg.equals("--indexed")) AssetManager.setIndexedStorage(true);
+        }
+
         JFrame window = new JFrame();
         window.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         window.setResizable(false);
         window.setTitle("Curse of the Cute");
 
         GamePanel gamePanel = new GamePanel(window);
-        window.add(gamePanel);
+        if (softwareRendering) gamePanel.useSoftwareRenderer(true);
+        ActiveRenderer renderer = null;
+        if (activeRendering) {
+            renderer = new ActiveRenderer(gamePanel, 3, 60);
+            gamePanel.useActiveRenderer(renderer);
+            window.add(renderer);
+        } else {
+            window.add(gamePanel);
+        }
+
+        // keep what the player explored for next time
+        window.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                if (gamePanel.tiles != null) gamePanel.tiles.fog.save();
+            }
+        });
 
         window.pack();
 
         window.setLocationRelativeTo(null);
         window.setVisible(true);
+
+        if (renderer != null) renderer.start();
     }
 }
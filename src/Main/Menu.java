@@ -1,66 +1,72 @@
 import java.awt.*;
-import java.awt.image.BufferedImage;
-import java.io.File;
 import java.util.ArrayList;
-import javax.imageio.ImageIO;
 import javax.swing.*;
 
 public class Menu {
     private final GamePanel gp;
     private final JFrame window;
-    private final ArrayList<BufferedImage> frames = new ArrayList<>();
-    private int frameIndex = 0;
-    private Timer animTimer;
+    private final ArrayList<Sprite> frames = new ArrayList<>();
+    private Animator anim;
     private boolean showing = true;
-    private Rectangle startButton;
-    private Rectangle quitButton;
+    private final UiLayer ui;
+    private UiButton startButton;
+    private UiButton quitButton;
+    private final Java2DRenderer renderer = new Java2DRenderer();
+    private static final Font LOADING_FONT = new Font("Arial", Font.BOLD, 14);
+    private static final GlyphAtlas BUTTON_FONT = GlyphAtlas.get(new Font("Arial", Font.BOLD, 16), Color.BLACK);
 
     public Menu(GamePanel gp, JFrame window) {
         this.gp = gp;
         this.window = window;
         loadFrames();
         startAnimation();
+        ui = new UiLayer(gp.damage);
+    }
+
+    /**
+     * Add the Start and Quit buttons. Called once by GamePanel after construction, since
+     * the buttons call back into this Menu.
+     */
+    void buildUi() {
         // Define button positions based on sprite positions, offset by image centering
         if (!frames.isEmpty()) {
-            BufferedImage img = frames.get(0);
+            Sprite img = frames.get(0);
             int imgW = img.getWidth();
             int imgH = img.getHeight();
             int offsetX = (gp.gamePanelSizeX - imgW) / 2;
             int offsetY = (gp.gamePanelSizeY - imgH) / 2;
-            startButton = new Rectangle(offsetX + 303, offsetY + 312, 180, 49);
-            quitButton = new Rectangle(offsetX + 303, offsetY + 512, 180, 49);
+            // the buttons are part of the menu art, so these only add hover and focus
+            startButton = ui.add(new UiButton(offsetX + 303, offsetY + 312, 180, 49, null, null, null, this::startGame));
+            quitButton = ui.add(new UiButton(offsetX + 303, offsetY + 512, 180, 49, null, null, null, this::quit));
         } else {
             // Fallback positions
             int buttonWidth = 200;
             int buttonHeight = 50;
             int buttonY = gp.gamePanelSizeY - 100;
-            startButton = new Rectangle(100, buttonY, buttonWidth, buttonHeight);
-            quitButton = new Rectangle(gp.gamePanelSizeX - 300, buttonY, buttonWidth, buttonHeight);
+            startButton = ui.add(new UiButton(100, buttonY, buttonWidth, buttonHeight, "Start", BUTTON_FONT, Color.GREEN, this::startGame));
+            quitButton = ui.add(new UiButton(gp.gamePanelSizeX - 300, buttonY, buttonWidth, buttonHeight, "Quit", BUTTON_FONT, Color.RED, this::quit));
         }
+        // Enter and Space start the game unless the keyboard has moved to Quit
+        ui.setFocus(startButton);
     }
 
     private void loadFrames() {
         // Try loading mainmenu1..20.png from res/Entities/UI
         for (int i = 1; i <= 20; i++) {
             try {
-                File f = new File("res/Entities/UI/mainmenu" + i + ".png");
-                if (f.exists()) {
-                    BufferedImage img = ImageIO.read(f);
-                    if (img != null) frames.add(img);
-                }
+                Sprite img = AssetManager.getSprite("res/Entities/UI/mainmenu" + i + ".png");
+                if (img != null) frames.add(img);
             } catch (Exception e) {
                 // ignore single-frame failures
             }
         }
     }
 
+    // 100ms per frame on the game's AnimationClock
     private void startAnimation() {
         if (frames.size() <= 1) return;
-        animTimer = new Timer(100, e -> {
-            frameIndex = (frameIndex + 1) % frames.size();
-            gp.repaint();
-        });
-        animTimer.start();
+        anim = gp.animations.add(new Animator(frames.size(), Animator.ticks(100)).onFrame(gp.damage::markAllDirty));
+        anim.start();
     }
 
     public boolean isShowing() {
@@ -68,8 +74,10 @@ public class Menu {
     }
 
     public void startGame() {
+        // can't leave the menu until the StartupLoader has finished
+        if (!gp.isLoaded()) return;
         showing = false;
-        if (animTimer != null) animTimer.stop();
+        if (anim != null) anim.stop();
         // give a single repaint to switch to game view
         gp.repaint();
     }
@@ -79,38 +87,44 @@ public class Menu {
      */
     public void showMenu() {
         showing = true;
-        frameIndex = 0;
-        if (animTimer == null) startAnimation();
-        else if (animTimer != null && frames.size() > 1) animTimer.start();
+        if (anim == null) startAnimation();
+        else anim.start();
         gp.repaint();
     }
 
+    private void quit() {
+        System.exit(0);
+    }
+
     public void onMouseClicked(int x, int y) {
-        if (startButton.contains(x, y)) {
-            startGame();
-        } else if (quitButton.contains(x, y)) {
-            System.exit(0);
-        }
+        ui.mouseClicked(x, y);
     }
 
     public void onMouseMoved(int x, int y) {
-        if (startButton.contains(x, y) || quitButton.contains(x, y)) {
+        if (ui.mouseMoved(x, y)) {
             gp.setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
         } else {
             gp.setCursor(Cursor.getPredefinedCursor(Cursor.DEFAULT_CURSOR));
         }
     }
 
+    /**
+     * Keyboard navigation of the menu buttons (Tab, arrows, Enter, Space).
+     */
+    public boolean onKeyPressed(int code, boolean shift) {
+        return ui.keyPressed(code, shift);
+    }
+
     public void draw(Graphics g) {
         Graphics2D g2 = (Graphics2D) g;
         g2.setColor(Color.BLACK);
         g2.fillRect(0, 0, gp.gamePanelSizeX, gp.gamePanelSizeY);
 
         if (!frames.isEmpty()) {
-            BufferedImage img = frames.get(frameIndex);
+            Sprite img = frames.get(anim != null ? anim.getFrame() : 0);
             int x = (gp.gamePanelSizeX - img.getWidth()) / 2;
             int y = (gp.gamePanelSizeY - img.getHeight()) / 2;
-            g2.drawImage(img, x, y, null);
+            img.draw(g2, x, y);
         } else {
             // fallback menu
             g2.setColor(new Color(25, 25, 25));
@@ -120,25 +134,42 @@ public class Menu {
             String title = "Curse of the Cute";
             int tw = g2.getFontMetrics().stringWidth(title);
             g2.drawString(title, (gp.gamePanelSizeX - tw) / 2, gp.gamePanelSizeY / 2 - 20);
+        }
+        ui.draw(renderer.begin(g2));
+
+        if (!gp.isLoaded()) {
+            drawLoadingBar(g2);
+        }
+    }
 
-            // Draw Start button in fallback
-            g2.setColor(Color.GREEN);
-            g2.fillRect(startButton.x, startButton.y, startButton.width, startButton.height);
-            g2.setColor(Color.BLACK);
-            g2.setFont(new Font("Arial", Font.BOLD, 16));
-            String startText = "Start";
-            int startTextW = g2.getFontMetrics().stringWidth(startText);
-            int startTextH = g2.getFontMetrics().getAscent();
-            g2.drawString(startText, startButton.x + (startButton.width - startTextW) / 2, startButton.y + (startButton.height + startTextH) / 2);
-
-            // Draw Quit button in fallback
-            g2.setColor(Color.RED);
-            g2.fillRect(quitButton.x, quitButton.y, quitButton.width, quitButton.height);
-            g2.setColor(Color.BLACK);
-            String quitText = "Quit";
-            int quitTextW = g2.getFontMetrics().stringWidth(quitText);
-            int quitTextH = g2.getFontMetrics().getAscent();
-            g2.drawString(quitText, quitButton.x + (quitButton.width - quitTextW) / 2, quitButton.y + (quitButton.height + quitTextH) / 2);
+    // progress of the StartupLoader, shown in place of the start prompt while loading,
+    // or why loading failed
+    private void drawLoadingBar(Graphics2D g2) {
+        int barWidth = 300;
+        int barHeight = 16;
+        int x = (gp.gamePanelSizeX - barWidth) / 2;
+        int y = gp.gamePanelSizeY - 60;
+        float progress = gp.loader.getProgress();
+        Throwable failure = gp.loader.getFailure();
+        String text;
+        if (failure != null) {
+            String message = failure.getMessage();
+            text = "Loading failed: " + (message != null ? message : failure.getClass().getSimpleName());
+        } else {
+            text = "Loading... " + (int) (progress * 100) + "%";
         }
+        g2.setFont(LOADING_FONT);
+        int textWidth = g2.getFontMetrics().stringWidth(text);
+        int boxWidth = Math.max(barWidth, textWidth) + 20;
+
+        g2.setColor(new Color(0, 0, 0, 180));
+        g2.fillRect((gp.gamePanelSizeX - boxWidth) / 2, y - 26, boxWidth, barHeight + 36);
+        g2.setColor(Color.DARK_GRAY);
+        g2.fillRect(x, y, barWidth, barHeight);
+        g2.setColor(failure != null ? Color.RED : new Color(0, 200, 0));
+        g2.fillRect(x, y, (int) (barWidth * progress), barHeight);
+        g2.setColor(Color.WHITE);
+        g2.drawRect(x, y, barWidth, barHeight);
+        g2.drawString(text, Math.min(x, (gp.gamePanelSizeX - textWidth) / 2), y - 8);
     }
 }
@@ -0,0 +1,222 @@
+import java.awt.Color;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+
+/**
+ * Overview of the whole map in the top-right corner of the HUD. The map is kept in one
+ * small image with one colour per tile (or per block of tiles on big maps), built once
+ * from the layer gids with a representative colour per gid sampled from the tileset.
+ * A changed tile only repaints its own pixels; per frame the image is a single blit
+ * and only the view outline and the player/NPC markers are drawn on top.
+ */
+public class Minimap {
+    // longest side of the minimap on screen
+    public static final int MAX_SIZE = 160;
+    private static final int MARGIN = 10;
+    private static final int BACKGROUND = 0x202020;
+    private static final Color BORDER = new Color(20, 20, 20);
+    private static final Color VIEW = new Color(255, 255, 255, 140);
+    private static final Color PLAYER = Color.WHITE;
+    private static final Color FRIENDLY = new Color(80, 200, 255);
+    private static final Color ENEMY = new Color(230, 40, 40);
+
+    private final TileManager tiles;
+    private BufferedImage image;
+    private int[] pixels;
+    // a tile covers tilePixels x tilePixels image pixels; on maps too big for that,
+    // an image pixel covers a block of tilesPerPixel x tilesPerPixel tiles instead
+    private int tilePixels = 1;
+    private int tilesPerPixel = 1;
+    // representative colour of each gid; alpha is the share of the tile that is opaque
+    private int[] gidColors = new int[0];
+    private boolean stale = true;
+    private boolean visible = true;
+    // player marker as last drawn, to know when the minimap needs repainting
+    private int markerX = -1;
+    private int markerY = -1;
+
+    public Minimap(TileManager tiles) {
+        this.tiles = tiles;
+    }
+
+    public boolean isVisible() {
+        return visible;
+    }
+
+    public void toggle() {
+        visible = !visible;
+        tiles.gp.damage.markDirty(getBounds());
+    }
+
+    /**
+     * Rebuild everything on the next draw (a new map or tileset was loaded).
+     */
+    public void invalidate() {
+        stale = true;
+    }
+
+    /**
+     * Repaint the pixels of one changed tile.
+     */
+    public void tileChanged(int tileX, int tileY) {
+        if (stale || image == null) return;
+        int bx = tileX / tilesPerPixel;
+        int by = tileY / tilesPerPixel;
+        paintCell(bx, by);
+        if (visible) tiles.gp.damage.markDirty(getBounds());
+    }
+
+    /**
+     * Called once per tick on the overworld: marks the minimap for repaint when the
+     * player marker moved. Camera scrolls repaint the whole screen anyway.
+     */
+    public void update() {
+        GamePanel gp = tiles.gp;
+        if (!visible || image == null || gp.ps == null) return;
+        int x = toImage(gp.playerWorldX / TileManager.WORLD_SCALE);
+        int y = toImage(gp.playerWorldY / TileManager.WORLD_SCALE);
+        if (x == markerX && y == markerY) return;
+        markerX = x;
+        markerY = y;
+        gp.damage.markDirty(getBounds());
+    }
+
+    public void draw(Renderer r) {
+        if (!visible || tiles.tilesetImage == null || tiles.layers.isEmpty()) return;
+        if (stale) rebuild();
+        GamePanel gp = tiles.gp;
+        Rectangle bounds = getBounds();
+        int x = bounds.x + 2;
+        int y = bounds.y + 2;
+        r.fillRect(BORDER, bounds.x, bounds.y, bounds.width, bounds.height);
+        r.drawImage(image, x, y);
+
+        // what the camera sees
+        int vx = x + toImage(gp.mapX / TileManager.WORLD_SCALE);
+        int vy = y + toImage(gp.mapY / TileManager.WORLD_SCALE);
+        int vw = Math.max(2, toImage(gp.viewWidth() / TileManager.WORLD_SCALE));
+        int vh = Math.max(2, toImage(gp.viewHeight() / TileManager.WORLD_SCALE));
+        r.fillRect(VIEW, vx, vy, vw, 1);
+        r.fillRect(VIEW, vx, vy + vh - 1, vw, 1);
+        r.fillRect(VIEW, vx, vy + 1, 1, vh - 2);
+        r.fillRect(VIEW, vx + vw - 1, vy + 1, 1, vh - 2);
+
+        if (gp.entities != null) {
+            Rectangle npc = gp.entities.getMapRect();
+            drawMarker(r, gp.entities.getIsEnemyNPC() ? ENEMY : FRIENDLY, x, y, npc.x + npc.width / 2, npc.y + npc.height / 2);
+        }
+        if (gp.enemyNPC != null) {
+            drawMarker(r, ENEMY, x, y, gp.enemyNPC.getMapX(), gp.enemyNPC.getMapY());
+        }
+        if (gp.ps != null) {
+            int px = (gp.playerWorldX + gp.ps.playerSizeW / 2) / TileManager.WORLD_SCALE;
+            int py = (gp.playerWorldY + gp.ps.playerSizeH / 2) / TileManager.WORLD_SCALE;
+            drawMarker(r, PLAYER, x, y, px, py);
+        }
+    }
+
+    // screen area of the minimap including its 2px border
+    public Rectangle getBounds() {
+        int w = image != null ? image.getWidth() : MAX_SIZE;
+        int h = image != null ? image.getHeight() : MAX_SIZE;
+        return new Rectangle(tiles.gp.gamePanelSizeX - MARGIN - w - 4, MARGIN, w + 4, h + 4);
+    }
+
+    // 3x3 dot centred on a map pixel position
+    private void drawMarker(Renderer r, Color color, int originX, int originY, int mapPixelX, int mapPixelY) {
+        r.fillRect(color, originX + toImage(mapPixelX) - 1, originY + toImage(mapPixelY) - 1, 3, 3);
+    }
+
+    // map pixel coordinate to minimap image pixels
+    private int toImage(int mapPixel) {
+        return mapPixel * tilePixels / (tiles.gp.tileSize * tilesPerPixel);
+    }
+
+    private void rebuild() {
+        int mapW = tiles.getMapWidth();
+        int mapH = tiles.getMapHeight();
+        int longest = Math.max(mapW, mapH);
+        tilePixels = Math.max(1, MAX_SIZE / longest);
+        tilesPerPixel = (longest + MAX_SIZE - 1) / MAX_SIZE;
+        int blocksW = (mapW + tilesPerPixel - 1) / tilesPerPixel;
+        int blocksH = (mapH + tilesPerPixel - 1) / tilesPerPixel;
+        image = new BufferedImage(blocksW * tilePixels, blocksH * tilePixels, BufferedImage.TYPE_INT_RGB);
+        pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        sampleGidColors();
+        for (int by = 0; by < blocksH; by++) {
+            for (int bx = 0; bx < blocksW; bx++) {
+                paintCell(bx, by);
+            }
+        }
+        markerX = -1;
+        stale = false;
+    }
+
+    // fill one minimap cell with the average colour of the tiles it covers
+    private void paintCell(int bx, int by) {
+        int x1 = bx * tilesPerPixel;
+        int y1 = by * tilesPerPixel;
+        int x2 = Math.min(tiles.getMapWidth(), x1 + tilesPerPixel);
+        int y2 = Math.min(tiles.getMapHeight(), y1 + tilesPerPixel);
+        int r = 0, g = 0, b = 0;
+        for (int ty = y1; ty < y2; ty++) {
+            for (int tx = x1; tx < x2; tx++) {
+                int c = tileColor(tx, ty);
+                r += (c >> 16) & 0xff;
+                g += (c >> 8) & 0xff;
+                b += c & 0xff;
+            }
+        }
+        int n = (x2 - x1) * (y2 - y1);
+        int rgb = ((r / n) << 16) | ((g / n) << 8) | (b / n);
+        int stride = image.getWidth();
+        for (int py = 0; py < tilePixels; py++) {
+            int row = (by * tilePixels + py) * stride + bx * tilePixels;
+            for (int px = 0; px < tilePixels; px++) {
+                pixels[row + px] = rgb;
+            }
+        }
+    }
+
+    // every layer's gid colour composited bottom to top over the background
+    private int tileColor(int tx, int ty) {
+        int rgb = BACKGROUND;
+        for (int[][] layer : tiles.layers) {
+            int gid = layer[ty][tx];
+            if (gid <= 0 || gid >= gidColors.length) continue;
+            int c = gidColors[gid];
+            int a = c >>> 24;
+            if (a != 0) rgb = ScalarCompositor.blendPixel(c, rgb, a, false);
+        }
+        return rgb & 0xffffff;
+    }
+
+    // average colour of each tileset tile's visible pixels
+    private void sampleGidColors() {
+        BufferedImage sheet = tiles.tilesetImage;
+        int tw = tiles.tilesetTileWidth;
+        int th = tiles.tilesetTileHeight;
+        int tileCount = tiles.tilesetColumns * (sheet.getHeight() / th);
+        gidColors = new int[tiles.tilesetFirstGid + tileCount];
+        int[] argb = new int[tw * th];
+        for (int localId = 0; localId < tileCount; localId++) {
+            int sx = (localId % tiles.tilesetColumns) * tw;
+            int sy = (localId / tiles.tilesetColumns) * th;
+            sheet.getRGB(sx, sy, tw, th, argb, 0, tw);
+            long r = 0, g = 0, b = 0;
+            int opaque = 0;
+            for (int p : argb) {
+                if ((p >>> 24) < 128) continue;
+                r += (p >> 16) & 0xff;
+                g += (p >> 8) & 0xff;
+                b += p & 0xff;
+                opaque++;
+            }
+            if (opaque == 0) continue;
+            int alpha = opaque * 255 / argb.length;
+            gidColors[tiles.tilesetFirstGid + localId] = (alpha << 24)
+                | (int) (r / opaque) << 16 | (int) (g / opaque) << 8 | (int) (b / opaque);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.awt.image.IndexColorModel;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Palette (IndexColorModel) storage for low-colour pixel art.
+ * Every sprite in res/Entities uses a few dozen colours at most, so keeping it as
+ * 32-bit ARGB wastes 4-8x the memory: an 800x600 combat frame with 12 colours is
+ * 1.9 MB as ARGB and 240 KB as 4-bit indices. Java2D draws indexed images directly
+ * (and caches an expanded copy itself when it accelerates them); pre-scaled copies made by
+ * Sprite.scaled are expanded into compatible images as before.
+ */
+public final class PaletteImages {
+    private static final int MAX_COLOURS = 256;
+
+    private PaletteImages() {
+    }
+
+    /**
+     * Losslessly convert img to an indexed image using 1, 2, 4 or 8 bits per pixel,
+     * or return null if it has more than 256 distinct colours.
+     * Fully transparent pixels all share palette entry 0.
+     */
+    public static BufferedImage toIndexed(BufferedImage img) {
+        int w = img.getWidth();
+        int h = img.getHeight();
+        int[] argb = img.getRGB(0, 0, w, h, null, 0, w);
+
+        Map<Integer, Integer> indexOf = new HashMap<>();
+        int[] palette = new int[MAX_COLOURS];
+        indexOf.put(0, 0);
+        int colours = 1;
+        // runs of the same colour are the common case; skip the map lookup for them
+        int lastColour = 0, lastIndex = 0;
+        for (int i = 0; i < argb.length; i++) {
+            int p = argb[i];
+            if ((p >>> 24) == 0) p = 0;
+            if (p == lastColour) {
+                argb[i] = lastIndex;
+                continue;
+            }
+            Integer idx = indexOf.get(p);
+            if (idx == null) {
+                if (colours == MAX_COLOURS) return null;
+                idx = colours;
+                palette[colours++] = p;
+                indexOf.put(p, idx);
+            }
+            lastColour = p;
+            lastIndex = idx;
+            argb[i] = idx;
+        }
+
+        int bits = colours <= 2 ? 1 : colours <= 4 ? 2 : colours <= 16 ? 4 : 8;
+        IndexColorModel icm = new IndexColorModel(bits, 1 << bits, palette, 0, true, -1, DataBuffer.TYPE_BYTE);
+        BufferedImage indexed = bits == 8
+            ? new BufferedImage(w, h, BufferedImage.TYPE_BYTE_INDEXED, icm)
+            : new BufferedImage(w, h, BufferedImage.TYPE_BYTE_BINARY, icm);
+        // raster samples are palette indices
+        indexed.getRaster().setPixels(0, 0, w, h, argb);
+        return indexed;
+    }
+
+    public static boolean isIndexed(BufferedImage img) {
+        return img.getColorModel() instanceof IndexColorModel;
+    }
+
+    /**
+     * A recoloured variant of an indexed image, e.g. a palette-swapped enemy.
+     * Only the palette is new: the pixel raster is shared with the original, so
+     * a variant costs a few hundred bytes whatever the image size.
+     * @param recolor maps each original ARGB palette colour to its replacement
+     */
+    public static BufferedImage withPalette(BufferedImage indexed, IntUnaryOperator recolor) {
+        if (!isIndexed(indexed)) {
+            throw new IllegalArgumentException("Palette swap needs an indexed image");
+        }
+        IndexColorModel icm = (IndexColorModel) indexed.getColorModel();
+        int[] palette = new int[icm.getMapSize()];
+        icm.getRGBs(palette);
+        for (int i = 0; i < palette.length; i++) {
+            // entry 0 is the shared transparent colour
+            if (i != 0) palette[i] = recolor.applyAsInt(palette[i]);
+        }
+        IndexColorModel swapped = new IndexColorModel(icm.getPixelSize(), palette.length, palette, 0, true, -1,
+            DataBuffer.TYPE_BYTE);
+        return new BufferedImage(swapped, indexed.getRaster(), false, null);
+    }
+}
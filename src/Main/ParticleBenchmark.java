@@ -0,0 +1,73 @@
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+/**
+ * Times the particle system with at least 10k live particles: after each update the
+ * pool is topped back up with hit sparks and cones, alongside a few running trails.
+ * Reports the update and the draw (into the int[] framebuffer and through Java2D) per
+ * frame, and whether update + draw fits the 2 ms budget with each renderer.
+ *
+ * To run (from the project root):
+ *   java -cp out ParticleBenchmark [frames]
+ */
+public class ParticleBenchmark {
+    private static final int WIDTH = 800;
+    private static final int HEIGHT = 600;
+    private static final int CAPACITY = 16384;
+    private static final int TARGET_LIVE = 10_000;
+    private static final int WARMUP_FRAMES = 300;
+    private static final double BUDGET_MICROS = 2000;
+
+    public static void main(String[] args) {
+        int frames = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        ParticleSystem particles = new ParticleSystem(CAPACITY);
+        ParticleEmitter sparks = ParticleEmitter.hitSparks(0xffffd040);
+        ParticleEmitter cone = ParticleEmitter.skillCone(0xff60c0ff, -Math.PI / 4);
+        ParticleEmitter trail = ParticleEmitter.skillTrail(0xffff60ff);
+        for (int i = 0; i < 8; i++) {
+            particles.startTrail(trail, 100 + i * 80, 300, -1);
+        }
+
+        SoftwareRenderer software = new SoftwareRenderer(WIDTH, HEIGHT);
+        BufferedImage target = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = target.createGraphics();
+        Java2DRenderer java2d = new Java2DRenderer(g);
+
+        long update = 0, drawSoftware = 0, drawJava2d = 0;
+        int live = 0, minLive = Integer.MAX_VALUE;
+        for (int frame = -WARMUP_FRAMES; frame < frames; frame++) {
+            long t0 = System.nanoTime();
+            particles.update();
+            // top the pool back up from a few places on screen
+            for (int k = 0; particles.getCount() < TARGET_LIVE; k++) {
+                if (k % 4 == 3) particles.emit(cone, 150, 450);
+                else particles.emit(sparks, 100 + (frame * 37 + k * 250) % 600, 150 + (frame * 13 + k * 90) % 300);
+            }
+            long t1 = System.nanoTime();
+            particles.draw(software.begin(null), 0, 0, 1);
+            long t2 = System.nanoTime();
+            particles.draw(java2d.begin(g), 0, 0, 1);
+            long t3 = System.nanoTime();
+            if (frame < 0) continue;
+            update += t1 - t0;
+            drawSoftware += t2 - t1;
+            drawJava2d += t3 - t2;
+            live += particles.getCount();
+            minLive = Math.min(minLive, particles.getCount());
+        }
+        g.dispose();
+
+        System.out.printf("live particles: %d average, %d minimum (pool %d, %d emits dropped)%n",
+            live / frames, minLive, CAPACITY, particles.particlesDropped);
+        System.out.printf("%-28s %8.1f us/frame%n", "update", update / 1000.0 / frames);
+        System.out.printf("%-28s %8.1f us/frame%n", "draw, int[] framebuffer", drawSoftware / 1000.0 / frames);
+        System.out.printf("%-28s %8.1f us/frame%n", "draw, Java2D", drawJava2d / 1000.0 / frames);
+        report("update + framebuffer draw", (update + drawSoftware) / 1000.0 / frames);
+        report("update + Java2D draw", (update + drawJava2d) / 1000.0 / frames);
+    }
+
+    private static void report(String name, double micros) {
+        System.out.printf("%-28s %8.1f us/frame  %s (budget %.0f us)%n",
+            name, micros, micros <= BUDGET_MICROS ? "PASS" : "FAIL", BUDGET_MICROS);
+    }
+}
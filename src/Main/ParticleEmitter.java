@@ -0,0 +1,136 @@
+/**
+ * How a group of particles is emitted and how it looks: the shape (a burst in every
+ * direction, a cone, or a trail that emits a few per tick while it follows something),
+ * speed, lifetime, colour over life, size, gravity and drag.
+ *
+ * Emitters are configured once (see the presets) and then started on a ParticleSystem
+ * any number of times. The colour ramp is precomputed in RAMP_STEPS steps, so a
+ * particle's colour is one array read.
+ */
+public class ParticleEmitter {
+    public enum Shape { BURST, CONE, TRAIL }
+
+    // colour steps between the start and end colour over a particle's life
+    public static final int RAMP_STEPS = 16;
+
+    final Shape shape;
+    // particles per burst/cone, or per tick for a trail
+    int count = 20;
+    float minSpeed = 0.5f, maxSpeed = 2f;
+    // direction in radians (0 = right, PI/2 = down) and half the cone width
+    float angle = (float) (-Math.PI / 2);
+    float spread = (float) Math.PI;
+    int minLife = 20, maxLife = 40;
+    // added to vy every tick (positive pulls down), and velocity kept per tick
+    float gravity = 0f;
+    float drag = 1f;
+    // side of the square in system units, and how far from the origin particles start
+    int size = 2;
+    float jitter = 0f;
+    final int[] ramp = new int[RAMP_STEPS];
+    // index in the ParticleSystem's emitter table, assigned on first use
+    int id = -1;
+
+    public ParticleEmitter(Shape shape) {
+        this.shape = shape;
+        fillRamp(0xffffffff, 0x00ffffff);
+    }
+
+    public ParticleEmitter count(int count) {
+        this.count = count;
+        return this;
+    }
+
+    public ParticleEmitter speed(float min, float max) {
+        this.minSpeed = min;
+        this.maxSpeed = max;
+        return this;
+    }
+
+    // radians: 0 points right, -PI/2 up; spread is half the cone width (PI is a full circle)
+    public ParticleEmitter direction(double angle, double spread) {
+        this.angle = (float) angle;
+        this.spread = (float) spread;
+        return this;
+    }
+
+    // in ticks
+    public ParticleEmitter life(int min, int max) {
+        this.minLife = Math.max(1, min);
+        this.maxLife = Math.max(this.minLife, max);
+        return this;
+    }
+
+    public ParticleEmitter gravity(float gravity) {
+        this.gravity = gravity;
+        return this;
+    }
+
+    public ParticleEmitter drag(float drag) {
+        this.drag = drag;
+        return this;
+    }
+
+    public ParticleEmitter size(int size) {
+        this.size = Math.max(1, size);
+        return this;
+    }
+
+    public ParticleEmitter jitter(float jitter) {
+        this.jitter = jitter;
+        return this;
+    }
+
+    /**
+     * Colour at birth and at death (ARGB), blended linearly over the particle's life.
+     */
+    public ParticleEmitter colors(int startArgb, int endArgb) {
+        fillRamp(startArgb, endArgb);
+        return this;
+    }
+
+    private void fillRamp(int startArgb, int endArgb) {
+        for (int i = 0; i < RAMP_STEPS; i++) {
+            float t = i / (float) (RAMP_STEPS - 1);
+            int argb = 0;
+            for (int shift = 0; shift < 32; shift += 8) {
+                int a = (startArgb >>> shift) & 0xff;
+                int b = (endArgb >>> shift) & 0xff;
+                argb |= Math.round(a + (b - a) * t) << shift;
+            }
+            ramp[i] = argb;
+        }
+    }
+
+    // presets
+
+    // gold sparkles rising off a treasure
+    public static ParticleEmitter treasureSparkle() {
+        return new ParticleEmitter(Shape.TRAIL).count(1).speed(0.1f, 0.4f).direction(-Math.PI / 2, 0.6)
+            .life(30, 60).jitter(8f).colors(0xffffe680, 0x00ffb020);
+    }
+
+    // the treasure bursting open when it is picked up
+    public static ParticleEmitter treasureBurst() {
+        return new ParticleEmitter(Shape.BURST).count(80).speed(0.5f, 2.5f).life(25, 50)
+            .gravity(0.06f).drag(0.96f).colors(0xfffff0a0, 0x00ff8000);
+    }
+
+    // sparks where a skill hits
+    public static ParticleEmitter hitSparks(int argb) {
+        return new ParticleEmitter(Shape.BURST).count(120).speed(2f, 7f).life(15, 35).size(4)
+            .gravity(0.15f).drag(0.94f).colors(argb, argb & 0x00ffffff);
+    }
+
+    // a spray from the caster towards the target
+    public static ParticleEmitter skillCone(int argb, double angle) {
+        return new ParticleEmitter(Shape.CONE).count(150).speed(4f, 10f).direction(angle, 0.25).life(20, 40)
+            .size(5).drag(0.97f).colors(argb, argb & 0x00ffffff);
+    }
+
+    // the tail of a projectile, emitted where it currently is
+    public static ParticleEmitter skillTrail(int argb) {
+        return new ParticleEmitter(Shape.TRAIL).count(12).speed(0.2f, 1.5f).life(10, 25).size(4)
+            .jitter(6f).colors(argb, argb & 0x00ffffff);
+    }
+}
@@ -0,0 +1,259 @@
+import java.util.Arrays;
+
+/**
+ * A fixed pool of particles stored as parallel primitive arrays (position, velocity,
+ * age, lifetime, emitter). Live particles are kept packed at the front: a particle that
+ * dies is replaced by the last live one, so update and draw are straight loops over
+ * count entries and emitting never allocates. When the pool is full new particles are
+ * dropped rather than growing it.
+ *
+ * Positions are in whatever space the owner uses (map pixels on the overworld, screen
+ * pixels in Combat); draw() takes the scale and offset to the screen. Trails are kept
+ * in a small slot table so a long-running emitter (a treasure's sparkle, a projectile's
+ * tail) can be moved and stopped by its slot number.
+ */
+public class ParticleSystem {
+    public static final int MAX_TRAILS = 32;
+    private static final int MAX_EMITTERS = 256;
+
+    private final int capacity;
+    private final float[] x, y, vx, vy;
+    private final int[] age, life;
+    private final short[] emitter;
+    private int count = 0;
+    // screen squares handed to Renderer.fillSquares
+    private final int[] drawX, drawY, drawSize, drawColor;
+
+    // emitters used with this system, indexed by ParticleEmitter.id
+    private final ParticleEmitter[] emitters = new ParticleEmitter[MAX_EMITTERS];
+    private int emitterCount = 0;
+
+    // trail slots: emitter, position and ticks left (-1 runs until stopped)
+    private final ParticleEmitter[] trailEmitter = new ParticleEmitter[MAX_TRAILS];
+    private final float[] trailX = new float[MAX_TRAILS];
+    private final float[] trailY = new float[MAX_TRAILS];
+    private final int[] trailTicks = new int[MAX_TRAILS];
+
+    // area covered by live particles after the last update, and the one before
+    private float minX, minY, maxX, maxY;
+    private float lastMinX, lastMinY, lastMaxX, lastMaxY;
+    private boolean hadParticles = false;
+
+    // xorshift state; java.util.Random would be a synchronized call per random number
+    private int seed = 0x2545f491;
+
+    // stats
+    int particlesDropped = 0;
+
+    public ParticleSystem(int capacity) {
+        this.capacity = capacity;
+        x = new float[capacity];
+        y = new float[capacity];
+        vx = new float[capacity];
+        vy = new float[capacity];
+        age = new int[capacity];
+        life = new int[capacity];
+        emitter = new short[capacity];
+        drawX = new int[capacity];
+        drawY = new int[capacity];
+        drawSize = new int[capacity];
+        drawColor = new int[capacity];
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public boolean isIdle() {
+        if (count > 0) return false;
+        for (ParticleEmitter e : trailEmitter) {
+            if (e != null) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Emit a burst or cone at (px, py). A trail emitter starts a trail instead.
+     */
+    public void emit(ParticleEmitter e, float px, float py) {
+        if (e.shape == ParticleEmitter.Shape.TRAIL) {
+            startTrail(e, px, py, 1);
+            return;
+        }
+        spawn(e, px, py, e.count);
+    }
+
+    /**
+     * Start a trail that emits every tick at (px, py) for ticks ticks (-1 until stopped).
+     * Returns its slot for moveTrail/stopTrail, or -1 when every slot is taken.
+     */
+    public int startTrail(ParticleEmitter e, float px, float py, int ticks) {
+        for (int i = 0; i < MAX_TRAILS; i++) {
+            if (trailEmitter[i] != null) continue;
+            register(e);
+            trailEmitter[i] = e;
+            trailX[i] = px;
+            trailY[i] = py;
+            trailTicks[i] = ticks;
+            return i;
+        }
+        return -1;
+    }
+
+    public void moveTrail(int slot, float px, float py) {
+        if (slot < 0 || slot >= MAX_TRAILS) return;
+        trailX[slot] = px;
+        trailY[slot] = py;
+    }
+
+    public void stopTrail(int slot) {
+        if (slot >= 0 && slot < MAX_TRAILS) trailEmitter[slot] = null;
+    }
+
+    /**
+     * Drop every particle and trail.
+     */
+    public void clear() {
+        count = 0;
+        Arrays.fill(trailEmitter, null);
+    }
+
+    // called once per simulation tick
+    public void update() {
+        for (int t = 0; t < MAX_TRAILS; t++) {
+            ParticleEmitter e = trailEmitter[t];
+            if (e == null) continue;
+            spawn(e, trailX[t], trailY[t], e.count);
+            if (trailTicks[t] > 0 && --trailTicks[t] == 0) trailEmitter[t] = null;
+        }
+
+        lastMinX = minX;
+        lastMinY = minY;
+        lastMaxX = maxX;
+        lastMaxY = maxY;
+        hadParticles = count > 0;
+        float x1 = Float.MAX_VALUE, y1 = Float.MAX_VALUE, x2 = -Float.MAX_VALUE, y2 = -Float.MAX_VALUE;
+        int i = 0;
+        while (i < count) {
+            if (++age[i] >= life[i]) {
+                // move the last live particle into this slot and look at it next
+                count--;
+                x[i] = x[count];
+                y[i] = y[count];
+                vx[i] = vx[count];
+                vy[i] = vy[count];
+                age[i] = age[count];
+                life[i] = life[count];
+                emitter[i] = emitter[count];
+                continue;
+            }
+            ParticleEmitter e = emitters[emitter[i]];
+            float px = x[i] + vx[i];
+            float py = y[i] + vy[i];
+            x[i] = px;
+            y[i] = py;
+            vx[i] *= e.drag;
+            vy[i] = vy[i] * e.drag + e.gravity;
+            if (px < x1) x1 = px;
+            if (px > x2) x2 = px;
+            if (py < y1) y1 = py;
+            if (py > y2) y2 = py;
+            i++;
+        }
+        minX = x1;
+        minY = y1;
+        maxX = x2;
+        maxY = y2;
+    }
+
+    /**
+     * Mark where particles were drawn last frame and will be drawn this frame as changed.
+     * A system position p is drawn at p * scale - offset on screen.
+     */
+    public void markDirty(DamageTracker damage, int offsetX, int offsetY, int scale) {
+        if (count > 0) markArea(damage, minX, minY, maxX, maxY, offsetX, offsetY, scale);
+        if (hadParticles) markArea(damage, lastMinX, lastMinY, lastMaxX, lastMaxY, offsetX, offsetY, scale);
+    }
+
+    private void markArea(DamageTracker damage, float x1, float y1, float x2, float y2, int offsetX, int offsetY, int scale) {
+        // the largest particle size we could have drawn around the covered points
+        int pad = maxSize() * scale + 1;
+        int sx = (int) Math.floor(x1 * scale) - offsetX - pad;
+        int sy = (int) Math.floor(y1 * scale) - offsetY - pad;
+        damage.markDirty(sx, sy, (int) Math.ceil((x2 - x1) * scale) + 2 * pad, (int) Math.ceil((y2 - y1) * scale) + 2 * pad);
+    }
+
+    private int maxSize() {
+        int size = 1;
+        for (int i = 0; i < emitterCount; i++) {
+            size = Math.max(size, emitters[i].size);
+        }
+        return size;
+    }
+
+    /**
+     * Draw every particle as a square centred on its position, coloured by its age.
+     */
+    public void draw(Renderer r, int offsetX, int offsetY, int scale) {
+        for (int i = 0; i < count; i++) {
+            ParticleEmitter e = emitters[emitter[i]];
+            int size = e.size * scale;
+            drawX[i] = (int) (x[i] * scale) - offsetX - (size >> 1);
+            drawY[i] = (int) (y[i] * scale) - offsetY - (size >> 1);
+            drawSize[i] = size;
+            drawColor[i] = e.ramp[age[i] * ParticleEmitter.RAMP_STEPS / life[i]];
+        }
+        r.fillSquares(drawX, drawY, drawSize, drawColor, count);
+    }
+
+    private void spawn(ParticleEmitter e, float px, float py, int n) {
+        register(e);
+        int free = capacity - count;
+        if (n > free) {
+            particlesDropped += n - free;
+            n = free;
+        }
+        float speedRange = e.maxSpeed - e.minSpeed;
+        int lifeRange = e.maxLife - e.minLife + 1;
+        for (int k = 0; k < n; k++) {
+            int i = count++;
+            float a = e.angle + e.spread * (2 * random() - 1);
+            float speed = e.minSpeed + speedRange * random();
+            x[i] = px + e.jitter * (2 * random() - 1);
+            y[i] = py + e.jitter * (2 * random() - 1);
+            vx[i] = (float) Math.cos(a) * speed;
+            vy[i] = (float) Math.sin(a) * speed;
+            age[i] = 0;
+            life[i] = e.minLife + (int) (lifeRange * random());
+            emitter[i] = (short) e.id;
+        }
+    }
+
+    // give an emitter its slot in this system's table the first time it is used
+    private void register(ParticleEmitter e) {
+        if (e.id >= 0 && e.id < emitterCount && emitters[e.id] == e) return;
+        for (int i = 0; i < emitterCount; i++) {
+            if (emitters[i] == e) {
+                e.id = i;
+                return;
+            }
+        }
+        if (emitterCount == MAX_EMITTERS) throw new IllegalStateException("too many particle emitters");
+        e.id = emitterCount;
+        emitters[emitterCount++] = e;
+    }
+
+    // uniform in [0, 1)
+    private float random() {
+        int s = seed;
+        s ^= s << 13;
+        s ^= s >>> 17;
+        s ^= s << 5;
+        seed = s;
+        return (s >>> 8) * 0x1.0p-24f;
+    }
+}
@@ -1,15 +1,13 @@
 import java.awt.*;
-import java.awt.image.*;
 import java.io.*;
-import javax.imageio.ImageIO;
 
 public class PlayerStatus {
     GamePanel gp;
-    public BufferedImage currentImage;
-    public final BufferedImage[] upAnimation = new BufferedImage[4];
-    public final BufferedImage[] downAnimation = new BufferedImage[4];
-    public final BufferedImage[] rightAnimation = new BufferedImage[4];
-    public final BufferedImage[] leftAnimation = new BufferedImage[4];
+    public Sprite currentImage;
+    public final Sprite[] upAnimation = new Sprite[4];
+    public final Sprite[] downAnimation = new Sprite[4];
+    public final Sprite[] rightAnimation = new Sprite[4];
+    public final Sprite[] leftAnimation = new Sprite[4];
     int playerSizeW;
     int playerSizeH;
 
@@ -17,6 +15,13 @@ public class PlayerStatus {
     public int maxHealth = 100;
     public int currentHealth = 100;
 
+    private static final Color BAR_BACKGROUND = new Color(50, 50, 50);
+    private static final Color BAR_HEALTH = new Color(0, 200, 0);
+    private static final BasicStroke BAR_BORDER = new BasicStroke(2);
+    // "current/max", laid out again only when the numbers change
+    private final TextLine healthText = new TextLine(GlyphAtlas.get(new Font("Arial", Font.BOLD, 12), Color.WHITE));
+    private int shownHealth = -1, shownMaxHealth = -1;
+
     public PlayerStatus(GamePanel gp) {
         this.gp = gp;
         LoadPlayerSprite();
@@ -25,32 +30,35 @@ public class PlayerStatus {
     private void LoadPlayerSprite() {
         for (int i = 0; i < 4; i++) {
             try {
-                currentImage = ImageIO.read(new File("res\\entities\\player\\felis_Down1.png"));
-                upAnimation[i] = ImageIO.read(new File("res\\entities\\player\\felis_Up" + (i + 1) + ".png"));
-                downAnimation[i] = ImageIO.read(new File("res\\entities\\player\\felis_Down" + (i + 1) + ".png"));
-                leftAnimation[i] = ImageIO.read(new File("res\\entities\\player\\felis_Left" + (i + 1) + ".png"));
-                rightAnimation[i] = ImageIO.read(new File("res\\entities\\player\\felis_Right" + (i + 1) + ".png"));
-                playerSizeW = currentImage.getWidth();
-                playerSizeH = currentImage.getHeight();
-                // center character to gamepanel on start
+                upAnimation[i] = AssetManager.loadSprite("res\\entities\\player\\felis_Up" + (i + 1) + ".png");
+                downAnimation[i] = AssetManager.loadSprite("res\\entities\\player\\felis_Down" + (i + 1) + ".png");
+                leftAnimation[i] = AssetManager.loadSprite("res\\entities\\player\\felis_Left" + (i + 1) + ".png");
+                rightAnimation[i] = AssetManager.loadSprite("res\\entities\\player\\felis_Right" + (i + 1) + ".png");
             } catch (IOException e) {
                 e.printStackTrace();
             }
         }
+        // collision uses the unscaled frame size; the frames are scaled per zoom level when drawn
+        if (downAnimation[0] != null) {
+            playerSizeW = downAnimation[0].getWidth();
+            playerSizeH = downAnimation[0].getHeight();
+        }
+        // start facing down; felis_Down1 is shared with downAnimation[0]
+        currentImage = downAnimation[0];
     }
 
-    public void draw(Graphics g) {
+    void drawSprite(Renderer r) {
         // draw player image (collision box visualization removed)
         if (currentImage != null) {
-            g.drawImage(currentImage, gp.playerX, gp.playerY, playerSizeW*2, playerSizeH*2, null);
+            // same rounding as the camera offset the tiles are drawn with
+            int x = gp.toScreen(gp.drawMapX + gp.drawPlayerX) - gp.toScreen(gp.drawMapX);
+            int y = gp.toScreen(gp.drawMapY + gp.drawPlayerY) - gp.toScreen(gp.drawMapY);
+            r.drawSprite(gp.zoomedSprites.get(currentImage, gp.getZoom()), x, y);
         }
-
-        // draw health indicator
-        drawHealthBar(g);
     }
 
-    private void drawHealthBar(Graphics g) {
-        Graphics2D g2d = (Graphics2D) g;
+    void drawHealthBar(Renderer r) {
+        Graphics2D g2d = (Graphics2D) r.getGraphics();
         int healthBarWidth = 150;
         int healthBarHeight = 20;
         int x = 10;
@@ -58,24 +66,27 @@ public class PlayerStatus {
         int borderThickness = 2;
 
         // Draw background (dark)
-        g2d.setColor(new Color(50, 50, 50));
+        g2d.setColor(BAR_BACKGROUND);
         g2d.fillRect(x, y, healthBarWidth, healthBarHeight);
 
         // Draw health (green)
         float healthPercent = (float) currentHealth / maxHealth;
         int healthWidth = (int) (healthBarWidth * healthPercent);
-        g2d.setColor(new Color(0, 200, 0));
+        g2d.setColor(BAR_HEALTH);
         g2d.fillRect(x + borderThickness, y + borderThickness, healthWidth - 2 * borderThickness,
                 healthBarHeight - 2 * borderThickness);
 
         // Draw border
         g2d.setColor(Color.WHITE);
-        g2d.setStroke(new java.awt.BasicStroke(borderThickness));
+        g2d.setStroke(BAR_BORDER);
         g2d.drawRect(x, y, healthBarWidth, healthBarHeight);
 
         // Draw health text
-        g2d.setColor(Color.WHITE);
-        g2d.setFont(new Font("Arial", Font.BOLD, 12));
-        g2d.drawString(currentHealth + "/" + maxHealth, x + 5, y + 15);
+        if (currentHealth != shownHealth || maxHealth != shownMaxHealth) {
+            shownHealth = currentHealth;
+            shownMaxHealth = maxHealth;
+            healthText.setText(currentHealth + "/" + maxHealth);
+        }
+        healthText.draw(r, x + 5, y + 15);
     }
 }
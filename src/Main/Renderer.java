@@ -0,0 +1,59 @@
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.image.BufferedImage;
+
+/**
+ * What the overworld draws through: the tile map, NPCs and the player only ever blit
+ * images and fill rectangles, so that is all a backend has to provide.
+ * Java2DRenderer forwards to a Graphics; SoftwareRenderer writes into its own int[]
+ * framebuffer. Anything else (text, rounded boxes) goes through getGraphics().
+ */
+public interface Renderer {
+    void drawImage(BufferedImage img, int x, int y);
+
+    // stretched to w x h
+    void drawImage(BufferedImage img, int x, int y, int w, int h);
+
+    void drawSprite(Sprite sprite, int x, int y);
+
+    // stretched to w x h (see Sprite.draw)
+    void drawSprite(Sprite sprite, int x, int y, int w, int h);
+
+    // drawSprite with every colour pulled towards tint by amount/255 (alpha kept), e.g. a hit flash
+    void drawSpriteTinted(Sprite sprite, int x, int y, Color tint, int amount);
+
+    void fillRect(Color color, int x, int y, int w, int h);
+
+    /**
+     * Scale what is already drawn under (x, y, w, h) towards black: level 255 leaves it,
+     * 0 makes it black. For darkening the game behind an overlay.
+     */
+    void fade(int x, int y, int w, int h, int level);
+
+    /**
+     * Fill n squares at once: square i has its top-left corner at (x[i], y[i]), side
+     * size[i] and colour argb[i] (blended by its alpha). For particles, where one
+     * fillRect per square costs far more than the pixels it touches.
+     */
+    void fillSquares(int[] x, int[] y, int[] size, int[] argb, int n);
+
+    /**
+     * Multiply what is already drawn under (x, y, w, h) by light, an opaque image stretched
+     * smoothly (bilinear) over that rectangle: white keeps the pixel, black darkens it fully.
+     */
+    default void multiply(BufferedImage light, int x, int y, int w, int h) {
+        multiply(light, 0, 0, light.getWidth(), light.getHeight(), x, y, w, h);
+    }
+
+    /**
+     * multiply() with only the (sx, sy, sw, sh) region of light, for a light or fog image
+     * larger than the screen; passing the region instead of a subimage lets a backend keep
+     * what it derived from the image between frames.
+     */
+    void multiply(BufferedImage light, int sx, int sy, int sw, int sh, int x, int y, int w, int h);
+
+    /**
+     * A Graphics drawing into the same target, for text and shapes.
+     */
+    Graphics getGraphics();
+}
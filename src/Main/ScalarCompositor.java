@@ -0,0 +1,104 @@
+import java.util.Arrays;
+
+/**
+ * Plain Java Compositor, one pixel at a time. Red and blue are processed together
+ * in one int (0x00RR00BB) and green on its own, so a pixel costs two multiplies per
+ * operand instead of three. Also handles the leftover tail of VectorCompositor's runs.
+ */
+public class ScalarCompositor extends Compositor {
+    @Override
+    public String getName() {
+        return "scalar";
+    }
+
+    @Override
+    public void blend(int[] src, int srcPos, int[] dst, int dstPos, int length, boolean premultiplied) {
+        for (int i = 0; i < length; i++) {
+            int s = src[srcPos + i];
+            int a = s >>> 24;
+            if (a == 0) continue;
+            dst[dstPos + i] = a == 255 ? s | 0xff000000 : blendPixel(s, dst[dstPos + i], a, premultiplied);
+        }
+    }
+
+    @Override
+    public void blendTinted(int[] src, int srcPos, int[] dst, int dstPos, int length, boolean premultiplied,
+                            int tintRgb, int amount) {
+        for (int i = 0; i < length; i++) {
+            int s = src[srcPos + i];
+            int a = s >>> 24;
+            if (a == 0) continue;
+            s = tintPixel(s, a, premultiplied, tintRgb, amount);
+            dst[dstPos + i] = blendPixel(s, dst[dstPos + i], a, premultiplied);
+        }
+    }
+
+    @Override
+    public void fill(int argb, int[] dst, int dstPos, int length) {
+        int a = argb >>> 24;
+        if (a == 0) return;
+        if (a == 255) {
+            Arrays.fill(dst, dstPos, dstPos + length, argb);
+            return;
+        }
+        int ia = 255 - a;
+        int rb = (argb & 0xff00ff) * a;
+        int g = ((argb >>> 8) & 0xff) * a;
+        for (int i = dstPos; i < dstPos + length; i++) {
+            int d = dst[i];
+            dst[i] = 0xff000000 | div255x2(rb + (d & 0xff00ff) * ia) | (div255x2(g + ((d >>> 8) & 0xff) * ia) << 8);
+        }
+    }
+
+    @Override
+    public void fade(int[] dst, int dstPos, int length, int level) {
+        for (int i = dstPos; i < dstPos + length; i++) {
+            dst[i] = fadePixel(dst[i], level);
+        }
+    }
+
+    @Override
+    public void multiply(int[] src, int srcPos, int[] dst, int dstPos, int length) {
+        for (int i = 0; i < length; i++) {
+            dst[dstPos + i] = multiplyPixel(dst[dstPos + i], src[srcPos + i]);
+        }
+    }
+
+    static int blendPixel(int s, int d, int a, boolean premultiplied) {
+        int ia = 255 - a;
+        int rb, g;
+        if (premultiplied) {
+            rb = (s & 0xff00ff) + div255x2((d & 0xff00ff) * ia);
+            g = ((s >>> 8) & 0xff) + div255x2(((d >>> 8) & 0xff) * ia);
+        } else {
+            rb = div255x2((s & 0xff00ff) * a + (d & 0xff00ff) * ia);
+            g = div255x2(((s >>> 8) & 0xff) * a + ((d >>> 8) & 0xff) * ia);
+        }
+        return 0xff000000 | rb | (g << 8);
+    }
+
+    static int tintPixel(int s, int a, boolean premultiplied, int tintRgb, int amount) {
+        int tRb = tintRgb & 0xff00ff;
+        int tG = (tintRgb >>> 8) & 0xff;
+        if (premultiplied) {
+            // the tint has to be premultiplied by this pixel's alpha too
+            tRb = div255x2(tRb * a);
+            tG = div255x2(tG * a);
+        }
+        int keep = 255 - amount;
+        int rb = div255x2((s & 0xff00ff) * keep + tRb * amount);
+        int g = div255x2(((s >>> 8) & 0xff) * keep + tG * amount);
+        return (a << 24) | rb | (g << 8);
+    }
+
+    static int fadePixel(int d, int level) {
+        return 0xff000000 | div255x2((d & 0xff00ff) * level) | (div255x2(((d >>> 8) & 0xff) * level) << 8);
+    }
+
+    static int multiplyPixel(int d, int s) {
+        // each product is at most 255 * 255, so red and blue still share one int
+        int rb = (((d >>> 16) & 0xff) * ((s >>> 16) & 0xff)) << 16 | (d & 0xff) * (s & 0xff);
+        int g = ((d >>> 8) & 0xff) * ((s >>> 8) & 0xff);
+        return 0xff000000 | div255x2(rb) | (div255x2(g) << 8);
+    }
+}
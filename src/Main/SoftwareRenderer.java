@@ -0,0 +1,325 @@
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Renderer that draws the overworld into a plain int[] framebuffer with its own
+ * blitters (row copies for opaque images, a Compositor blend otherwise) and presents
+ * it with a single drawImage per frame. Java2D is then only asked to copy one opaque
+ * image, so the frame cost no longer depends on whether the pipeline accelerates
+ * translucent blits or falls back to its generic software loops.
+ *
+ * Source pixels are read straight out of INT_ARGB / INT_ARGB_PRE / INT_RGB images
+ * (which stops Java2D from caching those images in video memory) and other formats
+ * are converted once; either way an image must not change after it was first drawn.
+ * Enable with --software or -Dgame.softwareRenderer=true.
+ */
+public class SoftwareRenderer implements Renderer {
+    private final BufferedImage frame;
+    private final int[] pixels;
+    private final int width;
+    private final int height;
+
+    // destination clip for this frame, [x1, x2) x [y1, y2)
+    private int clipX1, clipY1, clipX2, clipY2;
+    private Graphics2D graphics;
+
+    private final Map<BufferedImage, Pixels> sources = new WeakHashMap<>();
+    private final Compositor compositor = Compositor.get();
+    // one destination row of resampled source pixels for scaled draws
+    private final int[] scratch;
+    // bilinear multiply(): source column and weight per destination column, and every source row
+    // stretched to the destination width (the light image is tiny, so this is a few rows per frame)
+    private final int[] lerpColumn;
+    private final int[] lerpWeight;
+    private int[] lightRows = new int[0];
+
+    // an image's pixels as ARGB ints
+    private static final class Pixels {
+        int[] data;
+        int offset;
+        int scanline;
+        boolean premultiplied;
+        boolean opaque;
+    }
+
+    public SoftwareRenderer(int width, int height) {
+        this.width = width;
+        this.height = height;
+        frame = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        pixels = ((DataBufferInt) frame.getRaster().getDataBuffer()).getData();
+        scratch = new int[width];
+        lerpColumn = new int[width];
+        lerpWeight = new int[width];
+        clipX2 = width;
+        clipY2 = height;
+    }
+
+    /**
+     * Start a frame. Only pixels inside clip (the damaged area being repainted, or
+     * null for everything) are written; the rest of the framebuffer keeps last frame.
+     */
+    public SoftwareRenderer begin(Rectangle clip) {
+        clipX1 = 0;
+        clipY1 = 0;
+        clipX2 = width;
+        clipY2 = height;
+        if (clip != null) {
+            clipX1 = Math.max(0, clip.x);
+            clipY1 = Math.max(0, clip.y);
+            clipX2 = Math.min(width, clip.x + clip.width);
+            clipY2 = Math.min(height, clip.y + clip.height);
+        }
+        return this;
+    }
+
+    /**
+     * Copy the finished framebuffer to the screen.
+     */
+    public void present(Graphics g) {
+        if (graphics != null) {
+            graphics.dispose();
+            graphics = null;
+        }
+        g.drawImage(frame, 0, 0, null);
+    }
+
+    @Override
+    public void drawImage(BufferedImage img, int x, int y) {
+        blit(img, 0, 0, img.getWidth(), img.getHeight(), x, y, img.getWidth(), img.getHeight());
+    }
+
+    @Override
+    public void drawImage(BufferedImage img, int x, int y, int w, int h) {
+        blit(img, 0, 0, img.getWidth(), img.getHeight(), x, y, w, h);
+    }
+
+    @Override
+    public void drawSprite(Sprite s, int x, int y) {
+        blit(s.image, s.srcX, s.srcY, s.srcWidth, s.srcHeight,
+            x + s.offsetX, y + s.offsetY, s.srcWidth, s.srcHeight);
+    }
+
+    @Override
+    public void drawSprite(Sprite s, int x, int y, int w, int h) {
+        // same placement as Sprite.draw(g, x, y, w, h)
+        int dx1 = x + s.offsetX * w / s.width;
+        int dy1 = y + s.offsetY * h / s.height;
+        int dx2 = x + (s.offsetX + s.srcWidth) * w / s.width;
+        int dy2 = y + (s.offsetY + s.srcHeight) * h / s.height;
+        blit(s.image, s.srcX, s.srcY, s.srcWidth, s.srcHeight, dx1, dy1, dx2 - dx1, dy2 - dy1);
+    }
+
+    @Override
+    public void drawSpriteTinted(Sprite s, int x, int y, Color tint, int amount) {
+        int dx = x + s.offsetX;
+        int dy = y + s.offsetY;
+        int x1 = Math.max(dx, clipX1);
+        int y1 = Math.max(dy, clipY1);
+        int x2 = Math.min(dx + s.srcWidth, clipX2);
+        int y2 = Math.min(dy + s.srcHeight, clipY2);
+        if (x1 >= x2 || y1 >= y2) return;
+        Pixels src = pixelsOf(s.image);
+        int rgb = tint.getRGB() & 0xffffff;
+        for (int row = y1; row < y2; row++) {
+            int sp = src.offset + (s.srcY + row - dy) * src.scanline + s.srcX + (x1 - dx);
+            compositor.blendTinted(src.data, sp, pixels, row * width + x1, x2 - x1, src.premultiplied, rgb, amount);
+        }
+    }
+
+    @Override
+    public void fillRect(Color color, int x, int y, int w, int h) {
+        int x1 = Math.max(x, clipX1);
+        int y1 = Math.max(y, clipY1);
+        int x2 = Math.min(x + w, clipX2);
+        int y2 = Math.min(y + h, clipY2);
+        if (x1 >= x2 || y1 >= y2) return;
+        int argb = color.getRGB();
+        if (x1 == 0 && x2 == width) {
+            // full rows are contiguous: one run for the whole rectangle
+            compositor.fill(argb, pixels, y1 * width, (y2 - y1) * width);
+            return;
+        }
+        for (int row = y1; row < y2; row++) {
+            compositor.fill(argb, pixels, row * width + x1, x2 - x1);
+        }
+    }
+
+    @Override
+    public void fade(int x, int y, int w, int h, int level) {
+        int x1 = Math.max(x, clipX1);
+        int y1 = Math.max(y, clipY1);
+        int x2 = Math.min(x + w, clipX2);
+        int y2 = Math.min(y + h, clipY2);
+        if (x1 >= x2 || y1 >= y2) return;
+        if (x1 == 0 && x2 == width) {
+            compositor.fade(pixels, y1 * width, (y2 - y1) * width, level);
+            return;
+        }
+        for (int row = y1; row < y2; row++) {
+            compositor.fade(pixels, row * width + x1, x2 - x1, level);
+        }
+    }
+
+    @Override
+    public void fillSquares(int[] x, int[] y, int[] size, int[] argb, int n) {
+        for (int i = 0; i < n; i++) {
+            int x1 = Math.max(x[i], clipX1);
+            int y1 = Math.max(y[i], clipY1);
+            int x2 = Math.min(x[i] + size[i], clipX2);
+            int y2 = Math.min(y[i] + size[i], clipY2);
+            if (x1 >= x2 || y1 >= y2) continue;
+            for (int row = y1; row < y2; row++) {
+                compositor.fill(argb[i], pixels, row * width + x1, x2 - x1);
+            }
+        }
+    }
+
+    @Override
+    public void multiply(BufferedImage light, int sx0, int sy0, int sw, int sh, int x, int y, int w, int h) {
+        int x1 = Math.max(x, clipX1);
+        int y1 = Math.max(y, clipY1);
+        int x2 = Math.min(x + w, clipX2);
+        int y2 = Math.min(y + h, clipY2);
+        if (x1 >= x2 || y1 >= y2 || sw <= 0 || sh <= 0) return;
+        Pixels src = pixelsOf(light);
+        int n = x2 - x1;
+        if (lightRows.length < sh * n) lightRows = new int[sh * n];
+
+        // bilinear between source pixel centres, in 1/256ths of a source pixel:
+        // stretch each source row horizontally once, then blend two of them per destination row
+        for (int i = 0; i < n; i++) {
+            int fx = sample(x1 + i - x, w, sw);
+            lerpColumn[i] = fx >> 8;
+            lerpWeight[i] = fx & 0xff;
+        }
+        for (int sy = 0; sy < sh; sy++) {
+            int line = src.offset + (sy0 + sy) * src.scanline + sx0;
+            int out = sy * n;
+            for (int i = 0; i < n; i++) {
+                int sx = lerpColumn[i];
+                int right = sx + 1 < sw ? sx + 1 : sx;
+                lightRows[out + i] = lerp(src.data[line + sx], src.data[line + right], lerpWeight[i]);
+            }
+        }
+        for (int row = y1; row < y2; row++) {
+            int fy = sample(row - y, h, sh);
+            int sy = fy >> 8;
+            int wy = fy & 0xff;
+            int top = sy * n;
+            if (wy == 0 || sy + 1 >= sh) {
+                compositor.multiply(lightRows, top, pixels, row * width + x1, n);
+                continue;
+            }
+            int bottom = top + n;
+            for (int i = 0; i < n; i++) {
+                scratch[i] = lerp(lightRows[top + i], lightRows[bottom + i], wy);
+            }
+            compositor.multiply(scratch, 0, pixels, row * width + x1, n);
+        }
+    }
+
+    // source position (x 256) of destination pixel d's centre when size s is stretched to dSize
+    private static int sample(int d, int dSize, int s) {
+        int f = (int) (((2L * d + 1) * s * 256) / (2L * dSize)) - 128;
+        return Math.max(0, Math.min(f, (s - 1) << 8));
+    }
+
+    // a + (b - a) * w / 256 on the RGB channels, w in 0..255
+    private static int lerp(int a, int b, int w) {
+        int rb = ((a & 0xff00ff) * (256 - w) + (b & 0xff00ff) * w) >>> 8;
+        int g = ((a & 0xff00) * (256 - w) + (b & 0xff00) * w) >>> 8;
+        return (rb & 0xff00ff) | (g & 0xff00);
+    }
+
+    @Override
+    public Graphics getGraphics() {
+        if (graphics == null) {
+            graphics = frame.createGraphics();
+            graphics.clipRect(clipX1, clipY1, clipX2 - clipX1, clipY2 - clipY1);
+        }
+        return graphics;
+    }
+
+    // copy region (sx, sy, sw, sh) of img to (dx, dy, dw, dh) of the framebuffer
+    private void blit(BufferedImage img, int sx, int sy, int sw, int sh, int dx, int dy, int dw, int dh) {
+        if (sw <= 0 || sh <= 0 || dw <= 0 || dh <= 0) return;
+        int x1 = Math.max(dx, clipX1);
+        int y1 = Math.max(dy, clipY1);
+        int x2 = Math.min(dx + dw, clipX2);
+        int y2 = Math.min(dy + dh, clipY2);
+        if (x1 >= x2 || y1 >= y2) return;
+
+        Pixels src = pixelsOf(img);
+        int[] data = src.data;
+        int n = x2 - x1;
+        if (dw == sw && dh == sh) {
+            for (int y = y1; y < y2; y++) {
+                int s = src.offset + (sy + y - dy) * src.scanline + sx + (x1 - dx);
+                int d = y * width + x1;
+                if (src.opaque) {
+                    System.arraycopy(data, s, pixels, d, n);
+                } else {
+                    compositor.blend(data, s, pixels, d, n, src.premultiplied);
+                }
+            }
+            return;
+        }
+
+        // nearest neighbour, sampling source pixel centres like drawImage does
+        for (int y = y1; y < y2; y++) {
+            int srcY = sy + (int) (((2L * (y - dy) + 1) * sh) / (2L * dh));
+            int srcRow = src.offset + srcY * src.scanline + sx;
+            int[] row = src.opaque ? pixels : scratch;
+            int base = src.opaque ? y * width : -x1;
+            for (int x = x1; x < x2; x++) {
+                int srcX = (int) (((2L * (x - dx) + 1) * sw) / (2L * dw));
+                row[base + x] = data[srcRow + srcX];
+            }
+            if (!src.opaque) compositor.blend(scratch, 0, pixels, y * width + x1, n, src.premultiplied);
+        }
+    }
+
+    private Pixels pixelsOf(BufferedImage img) {
+        Pixels p = sources.get(img);
+        if (p != null) return p;
+
+        p = new Pixels();
+        int type = img.getType();
+        WritableRaster raster = img.getRaster();
+        if ((type == BufferedImage.TYPE_INT_ARGB || type == BufferedImage.TYPE_INT_ARGB_PRE
+                || type == BufferedImage.TYPE_INT_RGB)
+                && raster.getDataBuffer() instanceof DataBufferInt db
+                && raster.getSampleModel() instanceof SinglePixelPackedSampleModel sm) {
+            p.data = db.getData();
+            p.scanline = sm.getScanlineStride();
+            p.offset = db.getOffset() - raster.getSampleModelTranslateY() * p.scanline
+                - raster.getSampleModelTranslateX();
+            p.premultiplied = type == BufferedImage.TYPE_INT_ARGB_PRE;
+        } else {
+            int w = img.getWidth();
+            p.data = img.getRGB(0, 0, w, img.getHeight(), null, 0, w);
+            p.scanline = w;
+        }
+        p.opaque = type == BufferedImage.TYPE_INT_RGB || isOpaque(p, img.getWidth(), img.getHeight());
+        sources.put(img, p);
+        return p;
+    }
+
+    private static boolean isOpaque(Pixels p, int w, int h) {
+        for (int y = 0; y < h; y++) {
+            int row = p.offset + y * p.scanline;
+            for (int x = 0; x < w; x++) {
+                if ((p.data[row + x] >>> 24) != 255) return false;
+            }
+        }
+        return true;
+    }
+}
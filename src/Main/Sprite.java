@@ -0,0 +1,178 @@
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.Raster;
+import java.awt.image.WritableRaster;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * One animation frame: a rectangle of a source image plus where that rectangle sits
+ * inside the original (untrimmed) frame.
+ * Frames packed by AtlasPacker share one atlas page and have their transparent border
+ * cut off; loose images are a Sprite covering the whole image. Callers keep working in
+ * untrimmed frame coordinates, e.g. a combat effect is still "drawn at 0,0 as 800x600".
+ */
+public class Sprite {
+    final BufferedImage image;
+    // region of image holding the pixels
+    final int srcX, srcY, srcWidth, srcHeight;
+    // position of that region inside the untrimmed frame
+    final int offsetX, offsetY;
+    // untrimmed frame size
+    final int width, height;
+
+    public Sprite(BufferedImage image, int srcX, int srcY, int srcWidth, int srcHeight,
+                  int offsetX, int offsetY, int width, int height) {
+        this.image = image;
+        this.srcX = srcX;
+        this.srcY = srcY;
+        this.srcWidth = srcWidth;
+        this.srcHeight = srcHeight;
+        this.offsetX = offsetX;
+        this.offsetY = offsetY;
+        this.width = width;
+        this.height = height;
+    }
+
+    // a Sprite covering a whole standalone image
+    public static Sprite of(BufferedImage image) {
+        if (image == null) return null;
+        return new Sprite(image, 0, 0, image.getWidth(), image.getHeight(), 0, 0, image.getWidth(), image.getHeight());
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public BufferedImage getImage() {
+        return image;
+    }
+
+    /**
+     * A copy of this frame cut down to the bounding box of its non-transparent pixels,
+     * with the cut recorded in the offsets so it still draws in the same place.
+     * The copy owns its pixels (same pixel format as the source), so the untrimmed image
+     * can be dropped afterwards. A fully transparent frame becomes an empty Sprite.
+     */
+    public Sprite trimmed() {
+        if (srcWidth == 0 || srcHeight == 0) return this;
+        Raster alpha = image.getAlphaRaster();
+        int minX = srcWidth, minY = srcHeight, maxX = -1, maxY = -1;
+        if (alpha != null) {
+            int[] row = new int[srcWidth];
+            for (int y = 0; y < srcHeight; y++) {
+                alpha.getSamples(srcX, srcY + y, srcWidth, 1, 0, row);
+                for (int x = 0; x < srcWidth; x++) {
+                    if (row[x] != 0) {
+                        if (x < minX) minX = x;
+                        if (x > maxX) maxX = x;
+                        if (y < minY) minY = y;
+                        maxY = y;
+                    }
+                }
+            }
+        } else {
+            // no alpha channel (or an indexed image): go through the colour model
+            for (int y = 0; y < srcHeight; y++) {
+                for (int x = 0; x < srcWidth; x++) {
+                    if ((image.getRGB(srcX + x, srcY + y) >>> 24) != 0) {
+                        if (x < minX) minX = x;
+                        if (x > maxX) maxX = x;
+                        if (y < minY) minY = y;
+                        maxY = y;
+                    }
+                }
+            }
+        }
+        if (maxX < 0) return new Sprite(image, 0, 0, 0, 0, 0, 0, width, height);
+
+        int w = maxX - minX + 1;
+        int h = maxY - minY + 1;
+        ColorModel cm = image.getColorModel();
+        WritableRaster raster = cm.createCompatibleWritableRaster(w, h);
+        image.getSubimage(srcX + minX, srcY + minY, w, h).copyData(raster);
+        BufferedImage copy = new BufferedImage(cm, raster, cm.isAlphaPremultiplied(), null);
+        return new Sprite(copy, 0, 0, w, h, offsetX + minX, offsetY + minY, width, height);
+    }
+
+    /**
+     * A palette-swapped variant of this frame. The image must be indexed (see
+     * PaletteImages); the variant shares its pixels and only gets a new palette.
+     */
+    public Sprite recolored(IntUnaryOperator recolor) {
+        return new Sprite(PaletteImages.withPalette(image, recolor),
+            srcX, srcY, srcWidth, srcHeight, offsetX, offsetY, width, height);
+    }
+
+    /**
+     * A copy of this frame resampled once to drawWidth x drawHeight, so that drawing it
+     * at display size is a plain unscaled blit instead of a scale on every frame.
+     * The copy owns a compatible image of just its pixels (it no longer shares the atlas page).
+     */
+    public Sprite scaled(int drawWidth, int drawHeight) {
+        if (drawWidth == width && drawHeight == height) return this;
+        int dx1 = offsetX * drawWidth / width;
+        int dy1 = offsetY * drawHeight / height;
+        int dx2 = (offsetX + srcWidth) * drawWidth / width;
+        int dy2 = (offsetY + srcHeight) * drawHeight / height;
+        if (dx2 <= dx1 || dy2 <= dy1) {
+            // nothing visible left at this size
+            return new Sprite(image, 0, 0, 0, 0, 0, 0, drawWidth, drawHeight);
+        }
+        BufferedImage copy = AssetManager.createCompatibleImage(dx2 - dx1, dy2 - dy1);
+        Graphics2D g = copy.createGraphics();
+        // same sampling drawImage used when it scaled per frame
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+        g.drawImage(image, 0, 0, copy.getWidth(), copy.getHeight(),
+            srcX, srcY, srcX + srcWidth, srcY + srcHeight, null);
+        g.dispose();
+        return new Sprite(copy, 0, 0, copy.getWidth(), copy.getHeight(), dx1, dy1, drawWidth, drawHeight);
+    }
+
+    // scale every frame of an animation, keeping nulls (missing frames) as they are
+    public static Sprite[] scaleAll(Sprite[] frames, int drawWidth, int drawHeight) {
+        Sprite[] result = new Sprite[frames.length];
+        for (int i = 0; i < frames.length; i++) {
+            if (frames[i] != null) result[i] = frames[i].scaled(drawWidth, drawHeight);
+        }
+        return result;
+    }
+
+    /**
+     * Draw the frame at its original size with its top-left corner at (x, y).
+     */
+    public void draw(Graphics g, int x, int y) {
+        int dx = x + offsetX;
+        int dy = y + offsetY;
+        if (srcWidth == 0 || srcHeight == 0) return;
+        if (srcWidth == image.getWidth() && srcHeight == image.getHeight()) {
+            g.drawImage(image, dx, dy, null);
+            return;
+        }
+        g.drawImage(image, dx, dy, dx + srcWidth, dy + srcHeight,
+            srcX, srcY, srcX + srcWidth, srcY + srcHeight, null);
+    }
+
+    /**
+     * Draw the frame stretched to drawWidth x drawHeight with its top-left corner at (x, y).
+     * Scales on every call; frames drawn at a fixed size should be scaled() once at load.
+     */
+    public void draw(Graphics g, int x, int y, int drawWidth, int drawHeight) {
+        if (drawWidth == width && drawHeight == height) {
+            draw(g, x, y);
+            return;
+        }
+        int dx1 = x + offsetX * drawWidth / width;
+        int dy1 = y + offsetY * drawHeight / height;
+        int dx2 = x + (offsetX + srcWidth) * drawWidth / width;
+        int dy2 = y + (offsetY + srcHeight) * drawHeight / height;
+        g.drawImage(image, dx1, dy1, dx2, dy2,
+            srcX, srcY, srcX + srcWidth, srcY + srcHeight, null);
+    }
+}
@@ -0,0 +1,161 @@
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import javax.swing.SwingUtilities;
+
+/**
+ * Loads the game's subsystems in parallel while the menu is already on screen.
+ * Each subsystem (map, player, NPCs, inventory) is built on its own
+ * virtual thread and every Combat background and frame is resolved as a separate
+ * task (an atlas region, or a decode and trim into the AssetManager cache). When everything is done
+ * GamePanel.finishLoading runs on the EDT, joins the futures, builds Combat from the
+ * warm cache and wires up the UI and animations of the subsystems it joined.
+ *
+ * If a subsystem fails to load (a missing map, a bad image) loading still finishes, but
+ * with the failure kept: the menu shows it instead of the progress bar and the game
+ * can't be started.
+ */
+public class StartupLoader {
+    // System.nanoTime() at launch, set by Main
+    private static long launchTime = System.nanoTime();
+
+    private final GamePanel gp;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final List<CompletableFuture<?>> tasks = new ArrayList<>();
+    private final AtomicInteger completed = new AtomicInteger();
+    private final CountDownLatch done = new CountDownLatch(1);
+    // why loading failed, or null
+    private volatile Throwable failure;
+
+    CompletableFuture<TileManager> tiles;
+    CompletableFuture<PlayerStatus> player;
+    CompletableFuture<Entities> entities;
+    CompletableFuture<EnemyNPC> enemyNPC;
+    CompletableFuture<Inventory> inventory;
+
+    private long loadStart;
+    private long loadTime = -1;
+    private long firstFrameTime = -1;
+    private long firstLoadedFrameTime = -1;
+
+    public StartupLoader(GamePanel gp) {
+        this.gp = gp;
+    }
+
+    public static void markLaunch() {
+        launchTime = System.nanoTime();
+    }
+
+    public void start() {
+        loadStart = System.nanoTime();
+        tiles = submit(() -> new TileManager(gp));
+        player = submit(() -> new PlayerStatus(gp));
+        entities = submit(() -> new Entities(gp));
+        enemyNPC = submit(() -> new EnemyNPC(gp));
+        inventory = submit(() -> new Inventory(gp));
+        for (String path : Combat.backgroundPaths()) {
+            submit(() -> AssetManager.getImage(path));
+        }
+        for (String path : Combat.spritePaths()) {
+            submit(() -> {
+                try {
+                    return AssetManager.loadTrimmedSprite(path);
+                } catch (IOException e) {
+                    return null;
+                }
+            });
+        }
+
+        CompletableFuture.allOf(tasks.toArray(new CompletableFuture<?>[0])).whenComplete((result, error) -> {
+            executor.shutdown();
+            loadTime = System.nanoTime() - loadStart;
+            SwingUtilities.invokeLater(() -> {
+                try {
+                    if (error != null) fail(error);
+                    else gp.finishLoading();
+                } catch (RuntimeException e) {
+                    fail(e);
+                } finally {
+                    // awaitLoading() callers must never block forever
+                    done.countDown();
+                    gp.damage.markAllDirty();
+                }
+            });
+        });
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> task) {
+        CompletableFuture<T> future = CompletableFuture.supplyAsync(task, executor);
+        future.whenComplete((result, error) -> {
+            if (error != null) error.printStackTrace();
+            completed.incrementAndGet();
+            // progress bar lives on the menu
+            SwingUtilities.invokeLater(() -> gp.damage.markAllDirty());
+        });
+        tasks.add(future);
+        return future;
+    }
+
+    private void fail(Throwable error) {
+        if (error instanceof CompletionException && error.getCause() != null) error = error.getCause();
+        failure = error;
+        System.err.println("Startup: loading failed: " + error);
+        error.printStackTrace();
+    }
+
+    // fraction of loading tasks finished, 0..1
+    public float getProgress() {
+        if (tasks.isEmpty()) return 0f;
+        return completed.get() / (float) tasks.size();
+    }
+
+    // finished, whether or not it worked
+    public boolean isDone() {
+        return done.getCount() == 0;
+    }
+
+    // finished and every subsystem is there
+    public boolean isLoaded() {
+        return isDone() && failure == null;
+    }
+
+    public Throwable getFailure() {
+        return failure;
+    }
+
+    /**
+     * Block the calling thread (never the EDT) until the game is fully loaded.
+     * Throws IllegalStateException if loading failed.
+     */
+    public void await() {
+        try {
+            done.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        if (failure != null) throw new IllegalStateException("loading failed", failure);
+    }
+
+    /**
+     * Called for every drawn frame; records time-to-first-frame and time-to-first-loaded-frame.
+     */
+    public void onFrameDrawn() {
+        if (firstFrameTime < 0) {
+            firstFrameTime = System.nanoTime() - launchTime;
+            System.out.printf("Startup: first frame after %.0f ms%n", firstFrameTime / 1e6);
+        }
+        if (firstLoadedFrameTime < 0 && isLoaded()) {
+            firstLoadedFrameTime = System.nanoTime() - launchTime;
+            System.out.printf("Startup: loaded %d tasks in %.0f ms, first loaded frame after %.0f ms%n",
+                tasks.size(), loadTime / 1e6, firstLoadedFrameTime / 1e6);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+/**
+ * One line of text laid out once from a GlyphAtlas into its own image, for labels that
+ * are drawn every frame but only change now and then (HP readouts, the combat status
+ * line, dialogue). setText() with the same string does nothing, so a caller can hand it
+ * the current text each frame; drawing is then a single blit.
+ *
+ * The line is composed in a scratch image that is reused while the text fits, and kept
+ * as a copy trimmed to its inked pixels so the blit only blends what is visible.
+ */
+public class TextLine {
+    private final GlyphAtlas font;
+    private String text = "";
+    private BufferedImage image;
+    private Sprite line;
+    private int width = 0;
+
+    public TextLine(GlyphAtlas font) {
+        this.font = font;
+    }
+
+    public TextLine(GlyphAtlas font, String text) {
+        this(font);
+        this.text = text == null ? "" : text;
+        layout();
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public GlyphAtlas getFont() {
+        return font;
+    }
+
+    public void setText(String text) {
+        if (text == null) text = "";
+        if (text.equals(this.text)) return;
+        this.text = text;
+        layout();
+    }
+
+    private void layout() {
+        width = font.stringWidth(text);
+        if (width == 0) {
+            line = null;
+            return;
+        }
+        // glyph cells overhang their advance a little on both sides
+        int pad = font.getPadding();
+        int needed = width + 2 * pad;
+        if (image == null || image.getWidth() < needed) {
+            image = new BufferedImage(needed + needed / 2, font.getHeight(), BufferedImage.TYPE_INT_ARGB_PRE);
+        }
+        Graphics2D g = image.createGraphics();
+        g.setComposite(AlphaComposite.Clear);
+        g.fillRect(0, 0, image.getWidth(), image.getHeight());
+        g.setComposite(AlphaComposite.SrcOver);
+        int x = pad;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            font.glyph(c).draw(g, x, 0);
+            x += font.charWidth(c);
+        }
+        g.dispose();
+        // only the inked pixels get blended when the line is drawn
+        line = new Sprite(image, 0, 0, needed, image.getHeight(), -pad, 0, width, image.getHeight()).trimmed();
+    }
+
+    /**
+     * Draw the line with its baseline at y, like Graphics.drawString.
+     */
+    public void draw(Renderer r, int x, int y) {
+        if (line != null) r.drawSprite(line, x, y - font.getAscent());
+    }
+}
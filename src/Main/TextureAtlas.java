@@ -0,0 +1,77 @@
+import java.awt.image.BufferedImage;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Runtime side of the atlas built by AtlasPacker.
+ * Reads res/atlas/atlas.txt once and resolves frame names to regions of the atlas
+ * pages. Names are the image path under res/ without extension, lower case, with /
+ * separators, e.g. "entities/player/felis_down1".
+ */
+public final class TextureAtlas {
+    static final String ATLAS_DIR = "res/atlas";
+    static final String INDEX_FILE = "atlas.txt";
+
+    private static Map<String, Sprite> regions;
+
+    private TextureAtlas() {
+    }
+
+    /**
+     * The packed frame for an image path, or null when the atlas doesn't have it
+     * (no atlas built yet, or the image was left as a loose file).
+     */
+    public static Sprite find(String path) {
+        return index().get(nameOf(path));
+    }
+
+    public static int getRegionCount() {
+        return index().size();
+    }
+
+    // "res\\Entities\\Player\\felis_Down1.png" -> "entities/player/felis_down1"
+    static String nameOf(String path) {
+        String name = path.replace('\\', '/').toLowerCase(Locale.ROOT);
+        if (name.startsWith("./")) name = name.substring(2);
+        if (name.startsWith("res/")) name = name.substring(4);
+        int dot = name.lastIndexOf('.');
+        if (dot > name.lastIndexOf('/')) name = name.substring(0, dot);
+        return name;
+    }
+
+    private static synchronized Map<String, Sprite> index() {
+        if (regions != null) return regions;
+        regions = new HashMap<>();
+        File indexFile = new File(ATLAS_DIR, INDEX_FILE);
+        if (!indexFile.exists()) return regions;
+
+        Map<String, BufferedImage> pages = new HashMap<>();
+        try (BufferedReader in = new BufferedReader(new FileReader(indexFile))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.isEmpty() || line.startsWith("#")) continue;
+                // name, page, x, y, w, h, offsetX, offsetY, sourceW, sourceH (tab separated, names may contain spaces)
+                String[] f = line.split("\t");
+                if (f.length < 10) continue;
+                BufferedImage page = pages.get(f[1]);
+                if (page == null) {
+                    page = AssetManager.loadImage(ATLAS_DIR + "/" + f[1]);
+                    pages.put(f[1], page);
+                }
+                regions.put(f[0], new Sprite(page,
+                    Integer.parseInt(f[2]), Integer.parseInt(f[3]), Integer.parseInt(f[4]), Integer.parseInt(f[5]),
+                    Integer.parseInt(f[6]), Integer.parseInt(f[7]), Integer.parseInt(f[8]), Integer.parseInt(f[9])));
+            }
+            System.out.println("TextureAtlas: " + regions.size() + " regions on " + pages.size() + " pages");
+        } catch (IOException | NumberFormatException e) {
+            System.out.println("TextureAtlas: failed to read " + indexFile.getPath() + " - " + e.getMessage());
+            regions.clear();
+        }
+        return regions;
+    }
+}
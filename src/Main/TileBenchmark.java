@@ -0,0 +1,108 @@
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+
+/**
+ * Times the overworld tile pass on forest.tmx with the old crop + scale draw
+ * (drawImage with 10 arguments straight from the tileset) against the
+ * pre-sliced, pre-scaled tile table, and against the chunk cache drawn through
+ * Java2D and through the SoftwareRenderer framebuffer (including its present).
+ * The last run zooms out to 1x, where four times as many tiles are on screen.
+ *
+ * To run (from the project root):
+ *   javac -d out src/Main/*.java
+ *   java -cp out TileBenchmark [frames]
+ */
+public class TileBenchmark {
+    private static final int WARMUP_FRAMES = 300;
+
+    public static void main(String[] args) {
+        int frames = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+
+        GamePanel gp = new GamePanel(null);
+        gp.awaitLoading();
+        TileManager tiles = gp.tiles;
+        if (tiles.layers.isEmpty()) {
+            // TileManager looks for Windows style paths first
+            tiles.loadMap(new File("res/maps/forest.tmx").getPath());
+        }
+        if (tiles.layers.isEmpty()) {
+            System.out.println("TileBenchmark: could not load res/maps/forest.tmx");
+            return;
+        }
+
+        BufferedImage frame = AssetManager.createCompatibleImage(gp.gamePanelSizeX, gp.gamePanelSizeY);
+        Graphics2D g = frame.createGraphics();
+
+        double sheet = run("tileset crop + scale", frames, gp, () -> drawCulled(g, gp, true));
+        double table = run("pre-sliced tile table", frames, gp, () -> drawCulled(g, gp, false));
+        Java2DRenderer java2d = new Java2DRenderer(g);
+        double chunks = run("chunk cache", frames, gp, () -> drawChunks(java2d, gp));
+        SoftwareRenderer software = new SoftwareRenderer(gp.gamePanelSizeX, gp.gamePanelSizeY);
+        double framebuffer = run("chunk cache, int[] fb", frames, gp, () -> {
+            drawChunks(software.begin(null), gp);
+            software.present(g);
+        });
+        gp.setZoom(1);
+        double zoomedOut = run("chunk cache, zoom 1x", frames, gp, () -> drawChunks(java2d, gp));
+        g.dispose();
+
+        System.out.printf("pre-sliced speedup: %.2fx, chunk cache speedup: %.2fx, framebuffer speedup: %.2fx%n",
+            sheet / table, sheet / chunks, sheet / framebuffer);
+        System.out.printf("zoom 1x costs %.2fx the zoom 2x chunk pass%n", zoomedOut / chunks);
+        System.exit(0);
+    }
+
+    // returns the average cost of one frame in microseconds
+    private static double run(String name, int frames, GamePanel gp, Runnable drawFrame) {
+        for (int i = 0; i < WARMUP_FRAMES; i++) {
+            pan(gp, i);
+            drawFrame.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < frames; i++) {
+            pan(gp, i);
+            drawFrame.run();
+        }
+        double avgMicros = (System.nanoTime() - start) / 1000.0 / frames;
+        System.out.printf("%-24s %8.1f us/frame%n", name, avgMicros);
+        return avgMicros;
+    }
+
+    // sweep the camera across the map so every frame draws a different window
+    private static void pan(GamePanel gp, int i) {
+        int maxX = gp.worldWidth() - gp.viewWidth();
+        int maxY = gp.worldHeight() - gp.viewHeight();
+        gp.mapX = (i * 7) % Math.max(1, maxX);
+        gp.mapY = (i * 5) % Math.max(1, maxY);
+    }
+
+    private static void drawChunks(Renderer r, GamePanel gp) {
+        gp.tiles.chunkCache.draw(r, gp.getZoom(), gp.toScreen(gp.mapX), gp.toScreen(gp.mapY),
+            gp.gamePanelSizeX, gp.gamePanelSizeY);
+    }
+
+    // same culled loop as TileManager.draw with the chunk cache turned off
+    private static void drawCulled(Graphics2D g, GamePanel gp, boolean fromSheet) {
+        TileManager tiles = gp.tiles;
+        int zoom = gp.getZoom();
+        int scaledSize = gp.tileSize * zoom;
+        int camX = gp.toScreen(gp.mapX);
+        int camY = gp.toScreen(gp.mapY);
+        BufferedImage[] table = tiles.tileTable(zoom);
+        for (int[][] layer : tiles.layers) {
+            int firstCol = Math.max(0, camX / scaledSize - tiles.cullMargin);
+            int firstRow = Math.max(0, camY / scaledSize - tiles.cullMargin);
+            int lastCol = Math.min(layer[0].length - 1, (camX + gp.gamePanelSizeX) / scaledSize + tiles.cullMargin);
+            int lastRow = Math.min(layer.length - 1, (camY + gp.gamePanelSizeY) / scaledSize + tiles.cullMargin);
+            for (int y = firstRow; y <= lastRow; y++) {
+                for (int x = firstCol; x <= lastCol; x++) {
+                    int dx = x * scaledSize - camX;
+                    int dy = y * scaledSize - camY;
+                    if (fromSheet) tiles.drawTileFromSheet(g, zoom, layer[y][x], dx, dy);
+                    else tiles.drawTile(g, table, layer[y][x], dx, dy);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,186 @@
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Caches the static ground layers as pre-rendered chunk images.
+ * Each chunk is about CHUNK_PIXELS square on screen at the zoom level it was rendered
+ * for (16 x 16 tiles at zoom 2, 32 x 32 at zoom 1) and is only rendered the first time
+ * the camera needs it. Chunks of every zoom level share one memory budget; least
+ * recently used chunks are dropped once the cache grows past it.
+ */
+public class TileChunkCache {
+    public static final int CHUNK_PIXELS = 1024;
+
+    private final TileManager tiles;
+    // access-ordered so iteration starts at the least recently drawn chunk
+    private final LinkedHashMap<Long, BufferedImage> chunks = new LinkedHashMap<>(16, 0.75f, true);
+    private long memoryBudget;
+    private long memoryUsed = 0;
+    // per zoom level, the chunk keys holding an animated tile (the rest never change on their own)
+    private long[][] animatedChunks = new long[GamePanel.MAX_ZOOM + 1][0];
+
+    public TileChunkCache(TileManager tiles, long memoryBudgetBytes) {
+        this.tiles = tiles;
+        this.memoryBudget = memoryBudgetBytes;
+    }
+
+    public void setMemoryBudget(long bytes) {
+        this.memoryBudget = bytes;
+        evict(null);
+    }
+
+    public long getMemoryBudget() {
+        return memoryBudget;
+    }
+
+    public long getMemoryUsed() {
+        return memoryUsed;
+    }
+
+    public int getChunkCount() {
+        return chunks.size();
+    }
+
+    /**
+     * Draw every chunk that overlaps the viewport (camX, camY, viewW, viewH are screen pixels at zoom).
+     */
+    public void draw(Renderer r, int zoom, int camX, int camY, int viewW, int viewH) {
+        int chunkTiles = chunkTiles(zoom);
+        int chunkPixels = chunkTiles * tiles.gp.tileSize * zoom;
+        int chunkCols = (tiles.getMapWidth() + chunkTiles - 1) / chunkTiles;
+        int chunkRows = (tiles.getMapHeight() + chunkTiles - 1) / chunkTiles;
+        int firstCx = Math.max(0, Math.floorDiv(camX, chunkPixels));
+        int firstCy = Math.max(0, Math.floorDiv(camY, chunkPixels));
+        int lastCx = Math.min(chunkCols - 1, Math.floorDiv(camX + viewW - 1, chunkPixels));
+        int lastCy = Math.min(chunkRows - 1, Math.floorDiv(camY + viewH - 1, chunkPixels));
+        for (int cy = firstCy; cy <= lastCy; cy++) {
+            for (int cx = firstCx; cx <= lastCx; cx++) {
+                BufferedImage chunk = getChunk(zoom, cx, cy);
+                r.drawImage(chunk, cx * chunkPixels - camX, cy * chunkPixels - camY);
+            }
+        }
+    }
+
+    /**
+     * Drop the chunks containing the given tile (at every zoom level) so they are
+     * re-rendered next time they are drawn.
+     */
+    public void invalidateTile(int tileX, int tileY) {
+        for (int zoom = GamePanel.MIN_ZOOM; zoom <= GamePanel.MAX_ZOOM; zoom++) {
+            int chunkTiles = chunkTiles(zoom);
+            BufferedImage old = chunks.remove(key(zoom, tileX / chunkTiles, tileY / chunkTiles));
+            if (old != null) memoryUsed -= bytesOf(old);
+        }
+    }
+
+    /**
+     * Remember which cells (ty * mapWidth + tx) hold animated tiles, so that an animation
+     * step only drops the chunks containing them.
+     */
+    public void setAnimatedCells(int[] cells) {
+        int mapWidth = tiles.getMapWidth();
+        for (int zoom = GamePanel.MIN_ZOOM; zoom <= GamePanel.MAX_ZOOM; zoom++) {
+            int z = zoom;
+            int chunkTiles = chunkTiles(zoom);
+            animatedChunks[zoom] = Arrays.stream(cells)
+                .mapToLong(c -> key(z, (c % mapWidth) / chunkTiles, (c / mapWidth) / chunkTiles))
+                .distinct().toArray();
+        }
+    }
+
+    /**
+     * An animated tile moved to its next frame: drop the chunks holding animated tiles
+     * and repaint the ones on screen.
+     */
+    public void invalidateAnimated() {
+        for (int zoom = GamePanel.MIN_ZOOM; zoom <= GamePanel.MAX_ZOOM; zoom++) {
+            for (long key : animatedChunks[zoom]) {
+                BufferedImage old = chunks.remove(key);
+                if (old != null) memoryUsed -= bytesOf(old);
+            }
+        }
+        GamePanel gp = tiles.gp;
+        int zoom = gp.getZoom();
+        int chunkPixels = chunkTiles(zoom) * gp.tileSize * zoom;
+        int camX = gp.toScreen(gp.drawMapX);
+        int camY = gp.toScreen(gp.drawMapY);
+        for (long key : animatedChunks[zoom]) {
+            int cx = (int) ((key >>> 24) & 0xffffff);
+            int cy = (int) (key & 0xffffff);
+            int x = cx * chunkPixels - camX;
+            int y = cy * chunkPixels - camY;
+            if (x >= gp.gamePanelSizeX || y >= gp.gamePanelSizeY || x + chunkPixels <= 0 || y + chunkPixels <= 0) continue;
+            gp.damage.markDirty(x, y, chunkPixels, chunkPixels);
+        }
+    }
+
+    public void invalidateAll() {
+        chunks.clear();
+        memoryUsed = 0;
+    }
+
+    private BufferedImage getChunk(int zoom, int cx, int cy) {
+        Long key = key(zoom, cx, cy);
+        BufferedImage chunk = chunks.get(key);
+        if (chunk != null) return chunk;
+
+        chunk = renderChunk(zoom, cx, cy);
+        chunks.put(key, chunk);
+        memoryUsed += bytesOf(chunk);
+        evict(key);
+        return chunk;
+    }
+
+    private BufferedImage renderChunk(int zoom, int cx, int cy) {
+        int scaledSize = tiles.gp.tileSize * zoom;
+        int chunkTiles = chunkTiles(zoom);
+        int firstCol = cx * chunkTiles;
+        int firstRow = cy * chunkTiles;
+        int cols = Math.min(chunkTiles, tiles.getMapWidth() - firstCol);
+        int rows = Math.min(chunkTiles, tiles.getMapHeight() - firstRow);
+        BufferedImage[] table = tiles.tileTable(zoom);
+        BufferedImage chunk = AssetManager.createCompatibleImage(cols * scaledSize, rows * scaledSize);
+        Graphics2D g = chunk.createGraphics();
+        for (int li = 0; li < tiles.layers.size(); li++) {
+            // trees and boulders are drawn by the DepthSorter, interleaved with the sprites
+            if (tiles.isDepthLayer(li)) continue;
+            int[][] layer = tiles.layers.get(li);
+            for (int y = 0; y < rows; y++) {
+                int[] row = layer[firstRow + y];
+                for (int x = 0; x < cols; x++) {
+                    tiles.drawTile(g, table, row[firstCol + x], x * scaledSize, y * scaledSize);
+                }
+            }
+        }
+        g.dispose();
+        return chunk;
+    }
+
+    // remove least recently used chunks until we are back under budget (never the one just added)
+    private void evict(Long keep) {
+        Iterator<Map.Entry<Long, BufferedImage>> it = chunks.entrySet().iterator();
+        while (memoryUsed > memoryBudget && it.hasNext()) {
+            Map.Entry<Long, BufferedImage> e = it.next();
+            if (e.getKey().equals(keep)) continue;
+            memoryUsed -= bytesOf(e.getValue());
+            it.remove();
+        }
+    }
+
+    // map tiles along each side of a chunk at this zoom
+    private int chunkTiles(int zoom) {
+        return Math.max(1, CHUNK_PIXELS / (tiles.gp.tileSize * zoom));
+    }
+
+    private static Long key(int zoom, int cx, int cy) {
+        return ((long) zoom << 48) | ((long) (cx & 0xffffff) << 24) | (cy & 0xffffff);
+    }
+
+    private static long bytesOf(BufferedImage img) {
+        return (long) img.getWidth() * img.getHeight() * 4;
+    }
+}
@@ -1,14 +1,18 @@
 import java.awt.Graphics;
+import java.awt.Graphics2D;
 import java.awt.Point;
 import java.awt.Rectangle;
+import java.awt.RenderingHints;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import javax.imageio.ImageIO;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import org.w3c.dom.Document;
@@ -17,7 +21,25 @@ import org.w3c.dom.NodeList;
 
 public final class TileManager {
     GamePanel gp;
-    public static final int SCALE = 2;
+    // world units per map pixel. Positions, speeds and collision boxes in GamePanel are in
+    // world units and don't depend on the camera zoom (screen pixels per map pixel);
+    // at the default zoom one world unit is one screen pixel
+    public static final int WORLD_SCALE = 2;
+    // zoom levels whose scaled tile tables are kept alongside the native one
+    private static final int CACHED_ZOOM_LEVELS = 2;
+    // extra tiles drawn past each edge of the viewport (avoids popping while the camera scrolls)
+    public int cullMargin = 1;
+    // static layers are drawn from pre-rendered chunks when enabled
+    public boolean useChunkCache = true;
+    TileChunkCache chunkCache = new TileChunkCache(this, 64L * 1024 * 1024);
+    // whole-map overview for the HUD, built from the layers below
+    Minimap minimap = new Minimap(this);
+    // day/night and point lights from the spawnPoints objects
+    LightMap lightMap = new LightMap(this);
+    // which tiles the player has seen, per map
+    FogOfWar fog = new FogOfWar(this);
+    // the tall layers and the sprites, drawn in order of foot Y
+    DepthSorter depthSorter = new DepthSorter(this);
 
     // TMX / tileset data
     BufferedImage tilesetImage;
@@ -25,6 +47,22 @@ public final class TileManager {
     int tilesetTileHeight;
     int tilesetColumns;
     int tilesetFirstGid = 1;
+    // gid-indexed tiles, cut out of tilesetImage once at map size (zoom 1)
+    BufferedImage[] tileImages = new BufferedImage[0];
+    // the same tables scaled up for other zoom levels, most recently used last
+    private final LinkedHashMap<Integer, BufferedImage[]> zoomedTiles = new LinkedHashMap<>(4, 0.75f, true);
+
+    // <animation> frame lists from the tileset: the animated gids, each one's frame gids and
+    // the time (ms into the loop) each frame ends, and the loop length
+    private int[] animGids = new int[0];
+    private int[][] animFrames = new int[0][];
+    private int[][] animFrameEnds = new int[0][];
+    private int[] animLoopMs = new int[0];
+    private boolean[] animated = new boolean[0];
+    // gid -> the gid to draw right now; identity for static tiles, updated once per tick
+    int[] tileFrame = new int[0];
+    // whether any animated tile sits in a depth-sorted layer (those aren't in the chunks)
+    private boolean depthLayersAnimate = false;
 
     // layers: each layer is int[height][width] with gids
     List<int[][]> layers = new ArrayList<>();
@@ -88,7 +126,7 @@ public final class TileManager {
 
     public void loadTileSprite() {
         try {
-            fallbackGrass = ImageIO.read(new File("res\\maps\\tiles\\grass1.png"));
+            fallbackGrass = AssetManager.loadImage("res\\maps\\tiles\\grass1.png");
         } catch (IOException e) {
             e.printStackTrace();
         }
@@ -139,8 +177,10 @@ public final class TileManager {
             Element imageEl = (Element) imageNodes.item(0);
             String imgSrc = imageEl.getAttribute("source");
             File imgFile = new File(tilesetBaseFile.getParentFile(), imgSrc);
-            tilesetImage = ImageIO.read(imgFile);
+            tilesetImage = AssetManager.loadImage(imgFile.getPath());
             tilesetColumns = tilesetImage.getWidth() / tilesetTileWidth;
+            sliceTileset();
+            readAnimations(tileset);
 
             // read layers
             NodeList layerNodes = doc.getElementsByTagName("layer");
@@ -255,6 +295,11 @@ public final class TileManager {
                 }
             }
 
+            minimap.invalidate();
+            lightMap.invalidate();
+            fog.mapLoaded(tmxPath);
+            depthSorter.invalidate();
+            findAnimatedCells();
             return true;
         } catch (Exception e) {
             System.err.println("TileManager.loadMap failed for: " + tmxPath + " -> " + e.getMessage());
@@ -262,42 +307,266 @@ public final class TileManager {
         }
     }
 
-    public void draw(Graphics g) {
+    public void draw(Renderer r) {
         gp.entitiesCollision();
 
-        if (tilesetImage != null && !layers.isEmpty()) {
+        int zoom = gp.getZoom();
+        // the camera's top-left corner in screen pixels at this zoom
+        int camX = gp.toScreen(gp.drawMapX);
+        int camY = gp.toScreen(gp.drawMapY);
+        int scaledSize = gp.tileSize * zoom;
+        if (tilesetImage != null && !layers.isEmpty() && useChunkCache) {
+            chunkCache.draw(r, zoom, camX, camY, gp.gamePanelSizeX, gp.gamePanelSizeY);
+        } else if (tilesetImage != null && !layers.isEmpty()) {
+            BufferedImage[] table = tileTable(zoom);
             for (int li = 0; li < layers.size(); li++) {
+                if (isDepthLayer(li)) continue;
                 int[][] layer = layers.get(li);
                 int height = layer.length;
                 int width = layer[0].length;
-                for (int y = 0; y < height; y++) {
-                    for (int x = 0; x < width; x++) {
-                        int gid = layer[y][x];
-                        if (gid == 0) continue;
-                        int localId = gid - tilesetFirstGid;
-                        if (localId < 0) continue;
-                        int sx = (localId % tilesetColumns) * tilesetTileWidth;
-                        int sy = (localId / tilesetColumns) * tilesetTileHeight;
-                        int dx = (x * gp.tileSize * SCALE) - gp.mapX;
-                        int dy = (y * gp.tileSize * SCALE) - gp.mapY;
-                        int scaledSize = gp.tileSize * SCALE;
-                        g.drawImage(tilesetImage, dx, dy, dx + scaledSize, dy + scaledSize,
-                            sx, sy, sx + tilesetTileWidth, sy + tilesetTileHeight, null);
+                // only walk the tiles the camera can see (plus cullMargin on every side)
+                int firstCol = Math.max(0, Math.floorDiv(camX, scaledSize) - cullMargin);
+                int firstRow = Math.max(0, Math.floorDiv(camY, scaledSize) - cullMargin);
+                int lastCol = Math.min(width - 1, Math.floorDiv(camX + gp.gamePanelSizeX, scaledSize) + cullMargin);
+                int lastRow = Math.min(height - 1, Math.floorDiv(camY + gp.gamePanelSizeY, scaledSize) + cullMargin);
+                for (int y = firstRow; y <= lastRow; y++) {
+                    for (int x = firstCol; x <= lastCol; x++) {
+                        drawTile(r, table, layer[y][x], (x * scaledSize) - camX, (y * scaledSize) - camY);
                     }
                 }
             }
         } else {
-            for (int row = 0; row < gp.tileRow; row++) {
-                for (int col = 0; col < gp.tileCol; col++) {
+            int firstCol = Math.max(0, Math.floorDiv(camX, scaledSize) - cullMargin);
+            int firstRow = Math.max(0, Math.floorDiv(camY, scaledSize) - cullMargin);
+            int lastCol = Math.min(gp.tileCol - 1, Math.floorDiv(camX + gp.gamePanelSizeX, scaledSize) + cullMargin);
+            int lastRow = Math.min(gp.tileRow - 1, Math.floorDiv(camY + gp.gamePanelSizeY, scaledSize) + cullMargin);
+            for (int row = firstRow; row <= lastRow; row++) {
+                for (int col = firstCol; col <= lastCol; col++) {
                     if (fallbackGrass != null) {
-                        g.drawImage(fallbackGrass, (col * gp.tileSize) - gp.mapX, (row * gp.tileSize) - gp.mapY,
-                            gp.tileSize, gp.tileSize, null);
+                        r.drawImage(fallbackGrass, (col * scaledSize) - camX, (row * scaledSize) - camY,
+                            scaledSize, scaledSize);
                     }
                 }
             }
         }
     }
 
+    /**
+     * Cut every tile out of the tileset image once at map size, so drawing a tile
+     * is a plain 1:1 blit instead of a crop + scale. Other zoom levels are scaled
+     * from this table on demand, see tileTable().
+     */
+    private void sliceTileset() {
+        int rows = tilesetImage.getHeight() / tilesetTileHeight;
+        int tileCount = tilesetColumns * rows;
+        tileImages = new BufferedImage[tilesetFirstGid + tileCount];
+        for (int localId = 0; localId < tileCount; localId++) {
+            int sx = (localId % tilesetColumns) * tilesetTileWidth;
+            int sy = (localId / tilesetColumns) * tilesetTileHeight;
+            tileImages[tilesetFirstGid + localId] = scaleTile(tilesetImage, sx, sy, tilesetTileWidth, tilesetTileHeight, gp.tileSize);
+        }
+        zoomedTiles.clear();
+    }
+
+    /**
+     * The gid-indexed tile table for a zoom level, every tile already tileSize * zoom
+     * pixels square. Built from the native table the first time a zoom level is drawn;
+     * only the CACHED_ZOOM_LEVELS most recently used levels are kept.
+     */
+    BufferedImage[] tileTable(int zoom) {
+        if (zoom == 1) return tileImages;
+        BufferedImage[] table = zoomedTiles.get(zoom);
+        if (table != null) return table;
+
+        int scaledSize = gp.tileSize * zoom;
+        table = new BufferedImage[tileImages.length];
+        for (int gid = 0; gid < tileImages.length; gid++) {
+            BufferedImage tile = tileImages[gid];
+            if (tile != null) table[gid] = scaleTile(tile, 0, 0, tile.getWidth(), tile.getHeight(), scaledSize);
+        }
+        zoomedTiles.put(zoom, table);
+        Iterator<Integer> it = zoomedTiles.keySet().iterator();
+        while (zoomedTiles.size() > CACHED_ZOOM_LEVELS) {
+            it.next();
+            it.remove();
+        }
+        return table;
+    }
+
+    // <tile id="..."><animation><frame tileid="..." duration="ms"/>... children of the tileset
+    private void readAnimations(Element tileset) {
+        List<int[]> frames = new ArrayList<>();
+        List<int[]> ends = new ArrayList<>();
+        List<Integer> gids = new ArrayList<>();
+        NodeList tileNodes = tileset.getElementsByTagName("tile");
+        for (int t = 0; t < tileNodes.getLength(); t++) {
+            Element tileEl = (Element) tileNodes.item(t);
+            NodeList animNodes = tileEl.getElementsByTagName("animation");
+            if (animNodes.getLength() == 0) continue;
+            NodeList frameNodes = ((Element) animNodes.item(0)).getElementsByTagName("frame");
+            int n = frameNodes.getLength();
+            if (n == 0) continue;
+            int[] frameGids = new int[n];
+            int[] frameEnds = new int[n];
+            int time = 0;
+            try {
+                for (int f = 0; f < n; f++) {
+                    Element frameEl = (Element) frameNodes.item(f);
+                    frameGids[f] = tilesetFirstGid + Integer.parseInt(frameEl.getAttribute("tileid"));
+                    time += Math.max(1, Integer.parseInt(frameEl.getAttribute("duration")));
+                    frameEnds[f] = time;
+                }
+                int gid = tilesetFirstGid + Integer.parseInt(tileEl.getAttribute("id"));
+                if (gid >= tileImages.length || Arrays.stream(frameGids).anyMatch(g -> g >= tileImages.length)) continue;
+                gids.add(gid);
+                frames.add(frameGids);
+                ends.add(frameEnds);
+            } catch (NumberFormatException ex) {
+                System.err.println("TileManager: bad animation on tile " + tileEl.getAttribute("id"));
+            }
+        }
+        animGids = gids.stream().mapToInt(Integer::intValue).toArray();
+        animFrames = frames.toArray(new int[0][]);
+        animFrameEnds = ends.toArray(new int[0][]);
+        animLoopMs = new int[animGids.length];
+        animated = new boolean[tileImages.length];
+        tileFrame = new int[tileImages.length];
+        for (int gid = 0; gid < tileFrame.length; gid++) {
+            tileFrame[gid] = gid;
+        }
+        for (int a = 0; a < animGids.length; a++) {
+            animLoopMs[a] = animFrameEnds[a][animFrameEnds[a].length - 1];
+            animated[animGids[a]] = true;
+            tileFrame[animGids[a]] = animFrames[a][0];
+        }
+    }
+
+    // tell the chunk cache which ground cells animate; depth layers are redrawn every frame anyway
+    private void findAnimatedCells() {
+        depthLayersAnimate = false;
+        if (animGids.length == 0) {
+            chunkCache.setAnimatedCells(new int[0]);
+            return;
+        }
+        int width = getMapWidth();
+        int[] cells = new int[64];
+        int count = 0;
+        for (int li = 0; li < layers.size(); li++) {
+            int[][] layer = layers.get(li);
+            boolean depth = isDepthLayer(li);
+            for (int y = 0; y < layer.length; y++) {
+                for (int x = 0; x < layer[y].length; x++) {
+                    int gid = layer[y][x];
+                    if (!isAnimated(gid)) continue;
+                    if (depth) {
+                        depthLayersAnimate = true;
+                        continue;
+                    }
+                    if (count == cells.length) cells = Arrays.copyOf(cells, count * 2);
+                    cells[count++] = y * width + x;
+                }
+            }
+        }
+        chunkCache.setAnimatedCells(Arrays.copyOf(cells, count));
+    }
+
+    /**
+     * Move every animated tile to its frame for this point on the game clock. Called once
+     * per tick; the cost is one pass over the animated gids, not over the map.
+     */
+    public void updateAnimations(long ticks) {
+        if (animGids.length == 0) return;
+        long ms = ticks * GameClock.TICK_NANOS / 1_000_000L;
+        boolean changed = false;
+        for (int a = 0; a < animGids.length; a++) {
+            int time = (int) (ms % animLoopMs[a]);
+            int[] ends = animFrameEnds[a];
+            int f = 0;
+            while (ends[f] <= time) f++;
+            int frame = animFrames[a][f];
+            if (tileFrame[animGids[a]] != frame) {
+                tileFrame[animGids[a]] = frame;
+                changed = true;
+            }
+        }
+        if (!changed) return;
+        chunkCache.invalidateAnimated();
+        if (depthLayersAnimate) gp.damage.markAllDirty();
+    }
+
+    // nearest neighbour copy of one source tile at size x size
+    private static BufferedImage scaleTile(BufferedImage src, int sx, int sy, int sw, int sh, int size) {
+        BufferedImage tile = AssetManager.createCompatibleImage(size, size);
+        Graphics2D g = tile.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+        g.drawImage(src, 0, 0, size, size, sx, sy, sx + sw, sy + sh, null);
+        g.dispose();
+        return tile;
+    }
+
+    // draw a single tile gid from a tileTable() with its top-left corner at (dx, dy)
+    // gid is the map's gid; animated tiles are drawn with their current frame
+    void drawTile(Graphics g, BufferedImage[] table, int gid, int dx, int dy) {
+        if (gid <= 0 || gid >= table.length) return;
+        BufferedImage tile = table[tileFrame[gid]];
+        if (tile != null) g.drawImage(tile, dx, dy, null);
+    }
+
+    void drawTile(Renderer r, BufferedImage[] table, int gid, int dx, int dy) {
+        if (gid <= 0 || gid >= table.length) return;
+        BufferedImage tile = table[tileFrame[gid]];
+        if (tile != null) r.drawImage(tile, dx, dy);
+    }
+
+    // old per-draw crop + scale straight from the tileset image (kept for TileBenchmark)
+    void drawTileFromSheet(Graphics g, int zoom, int gid, int dx, int dy) {
+        if (gid == 0) return;
+        int localId = gid - tilesetFirstGid;
+        if (localId < 0) return;
+        int sx = (localId % tilesetColumns) * tilesetTileWidth;
+        int sy = (localId / tilesetColumns) * tilesetTileHeight;
+        int scaledSize = gp.tileSize * zoom;
+        g.drawImage(tilesetImage, dx, dy, dx + scaledSize, dy + scaledSize,
+            sx, sy, sx + tilesetTileWidth, sy + tilesetTileHeight, null);
+    }
+
+    /**
+     * Change a single cell of a layer at runtime. Invalidates the cached chunk holding it.
+     */
+    public void setTile(int layerIndex, int x, int y, int gid) {
+        if (layerIndex < 0 || layerIndex >= layers.size()) return;
+        int[][] layer = layers.get(layerIndex);
+        if (y < 0 || y >= layer.length || x < 0 || x >= layer[0].length) return;
+        if (layer[y][x] == gid) return;
+        boolean animationChanged = isAnimated(layer[y][x]) || isAnimated(gid);
+        layer[y][x] = gid;
+        if (animationChanged) findAnimatedCells();
+        if (isDepthLayer(layerIndex)) {
+            depthSorter.invalidate();
+        } else {
+            chunkCache.invalidateTile(x, y);
+        }
+        minimap.tileChanged(x, y);
+    }
+
+    public boolean isAnimated(int gid) {
+        return gid > 0 && gid < animated.length && animated[gid];
+    }
+
+    /**
+     * Whether a layer holds tall objects drawn by the DepthSorter rather than with the ground.
+     */
+    public boolean isDepthLayer(int layerIndex) {
+        return DepthSorter.DEPTH_LAYERS.contains(layerNames.get(layerIndex).toLowerCase());
+    }
+
+    public int getTile(int layerIndex, int x, int y) {
+        if (layerIndex < 0 || layerIndex >= layers.size()) return 0;
+        int[][] layer = layers.get(layerIndex);
+        if (y < 0 || y >= layer.length || x < 0 || x >= layer[0].length) return 0;
+        return layer[y][x];
+    }
+
     public List<Rectangle> getMapCollisions() {
         return mapCollisions;
     }
@@ -0,0 +1,68 @@
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A treasure on the overworld, placed by a TMX object of type "treasure" with an optional
+ * item property (what goes into the inventory, "Treasure" by default). It sparkles until
+ * the player walks over it; then it bursts, the item is added and any light standing on
+ * the same spot (the treasure's glow) is put out.
+ */
+public class Treasure {
+    // half the side of the square the player has to touch, in map pixels
+    private static final int PICKUP_RADIUS = 12;
+    private static final ParticleEmitter SPARKLE = ParticleEmitter.treasureSparkle();
+    private static final ParticleEmitter BURST = ParticleEmitter.treasureBurst();
+
+    // map pixels
+    public final int x;
+    public final int y;
+    public final String item;
+    private boolean collected = false;
+    // trail slot of the sparkle, -1 when not running
+    private int sparkle = -1;
+
+    public Treasure(int x, int y, String item) {
+        this.x = x;
+        this.y = y;
+        this.item = item;
+    }
+
+    public static List<Treasure> fromSpawnPoints(List<TileManager.SpawnPoint> spawnPoints) {
+        List<Treasure> treasures = new ArrayList<>();
+        for (TileManager.SpawnPoint sp : spawnPoints) {
+            if (!"treasure".equalsIgnoreCase(sp.type) && !"treasure".equalsIgnoreCase(sp.clazz)) continue;
+            treasures.add(new Treasure(sp.x, sp.y, sp.props.getOrDefault("item", "Treasure")));
+        }
+        return treasures;
+    }
+
+    public boolean isCollected() {
+        return collected;
+    }
+
+    public void startSparkle(ParticleSystem particles) {
+        if (!collected && sparkle < 0) sparkle = particles.startTrail(SPARKLE, x, y, -1);
+    }
+
+    /**
+     * Pick the treasure up if the player is standing on it. Returns true when it was picked up.
+     */
+    public boolean checkPickup(GamePanel gp) {
+        if (collected || gp.ps == null) return false;
+        Rectangle player = new Rectangle(gp.playerWorldX / TileManager.WORLD_SCALE,
+            gp.playerWorldY / TileManager.WORLD_SCALE, gp.ps.playerSizeW, gp.ps.playerSizeH);
+        if (!player.intersects(x - PICKUP_RADIUS, y - PICKUP_RADIUS, 2 * PICKUP_RADIUS, 2 * PICKUP_RADIUS)) return false;
+        // a full inventory leaves the treasure where it is
+        if (gp.inventory != null && !gp.inventory.addItem(item)) return false;
+        collected = true;
+        gp.particles.stopTrail(sparkle);
+        sparkle = -1;
+        gp.particles.emit(BURST, x, y);
+        LightMap lights = gp.tiles.lightMap;
+        for (LightMap.Light light : new ArrayList<>(lights.getLights())) {
+            if (light.x == x && light.y == y) lights.removeLight(light);
+        }
+        return true;
+    }
+}
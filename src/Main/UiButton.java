@@ -0,0 +1,84 @@
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Graphics2D;
+
+/**
+ * A clickable, focusable button. With a background colour it is a filled box with a
+ * border and centred text; without one it is transparent and only shows hover and focus,
+ * for buttons that are already part of the artwork behind them (the menu screen).
+ */
+public class UiButton extends UiWidget {
+    private static final Color HOVER = new Color(255, 255, 255, 60);
+    private static final Color DISABLED = new Color(0, 0, 0, 110);
+    private static final Color FOCUS = new Color(255, 215, 0);
+    private static final BasicStroke BORDER_STROKE = new BasicStroke(2);
+
+    private final GlyphAtlas font;
+    private final Color background;
+    private final Runnable action;
+    private String text;
+    private Color border = Color.BLACK;
+
+    public UiButton(int x, int y, int width, int height, String text, GlyphAtlas font, Color background, Runnable action) {
+        super(x, y, width, height);
+        this.text = text == null ? "" : text;
+        this.font = font;
+        this.background = background;
+        this.action = action;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public void setText(String text) {
+        if (text == null) text = "";
+        if (text.equals(this.text)) return;
+        this.text = text;
+        invalidate();
+    }
+
+    public void setBorder(Color border) {
+        if (border.equals(this.border)) return;
+        this.border = border;
+        invalidate();
+    }
+
+    @Override
+    public boolean isFocusable() {
+        return true;
+    }
+
+    @Override
+    protected void paint(Graphics2D g, Renderer r) {
+        if (background != null) {
+            g.setColor(background);
+            g.fillRect(0, 0, width, height);
+            g.setColor(border);
+            g.setStroke(BORDER_STROKE);
+            g.drawRect(1, 1, width - 2, height - 2);
+        }
+        if (font != null && !text.isEmpty()) {
+            int tx = (width - font.stringWidth(text)) / 2;
+            int ty = (height - font.getHeight()) / 2 + font.getAscent();
+            font.draw(r, text, tx, ty);
+        }
+        if (!isEnabled()) {
+            g.setColor(DISABLED);
+            g.fillRect(0, 0, width, height);
+        } else if (hovered) {
+            g.setColor(HOVER);
+            g.fillRect(0, 0, width, height);
+        }
+        if (showFocus()) {
+            g.setColor(FOCUS);
+            g.setStroke(BORDER_STROKE);
+            g.drawRect(3, 3, width - 6, height - 6);
+        }
+    }
+
+    @Override
+    protected void activate() {
+        if (isEnabled() && action != null) action.run();
+    }
+}
@@ -0,0 +1,135 @@
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.event.KeyEvent;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * A closed box showing the selected item; clicking it (or Enter/Space) opens the list
+ * below it. While open, Up and Down move the highlight, Enter or a click picks an item and
+ * Escape closes it. onChange is called with the new index whenever the selection changes.
+ */
+public class UiDropdown extends UiWidget {
+    private static final Color BACKGROUND = Color.WHITE;
+    private static final Color HIGHLIGHT = new Color(184, 207, 229);
+    private static final Color BORDER = Color.BLACK;
+    private static final Color FOCUS = new Color(255, 215, 0);
+    private static final BasicStroke STROKE = new BasicStroke(1);
+    private static final BasicStroke FOCUS_STROKE = new BasicStroke(2);
+
+    private final List<String> items;
+    private final GlyphAtlas font;
+    private final IntConsumer onChange;
+    private int selected = 0;
+    private int highlighted = 0;
+    private boolean open = false;
+
+    public UiDropdown(int x, int y, int width, int height, List<String> items, GlyphAtlas font, IntConsumer onChange) {
+        super(x, y, width, height);
+        this.items = List.copyOf(items);
+        this.font = font;
+        this.onChange = onChange;
+    }
+
+    public int getSelectedIndex() {
+        return selected;
+    }
+
+    public void setSelectedIndex(int index) {
+        if (index < 0 || index >= items.size() || index == selected) return;
+        selected = index;
+        invalidate();
+        if (onChange != null) onChange.accept(index);
+    }
+
+    public boolean isOpen() {
+        return open;
+    }
+
+    public void setOpen(boolean open) {
+        if (open == this.open) return;
+        // the list's area before closing and after opening
+        markDirty();
+        this.open = open;
+        highlighted = selected;
+        invalidate();
+    }
+
+    @Override
+    public boolean isFocusable() {
+        return true;
+    }
+
+    @Override
+    protected int paintHeight() {
+        return open ? height * (items.size() + 1) : height;
+    }
+
+    @Override
+    protected void paint(Graphics2D g, Renderer r) {
+        g.setStroke(STROKE);
+        int textY = (height - font.getHeight()) / 2 + font.getAscent();
+        g.setColor(BACKGROUND);
+        g.fillRect(0, 0, width, height);
+        g.setColor(BORDER);
+        g.drawRect(0, 0, width - 1, height - 1);
+        font.draw(r, items.get(selected), 6, textY);
+        // the arrow
+        int ax = width - height / 2 - 4;
+        int ay = height / 2 - 2;
+        g.fillPolygon(new int[] {ax - 4, ax + 4, ax}, new int[] {ay, ay, ay + 5}, 3);
+        if (showFocus()) {
+            g.setColor(FOCUS);
+            g.setStroke(FOCUS_STROKE);
+            g.drawRect(1, 1, width - 3, height - 3);
+            g.setStroke(STROKE);
+        }
+        if (!open) return;
+        for (int i = 0; i < items.size(); i++) {
+            int top = height * (i + 1);
+            g.setColor(i == highlighted ? HIGHLIGHT : BACKGROUND);
+            g.fillRect(0, top, width, height);
+            font.draw(r, items.get(i), 6, top + textY);
+        }
+        g.setColor(BORDER);
+        g.drawRect(0, height, width - 1, height * items.size() - 1);
+    }
+
+    @Override
+    protected void activate() {
+        if (open) setSelectedIndex(highlighted);
+        setOpen(!open);
+    }
+
+    @Override
+    protected void click(int px, int py) {
+        int row = (py - y) / height;
+        if (open && row > 0) {
+            setSelectedIndex(row - 1);
+            setOpen(false);
+        } else {
+            setOpen(!open);
+        }
+    }
+
+    @Override
+    protected boolean keyPressed(int code) {
+        if (!open) return false;
+        switch (code) {
+            case KeyEvent.VK_UP -> highlighted = Math.max(0, highlighted - 1);
+            case KeyEvent.VK_DOWN -> highlighted = Math.min(items.size() - 1, highlighted + 1);
+            case KeyEvent.VK_ESCAPE, KeyEvent.VK_TAB -> setOpen(false);
+            default -> {
+                return false;
+            }
+        }
+        invalidate();
+        return code != KeyEvent.VK_TAB;
+    }
+
+    @Override
+    protected void focusLost() {
+        setOpen(false);
+    }
+}
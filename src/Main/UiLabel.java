@@ -0,0 +1,69 @@
+import java.awt.Color;
+import java.awt.Graphics2D;
+
+/**
+ * Text in a box: word-wrapped to the label's width, on an optional rounded background.
+ * The text is laid out and painted once per change, so a caller can set the current
+ * text every frame.
+ */
+public class UiLabel extends UiWidget {
+    private static final int ARC = 10;
+    private static final int PAD = 10;
+
+    private final GlyphAtlas font;
+    private final Color background;
+    private String text = "";
+    private boolean centered = false;
+
+    public UiLabel(int x, int y, int width, int height, GlyphAtlas font, Color background) {
+        super(x, y, width, height);
+        this.font = font;
+        this.background = background;
+    }
+
+    // centre each line instead of starting it at the left edge
+    public UiLabel centered() {
+        centered = true;
+        invalidate();
+        return this;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public void setText(String text) {
+        if (text == null) text = "";
+        if (text.equals(this.text)) return;
+        this.text = text;
+        invalidate();
+    }
+
+    @Override
+    protected void paint(Graphics2D g, Renderer r) {
+        if (background != null) {
+            g.setColor(background);
+            g.fillRoundRect(0, 0, width, height, ARC, ARC);
+        }
+        int pad = background != null ? PAD : 0;
+        int maxWidth = width - 2 * pad;
+        int baseline = pad + font.getAscent();
+        // greedy wrap on spaces; a word wider than the box gets a line of its own
+        int start = 0;
+        while (start < text.length() && baseline - font.getAscent() < height) {
+            int lineEnd = text.indexOf(' ', start);
+            if (lineEnd < 0) lineEnd = text.length();
+            while (lineEnd < text.length()) {
+                int next = text.indexOf(' ', lineEnd + 1);
+                if (next < 0) next = text.length();
+                if (font.stringWidth(text.subSequence(start, next)) > maxWidth) break;
+                lineEnd = next;
+            }
+            CharSequence line = text.subSequence(start, lineEnd);
+            int lineX = centered ? (width - font.stringWidth(line)) / 2 : pad;
+            font.draw(r, line, lineX, baseline);
+            baseline += font.getHeight();
+            start = lineEnd + 1;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+import java.awt.event.KeyEvent;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One screen's widgets (Combat, Menu, Inventory): draws them in the order they were
+ * added, routes the mouse to the topmost widget under it and the keyboard to the focused
+ * one. Tab and the arrow keys move focus between focusable widgets, Enter and Space
+ * activate the focused one. Everything is drawn by the game, so there is no Swing
+ * component tree to lay out or keep in sync.
+ *
+ * Focus is only painted once the keyboard has been used to move it, so a mouse user
+ * never sees the ring.
+ */
+public class UiLayer {
+    private final List<UiWidget> widgets = new ArrayList<>();
+    // null for a layer drawn with the whole screen every frame
+    private final DamageTracker damage;
+    private UiWidget focused;
+    private UiWidget hovered;
+    private boolean focusVisible = false;
+
+    public UiLayer(DamageTracker damage) {
+        this.damage = damage;
+    }
+
+    public <W extends UiWidget> W add(W widget) {
+        widgets.add(widget);
+        widget.layer = this;
+        widget.invalidate();
+        return widget;
+    }
+
+    void markDirty(int x, int y, int width, int height) {
+        if (damage != null) damage.markDirty(x, y, width, height);
+    }
+
+    public void markAllDirty() {
+        for (UiWidget w : widgets) {
+            w.markDirty();
+        }
+    }
+
+    boolean isFocusVisible() {
+        return focusVisible;
+    }
+
+    public void draw(Renderer r) {
+        UiWidget overlay = null;
+        for (int i = 0; i < widgets.size(); i++) {
+            UiWidget w = widgets.get(i);
+            if (w instanceof UiDropdown d && d.isOpen()) overlay = d;
+            else w.draw(r);
+        }
+        // an open list goes over whatever was added after it
+        if (overlay != null) overlay.draw(r);
+    }
+
+    // topmost visible widget at (x, y): an open dropdown first, then the last added
+    private UiWidget widgetAt(int x, int y) {
+        for (UiWidget w : widgets) {
+            if (w instanceof UiDropdown d && d.isOpen() && d.contains(x, y)) return d;
+        }
+        for (int i = widgets.size() - 1; i >= 0; i--) {
+            UiWidget w = widgets.get(i);
+            if (w.contains(x, y)) return w;
+        }
+        return null;
+    }
+
+    /**
+     * Track the hovered widget. Returns true when the pointer is over something clickable,
+     * for the hand cursor.
+     */
+    public boolean mouseMoved(int x, int y) {
+        UiWidget w = widgetAt(x, y);
+        if (w != null && !w.isEnabled()) w = null;
+        if (w != hovered) {
+            if (hovered != null) {
+                hovered.hovered = false;
+                hovered.invalidate();
+            }
+            hovered = w;
+            if (w != null) {
+                w.hovered = true;
+                w.invalidate();
+            }
+        }
+        return w != null && w.isFocusable();
+    }
+
+    /**
+     * Click the widget under (x, y). Returns true when a widget took the click.
+     */
+    public boolean mouseClicked(int x, int y) {
+        UiWidget w = widgetAt(x, y);
+        // clicking anywhere else closes an open list
+        for (UiWidget other : widgets) {
+            if (other != w && other instanceof UiDropdown d && d.isOpen()) d.setOpen(false);
+        }
+        if (w == null || !w.isEnabled()) return false;
+        if (focusVisible) {
+            focusVisible = false;
+            if (focused != null) focused.invalidate();
+        }
+        if (w.isFocusable()) setFocus(w);
+        w.click(x, y);
+        return true;
+    }
+
+    /**
+     * Keyboard navigation. Returns true when the key was used.
+     */
+    public boolean keyPressed(int code, boolean shift) {
+        if (focused != null && focused.isVisible() && focused.isEnabled() && focused.keyPressed(code)) return true;
+        switch (code) {
+            case KeyEvent.VK_TAB -> moveFocus(shift ? -1 : 1);
+            case KeyEvent.VK_RIGHT, KeyEvent.VK_DOWN -> moveFocus(1);
+            case KeyEvent.VK_LEFT, KeyEvent.VK_UP -> moveFocus(-1);
+            case KeyEvent.VK_ENTER, KeyEvent.VK_SPACE -> {
+                if (focused == null || !focused.isVisible() || !focused.isEnabled()) return false;
+                focused.activate();
+            }
+            default -> {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public UiWidget getFocus() {
+        return focused;
+    }
+
+    public void setFocus(UiWidget w) {
+        if (w == focused) return;
+        if (focused != null) {
+            focused.focused = false;
+            focused.focusLost();
+            focused.invalidate();
+        }
+        focused = w;
+        if (w != null) {
+            w.focused = true;
+            w.invalidate();
+        }
+    }
+
+    // to the next (dir 1) or previous (dir -1) visible, enabled, focusable widget
+    private void moveFocus(int dir) {
+        if (!focusVisible) {
+            focusVisible = true;
+            // the first key press only shows where focus already is
+            if (focused != null && focused.isVisible() && focused.isEnabled()) {
+                focused.invalidate();
+                return;
+            }
+        }
+        int n = widgets.size();
+        int start = focused != null ? widgets.indexOf(focused) : (dir > 0 ? -1 : n);
+        for (int step = 1; step <= n; step++) {
+            int i = Math.floorMod(start + dir * step, n);
+            UiWidget w = widgets.get(i);
+            if (w.isFocusable() && w.isVisible() && w.isEnabled()) {
+                setFocus(w);
+                return;
+            }
+        }
+    }
+
+    void widgetHidden(UiWidget w) {
+        if (w == hovered) hovered = null;
+        w.hovered = false;
+    }
+}
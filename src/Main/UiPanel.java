@@ -0,0 +1,53 @@
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+/**
+ * A backdrop for other widgets: a filled box with an optional border, or a piece of
+ * artwork. It takes no input. An image panel draws the image as is, since the image
+ * already is the cached appearance.
+ */
+public class UiPanel extends UiWidget {
+    private final BufferedImage image;
+    private final Color background;
+    private final Color border;
+    private final BasicStroke borderStroke;
+
+    public UiPanel(int x, int y, int width, int height, Color background, Color border, int borderWidth) {
+        super(x, y, width, height);
+        this.image = null;
+        this.background = background;
+        this.border = border;
+        this.borderStroke = new BasicStroke(borderWidth);
+    }
+
+    public UiPanel(int x, int y, BufferedImage image) {
+        super(x, y, image.getWidth(), image.getHeight());
+        this.image = image;
+        this.background = null;
+        this.border = null;
+        this.borderStroke = null;
+    }
+
+    @Override
+    public void draw(Renderer r) {
+        if (image == null) super.draw(r);
+        else if (isVisible()) r.drawImage(image, x, y);
+    }
+
+    @Override
+    protected void paint(Graphics2D g, Renderer r) {
+        if (background != null) {
+            g.setColor(background);
+            g.fillRect(0, 0, width, height);
+        }
+        if (border != null) {
+            // inside the bounds, so the whole border is in the cached image
+            int inset = (int) borderStroke.getLineWidth() / 2;
+            g.setColor(border);
+            g.setStroke(borderStroke);
+            g.drawRect(inset, inset, width - 1 - 2 * inset, height - 1 - 2 * inset);
+        }
+    }
+}
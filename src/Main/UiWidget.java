@@ -0,0 +1,150 @@
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+
+/**
+ * Base of the in-game UI: a rectangle on screen that paints itself once into a cached
+ * image and is drawn as a single blit until its state (text, hover, focus, enabled)
+ * changes. Widgets live in a UiLayer, which does the hit-testing, focus and keyboard
+ * navigation and marks a widget's area on the DamageTracker when it changes.
+ *
+ * A change paints a fresh image rather than repainting the old one in place: the
+ * framebuffer renderer remembers per image whether it is opaque.
+ */
+public abstract class UiWidget {
+    protected int x, y, width, height;
+    private boolean visible = true;
+    private boolean enabled = true;
+    boolean hovered = false;
+    boolean focused = false;
+    UiLayer layer;
+    private BufferedImage cache;
+    private boolean stale = true;
+
+    // not through setBounds: a subclass's paintHeight() would run before its fields are set
+    protected UiWidget(int x, int y, int width, int height) {
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+    }
+
+    public void setBounds(int x, int y, int width, int height) {
+        markDirty();
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+        invalidate();
+    }
+
+    public int getX() {
+        return x;
+    }
+
+    public int getY() {
+        return y;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public boolean isVisible() {
+        return visible;
+    }
+
+    public void setVisible(boolean visible) {
+        if (visible == this.visible) return;
+        markDirty();
+        this.visible = visible;
+        if (!visible && layer != null) layer.widgetHidden(this);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        if (enabled == this.enabled) return;
+        this.enabled = enabled;
+        invalidate();
+    }
+
+    // whether Tab and the arrow keys stop on this widget
+    public boolean isFocusable() {
+        return false;
+    }
+
+    public boolean isFocused() {
+        return focused;
+    }
+
+    // the area the widget paints; larger than its bounds while a dropdown list is open
+    protected int paintHeight() {
+        return height;
+    }
+
+    public boolean contains(int px, int py) {
+        return visible && px >= x && py >= y && px < x + width && py < y + paintHeight();
+    }
+
+    /**
+     * Repaint the cached image on the next draw and mark the widget's area as changed.
+     */
+    protected void invalidate() {
+        stale = true;
+        markDirty();
+    }
+
+    // the area the widget covers now, before a change that may shrink it
+    protected void markDirty() {
+        if (layer != null && visible) layer.markDirty(x, y, width, paintHeight());
+    }
+
+    public void draw(Renderer r) {
+        if (!visible || width <= 0 || paintHeight() <= 0) return;
+        if (stale) {
+            cache = new BufferedImage(width, paintHeight(), BufferedImage.TYPE_INT_ARGB_PRE);
+            Graphics2D g = cache.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            paint(g, new Java2DRenderer(g));
+            g.dispose();
+            stale = false;
+        }
+        r.drawImage(cache, x, y);
+    }
+
+    /**
+     * Paint the widget at (0, 0) into its cached image. g and r draw into the same image;
+     * r is there for GlyphAtlas text.
+     */
+    protected abstract void paint(Graphics2D g, Renderer r);
+
+    // the focus ring, only once the keyboard has been used to move focus
+    protected boolean showFocus() {
+        return focused && layer != null && layer.isFocusVisible();
+    }
+
+    // Enter or Space while focused, or a click
+    protected void activate() {
+    }
+
+    // a click at (px, py) inside the widget; by default the same as activating it
+    protected void click(int px, int py) {
+        activate();
+    }
+
+    // a key while focused; true when the widget used it (so the layer doesn't move focus)
+    protected boolean keyPressed(int code) {
+        return false;
+    }
+
+    // the layer moved focus or the mouse away
+    protected void focusLost() {
+    }
+}
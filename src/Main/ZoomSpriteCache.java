@@ -0,0 +1,57 @@
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Copies of map sprites (player, NPCs) scaled for the current camera zoom.
+ * A copy is made the first time a frame is drawn at a zoom level and the least
+ * recently drawn copies are dropped once the cache grows past its memory budget,
+ * so flipping between zoom levels neither rescales per frame nor keeps every size alive.
+ */
+public class ZoomSpriteCache {
+    private record Key(Sprite sprite, int zoom) {}
+
+    // access-ordered so iteration starts at the least recently drawn copy
+    private final LinkedHashMap<Key, Sprite> scaled = new LinkedHashMap<>(64, 0.75f, true);
+    private final long memoryBudget;
+    private long memoryUsed = 0;
+
+    public ZoomSpriteCache(long memoryBudgetBytes) {
+        this.memoryBudget = memoryBudgetBytes;
+    }
+
+    /**
+     * The frame scaled to zoom screen pixels per map pixel (frames are loaded at map size).
+     */
+    public Sprite get(Sprite sprite, int zoom) {
+        if (zoom == 1) return sprite;
+        Key key = new Key(sprite, zoom);
+        Sprite s = scaled.get(key);
+        if (s != null) return s;
+
+        s = sprite.scaled(sprite.getWidth() * zoom, sprite.getHeight() * zoom);
+        scaled.put(key, s);
+        memoryUsed += bytesOf(s);
+        evict(key);
+        return s;
+    }
+
+    public long getMemoryUsed() {
+        return memoryUsed;
+    }
+
+    // remove least recently drawn copies until we are back under budget (never the one just added)
+    private void evict(Key keep) {
+        Iterator<Map.Entry<Key, Sprite>> it = scaled.entrySet().iterator();
+        while (memoryUsed > memoryBudget && it.hasNext()) {
+            Map.Entry<Key, Sprite> e = it.next();
+            if (e.getKey().equals(keep)) continue;
+            memoryUsed -= bytesOf(e.getValue());
+            it.remove();
+        }
+    }
+
+    private static long bytesOf(Sprite s) {
+        return (long) s.srcWidth * s.srcHeight * 4;
+    }
+}
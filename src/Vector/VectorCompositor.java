@@ -0,0 +1,145 @@
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Compositor on the (incubating) Vector API: the same packed red/blue + green math as
+ * ScalarCompositor, but on a full SIMD register of pixels per step (8 with AVX2,
+ * 16 with AVX-512). The leftover tail of each run goes through the scalar code, so the
+ * output is identical pixel for pixel.
+ *
+ * Kept out of src/Main because it needs the jdk.incubator.vector module to compile and
+ * run; Compositor.get() falls back to ScalarCompositor when it isn't there. To use it:
+ *   javac -d out src/Main/*.java
+ *   javac --add-modules jdk.incubator.vector -cp out -d out src/Vector/*.java
+ *   java --add-modules jdk.incubator.vector -cp out Main --software
+ */
+public class VectorCompositor extends Compositor {
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+    private static final ScalarCompositor TAIL = new ScalarCompositor();
+
+    @Override
+    public String getName() {
+        return "vector (" + SPECIES.length() + " lanes)";
+    }
+
+    @Override
+    public void blend(int[] src, int srcPos, int[] dst, int dstPos, int length, boolean premultiplied) {
+        int step = SPECIES.length();
+        int upper = SPECIES.loopBound(length);
+        int i = 0;
+        for (; i < upper; i += step) {
+            IntVector s = IntVector.fromArray(SPECIES, src, srcPos + i);
+            IntVector a = s.lanewise(VectorOperators.LSHR, 24);
+            VectorMask<Integer> visible = a.compare(VectorOperators.NE, 0);
+            if (!visible.anyTrue()) continue;
+            IntVector d = IntVector.fromArray(SPECIES, dst, dstPos + i);
+            blend(s, d, a, premultiplied).intoArray(dst, dstPos + i, visible);
+        }
+        TAIL.blend(src, srcPos + i, dst, dstPos + i, length - i, premultiplied);
+    }
+
+    @Override
+    public void blendTinted(int[] src, int srcPos, int[] dst, int dstPos, int length, boolean premultiplied,
+                            int tintRgb, int amount) {
+        int step = SPECIES.length();
+        int upper = SPECIES.loopBound(length);
+        int keep = 255 - amount;
+        IntVector tintRb = IntVector.broadcast(SPECIES, tintRgb & 0xff00ff);
+        IntVector tintG = IntVector.broadcast(SPECIES, (tintRgb >>> 8) & 0xff);
+        int i = 0;
+        for (; i < upper; i += step) {
+            IntVector s = IntVector.fromArray(SPECIES, src, srcPos + i);
+            IntVector a = s.lanewise(VectorOperators.LSHR, 24);
+            VectorMask<Integer> visible = a.compare(VectorOperators.NE, 0);
+            if (!visible.anyTrue()) continue;
+            IntVector tRb = tintRb;
+            IntVector tG = tintG;
+            if (premultiplied) {
+                tRb = div255x2(tRb.mul(a));
+                tG = div255x2(tG.mul(a));
+            }
+            IntVector rb = div255x2(s.and(0xff00ff).mul(keep).add(tRb.mul(amount)));
+            IntVector g = div255x2(s.lanewise(VectorOperators.LSHR, 8).and(0xff).mul(keep).add(tG.mul(amount)));
+            IntVector tinted = a.lanewise(VectorOperators.LSHL, 24).or(rb).or(g.lanewise(VectorOperators.LSHL, 8));
+            IntVector d = IntVector.fromArray(SPECIES, dst, dstPos + i);
+            blend(tinted, d, a, premultiplied).intoArray(dst, dstPos + i, visible);
+        }
+        TAIL.blendTinted(src, srcPos + i, dst, dstPos + i, length - i, premultiplied, tintRgb, amount);
+    }
+
+    @Override
+    public void fill(int argb, int[] dst, int dstPos, int length) {
+        int a = argb >>> 24;
+        if (a == 0 || a == 255) {
+            TAIL.fill(argb, dst, dstPos, length);
+            return;
+        }
+        int ia = 255 - a;
+        IntVector rb = IntVector.broadcast(SPECIES, (argb & 0xff00ff) * a);
+        IntVector g = IntVector.broadcast(SPECIES, ((argb >>> 8) & 0xff) * a);
+        int step = SPECIES.length();
+        int upper = SPECIES.loopBound(length);
+        int i = 0;
+        for (; i < upper; i += step) {
+            IntVector d = IntVector.fromArray(SPECIES, dst, dstPos + i);
+            IntVector outRb = div255x2(rb.add(d.and(0xff00ff).mul(ia)));
+            IntVector outG = div255x2(g.add(d.lanewise(VectorOperators.LSHR, 8).and(0xff).mul(ia)));
+            outRb.or(outG.lanewise(VectorOperators.LSHL, 8)).or(0xff000000).intoArray(dst, dstPos + i);
+        }
+        TAIL.fill(argb, dst, dstPos + i, length - i);
+    }
+
+    @Override
+    public void fade(int[] dst, int dstPos, int length, int level) {
+        int step = SPECIES.length();
+        int upper = SPECIES.loopBound(length);
+        int i = 0;
+        for (; i < upper; i += step) {
+            IntVector d = IntVector.fromArray(SPECIES, dst, dstPos + i);
+            IntVector rb = div255x2(d.and(0xff00ff).mul(level));
+            IntVector g = div255x2(d.lanewise(VectorOperators.LSHR, 8).and(0xff).mul(level));
+            rb.or(g.lanewise(VectorOperators.LSHL, 8)).or(0xff000000).intoArray(dst, dstPos + i);
+        }
+        TAIL.fade(dst, dstPos + i, length - i, level);
+    }
+
+    @Override
+    public void multiply(int[] src, int srcPos, int[] dst, int dstPos, int length) {
+        int step = SPECIES.length();
+        int upper = SPECIES.loopBound(length);
+        int i = 0;
+        for (; i < upper; i += step) {
+            IntVector s = IntVector.fromArray(SPECIES, src, srcPos + i);
+            IntVector d = IntVector.fromArray(SPECIES, dst, dstPos + i);
+            IntVector r = d.lanewise(VectorOperators.LSHR, 16).and(0xff).mul(s.lanewise(VectorOperators.LSHR, 16).and(0xff));
+            IntVector rb = r.lanewise(VectorOperators.LSHL, 16).or(d.and(0xff).mul(s.and(0xff)));
+            IntVector g = d.lanewise(VectorOperators.LSHR, 8).and(0xff).mul(s.lanewise(VectorOperators.LSHR, 8).and(0xff));
+            div255x2(rb).or(div255x2(g).lanewise(VectorOperators.LSHL, 8)).or(0xff000000).intoArray(dst, dstPos + i);
+        }
+        TAIL.multiply(src, srcPos + i, dst, dstPos + i, length - i);
+    }
+
+    // source-over of s (alpha a) on d, see ScalarCompositor.blendPixel
+    private static IntVector blend(IntVector s, IntVector d, IntVector a, boolean premultiplied) {
+        IntVector ia = a.lanewise(VectorOperators.XOR, 255);
+        IntVector dRb = d.and(0xff00ff).mul(ia);
+        IntVector dG = d.lanewise(VectorOperators.LSHR, 8).and(0xff).mul(ia);
+        IntVector rb, g;
+        if (premultiplied) {
+            rb = s.and(0xff00ff).add(div255x2(dRb));
+            g = s.lanewise(VectorOperators.LSHR, 8).and(0xff).add(div255x2(dG));
+        } else {
+            rb = div255x2(s.and(0xff00ff).mul(a).add(dRb));
+            g = div255x2(s.lanewise(VectorOperators.LSHR, 8).and(0xff).mul(a).add(dG));
+        }
+        return rb.or(g.lanewise(VectorOperators.LSHL, 8)).or(0xff000000);
+    }
+
+    // Compositor.div255x2 on every lane
+    private static IntVector div255x2(IntVector x) {
+        return x.add(0x010001).add(x.lanewise(VectorOperators.LSHR, 8).and(0xff00ff))
+            .lanewise(VectorOperators.LSHR, 8).and(0xff00ff);
+    }
+}